@@ -0,0 +1,75 @@
+package com.example.Cart;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking variant of {@link InventoryService} for network-backed inventory systems.
+ * Lookups return at once and complete later, so no thread waits on the backend.
+ */
+public interface AsyncInventoryService {
+
+    /**
+     * Looks up the available quantity for a given product SKU.
+     *
+     * @param sku the product SKU to check
+     * @return a future of the available quantity, or 0 if not available/not found
+     */
+    CompletableFuture<Integer> getAvailableAsync(String sku);
+
+    /**
+     * Looks up several SKUs in parallel. Every lookup is started at once and must complete
+     * within {@code timeout}; otherwise the returned future fails with a
+     * {@link java.util.concurrent.TimeoutException}.
+     *
+     * @param skus the product SKUs to check
+     * @param timeout the time allowed for each lookup
+     * @return a future of a map from every requested SKU to its available quantity
+     */
+    default CompletableFuture<Map<String, Integer>> getAvailableAsync(Collection<String> skus, Duration timeout) {
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        Set<String> distinct = new LinkedHashSet<>(skus);
+        Map<String, CompletableFuture<Integer>> lookups = new HashMap<>();
+        for (String sku : distinct) {
+            lookups.put(sku, getAvailableAsync(sku).orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS));
+        }
+        return CompletableFuture.allOf(lookups.values().toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    Map<String, Integer> available = new HashMap<>();
+                    lookups.forEach((sku, lookup) -> available.put(sku, lookup.join()));
+                    return available;
+                });
+    }
+
+    /**
+     * Wraps a synchronous inventory service, running each lookup on its own virtual thread.
+     */
+    static AsyncInventoryService adapt(InventoryService inventoryService) {
+        return adapt(inventoryService, SyncInventoryAdapter.VIRTUAL_THREADS);
+    }
+
+    /**
+     * Wraps a synchronous inventory service, running each lookup on the given executor.
+     */
+    static AsyncInventoryService adapt(InventoryService inventoryService, Executor executor) {
+        if (inventoryService == null) {
+            throw new IllegalArgumentException("InventoryService cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        if (inventoryService instanceof AsyncInventoryService async) {
+            return async;
+        }
+        return new SyncInventoryAdapter(inventoryService, executor);
+    }
+}
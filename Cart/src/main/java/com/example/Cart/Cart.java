@@ -1,32 +1,73 @@
 package com.example.Cart;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a shopping cart that holds multiple CartItem objects.
  * Now includes inventory validation before adding items.
+ * When the inventory service is a {@link ReservableInventoryService}, added quantities
+ * are reserved rather than only checked, so concurrent carts cannot oversell.
  */
 public class Cart {
 
+    public static final Duration DEFAULT_RESERVATION_TTL = Duration.ofMinutes(15);
+
     private final Catalog catalog;
     private final InventoryService inventoryService;  // 🔴 RED: Added inventory service
+    private final ReservableInventoryService reservableInventory;
+    private final Duration reservationTtl;
     private final Map<String, CartItem> items;
+    private final Map<String, List<Reservation>> reservations;
+    private CartSnapshot snapshot;
+    private AsyncInventoryService asyncInventory;
+    private final CartMetrics metrics;
 
     /**
      * 🔴 RED: Constructor now requires InventoryService
      */
     public Cart(Catalog catalog, InventoryService inventoryService) {
+        this(catalog, inventoryService, DEFAULT_RESERVATION_TTL);
+    }
+
+    /**
+     * Creates a cart whose inventory reservations, if the service supports them,
+     * last for the given time.
+     */
+    public Cart(Catalog catalog, InventoryService inventoryService, Duration reservationTtl) {
+        this(catalog, inventoryService, reservationTtl, CartMetrics.NOOP);
+    }
+
+    /**
+     * Creates a cart that reports timings and rejections to the given metrics.
+     */
+    public Cart(Catalog catalog, InventoryService inventoryService, Duration reservationTtl, CartMetrics metrics) {
         if (catalog == null) {
             throw new IllegalArgumentException("Catalog cannot be null");
         }
         if (inventoryService == null) {
             throw new IllegalArgumentException("InventoryService cannot be null");
         }
+        if (reservationTtl == null || reservationTtl.isNegative() || reservationTtl.isZero()) {
+            throw new IllegalArgumentException("Reservation TTL must be positive");
+        }
         this.catalog = catalog;
         this.inventoryService = inventoryService;  // 🔴 RED: Store inventory service
+        this.reservableInventory = inventoryService instanceof ReservableInventoryService reservable
+                ? reservable : null;
+        this.reservationTtl = reservationTtl;
         this.items = new HashMap<>();
+        this.reservations = new HashMap<>();
+        this.snapshot = CartSnapshot.empty();
+        this.metrics = metrics == null ? CartMetrics.NOOP : metrics;
     }
 
     /**
@@ -34,49 +75,341 @@ public class Cart {
      * 🔴 RED: Now checks inventory before adding.
      */
     public void addItem(String sku, int quantity) {
+        long started = metrics.start();
         if (quantity <= 0) {
+            metrics.rejected(sku, CartMetrics.Rejection.INVALID_QUANTITY);
             throw new IllegalArgumentException("Quantity must be greater than 0");
         }
 
         Product product = catalog.findProductBySku(sku);
+        metrics.catalogLookup(started);
         if (product == null) {
+            metrics.rejected(sku, CartMetrics.Rejection.UNKNOWN_PRODUCT);
             throw new IllegalArgumentException("Product not found in catalog: " + sku);
         }
 
+        long checkStarted = metrics.start();
+        if (reservableInventory != null) {
+            reserve(sku, quantity);
+            metrics.inventoryCheck(checkStarted);
+            merge(sku, quantity, product);
+            metrics.cartMutation("add", started);
+            return;
+        }
+
         // 🔴 RED: Check inventory availability
         // This is the NEW logic that doesn't exist yet - tests will FAIL here
         int availableQuantity = inventoryService.getAvailable(sku);
+        metrics.inventoryCheck(checkStarted);
         int currentCartQuantity = items.containsKey(sku) ? items.get(sku).getQuantity() : 0;
         int totalRequiredQuantity = currentCartQuantity + quantity;
 
         if (totalRequiredQuantity > availableQuantity) {
+            metrics.rejected(sku, CartMetrics.Rejection.INSUFFICIENT_INVENTORY);
             throw new InsufficientInventoryException(sku, totalRequiredQuantity, availableQuantity);
         }
 
         // Only add to cart if inventory check passes
-        items.merge(sku, new CartItem(sku, quantity, product.getPrice()), (existing, newItem) -> {
-            existing.setQuantity(existing.getQuantity() + newItem.getQuantity());
-            return existing;
-        });
+        merge(sku, quantity, product);
+        metrics.cartMutation("add", started);
+    }
+
+    /**
+     * Adds several items in one step, checking inventory for all of them with a single
+     * batch call. Either every line is added or none is: the first line (in the map's
+     * iteration order) that is invalid or exceeds available inventory fails the whole call.
+     *
+     * @param quantitiesBySku quantity to add for each SKU
+     */
+    public void addItems(Map<String, Integer> quantitiesBySku) {
+        long started = metrics.start();
+        Map<String, Product> products = resolveProducts(quantitiesBySku);
+        if (products.isEmpty()) {
+            return;
+        }
+
+        long checkStarted = metrics.start();
+        if (reservableInventory != null) {
+            reserveAndMerge(quantitiesBySku, products, checkStarted);
+        } else {
+            Map<String, Integer> available = inventoryService.getAvailable(products.keySet());
+            metrics.inventoryCheck(checkStarted);
+            checkAndMerge(quantitiesBySku, products, available);
+        }
+        metrics.cartMutation("add", started);
+    }
+
+    /**
+     * Asynchronous {@link #addItem(String, int)}: the inventory lookup does not block the
+     * caller, and the item is added when it completes. Like the rest of this class, the
+     * cart is not thread-safe; do not change it until the returned future completes.
+     * Carts backed by a {@link ReservableInventoryService} reserve synchronously.
+     *
+     * @param timeout the time allowed for the inventory lookup
+     * @return a future that completes when the item is added, or fails with
+     *         {@link InsufficientInventoryException}, a timeout, or
+     *         {@link IllegalArgumentException} for an invalid line; nothing is thrown
+     */
+    public CompletableFuture<Void> addItemAsync(String sku, int quantity, Duration timeout) {
+        return addItemsAsync(Collections.singletonMap(sku, quantity), timeout);
+    }
+
+    /**
+     * Asynchronous {@link #addItems(Map)}: inventory for all SKUs is looked up in parallel,
+     * each within {@code timeout}, and the lines are added all-or-nothing when every lookup
+     * has completed. The same threading rules and failure reporting as
+     * {@link #addItemAsync} apply.
+     */
+    public CompletableFuture<Void> addItemsAsync(Map<String, Integer> quantitiesBySku, Duration timeout) {
+        try {
+            if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+            long started = metrics.start();
+            Map<String, Product> products = resolveProducts(quantitiesBySku);
+            if (products.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            long checkStarted = metrics.start();
+            if (reservableInventory != null) {
+                reserveAndMerge(quantitiesBySku, products, checkStarted);
+                metrics.cartMutation("add", started);
+                return CompletableFuture.completedFuture(null);
+            }
+            return asyncInventory().getAvailableAsync(products.keySet(), timeout)
+                    .thenAccept(available -> {
+                        metrics.inventoryCheck(checkStarted);
+                        checkAndMerge(quantitiesBySku, products, available);
+                        metrics.cartMutation("add", started);
+                    });
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private AsyncInventoryService asyncInventory() {
+        if (asyncInventory == null) {
+            asyncInventory = AsyncInventoryService.adapt(inventoryService);
+        }
+        return asyncInventory;
+    }
+
+    /**
+     * Validates every line and looks up its product, in the map's iteration order, recording
+     * the same lookups and rejections as {@link #addItem(String, int)}.
+     */
+    private Map<String, Product> resolveProducts(Map<String, Integer> quantitiesBySku) {
+        if (quantitiesBySku == null) {
+            throw new IllegalArgumentException("Items cannot be null");
+        }
+        Map<String, Product> products = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> line : quantitiesBySku.entrySet()) {
+            Integer quantity = line.getValue();
+            if (quantity == null || quantity <= 0) {
+                metrics.rejected(line.getKey(), CartMetrics.Rejection.INVALID_QUANTITY);
+                throw new IllegalArgumentException("Quantity must be greater than 0");
+            }
+            long lookupStarted = metrics.start();
+            Product product = catalog.findProductBySku(line.getKey());
+            metrics.catalogLookup(lookupStarted);
+            if (product == null) {
+                metrics.rejected(line.getKey(), CartMetrics.Rejection.UNKNOWN_PRODUCT);
+                throw new IllegalArgumentException("Product not found in catalog: " + line.getKey());
+            }
+            products.put(line.getKey(), product);
+        }
+        return products;
+    }
+
+    /**
+     * Adds every line if each fits within its available quantity, otherwise none.
+     */
+    private void checkAndMerge(Map<String, Integer> quantitiesBySku, Map<String, Product> products,
+                               Map<String, Integer> available) {
+        for (Map.Entry<String, Integer> line : quantitiesBySku.entrySet()) {
+            String sku = line.getKey();
+            int availableQuantity = available.getOrDefault(sku, 0);
+            int totalRequiredQuantity = (items.containsKey(sku) ? items.get(sku).getQuantity() : 0) + line.getValue();
+            if (totalRequiredQuantity > availableQuantity) {
+                metrics.rejected(sku, CartMetrics.Rejection.INSUFFICIENT_INVENTORY);
+                throw new InsufficientInventoryException(sku, totalRequiredQuantity, availableQuantity);
+            }
+        }
+
+        products.forEach((sku, product) -> merge(sku, quantitiesBySku.get(sku), product));
+    }
+
+    /**
+     * Reserves the quantity being added, reporting a shortage in terms of the whole cart line.
+     */
+    private Reservation reserve(String sku, int quantity) {
+        Reservation reservation;
+        try {
+            reservation = reservableInventory.reserve(sku, quantity, reservationTtl);
+        } catch (InsufficientInventoryException e) {
+            metrics.rejected(sku, CartMetrics.Rejection.INSUFFICIENT_INVENTORY);
+            int currentCartQuantity = items.containsKey(sku) ? items.get(sku).getQuantity() : 0;
+            throw new InsufficientInventoryException(sku, currentCartQuantity + quantity,
+                    currentCartQuantity + e.getAvailableQuantity());
+        }
+        reservations.computeIfAbsent(sku, s -> new ArrayList<>()).add(reservation);
+        return reservation;
+    }
+
+    /**
+     * Reserves every line and adds them all, or releases what was reserved and adds none.
+     */
+    private void reserveAndMerge(Map<String, Integer> quantitiesBySku, Map<String, Product> products,
+                                 long checkStarted) {
+        reserveAll(quantitiesBySku);
+        metrics.inventoryCheck(checkStarted);
+        products.forEach((sku, product) -> merge(sku, quantitiesBySku.get(sku), product));
+    }
+
+    private void reserveAll(Map<String, Integer> quantitiesBySku) {
+        List<Reservation> made = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Integer> line : quantitiesBySku.entrySet()) {
+                made.add(reserve(line.getKey(), line.getValue()));
+            }
+        } catch (RuntimeException e) {
+            for (Reservation reservation : made) {
+                reservableInventory.release(reservation);
+                reservations.get(reservation.getSku()).remove(reservation);
+            }
+            reservations.values().removeIf(List::isEmpty);
+            throw e;
+        }
+    }
+
+    /**
+     * Commits every inventory reservation held by this cart, e.g. at checkout.
+     *
+     * @return true if all reservations were still held; false if any had expired or been released
+     */
+    public boolean commitReservations() {
+        boolean allCommitted = true;
+        for (List<Reservation> held : reservations.values()) {
+            for (Reservation reservation : held) {
+                allCommitted &= reservableInventory.commit(reservation);
+            }
+        }
+        reservations.clear();
+        return allCommitted;
+    }
+
+    /**
+     * Returns every inventory reservation held by this cart to stock.
+     */
+    public void releaseReservations() {
+        reservations.values().forEach(held -> held.forEach(reservableInventory::release));
+        reservations.clear();
+    }
+
+    private void merge(String sku, int quantity, Product product) {
+        CartItem existing = items.get(sku);
+        if (existing != null) {
+            existing.setQuantity(Math.addExact(existing.getQuantity(), quantity));
+            return;
+        }
+        CartItem added = CartItem.ofCents(sku, quantity, product.getPriceInCents());
+        onItemChanged(new CartLine(sku, quantity, added.getPriceInCents()));
+        added.setCart(this);
+        items.put(sku, added);
+    }
+
+    /**
+     * Records the new state of one item in the snapshot, which also carries the running
+     * totals. Called before the item itself changes, so an overflow leaves both item and
+     * cart untouched.
+     */
+    void onItemChanged(CartLine line) {
+        snapshot = snapshot.with(line);
     }
 
     /**
      * Removes an item from the cart by SKU.
      */
     public void removeItem(String sku) {
+        long started = metrics.start();
         if (!items.containsKey(sku)) {
             throw new IllegalArgumentException("Item not found in cart: " + sku);
         }
-        items.remove(sku);
+        CartItem removed = items.remove(sku);
+        snapshot = snapshot.without(sku);
+        removed.setCart(null);
+        List<Reservation> held = reservations.remove(sku);
+        if (held != null) {
+            held.forEach(reservableInventory::release);
+        }
+        metrics.cartMutation("remove", started);
+    }
+
+    /**
+     * Updates the unit price of every item for one of the given SKUs to the catalog's
+     * current price, e.g. after {@link Catalog#applyDelta(CatalogDelta)}. Items whose
+     * product is no longer in the catalog keep their price.
+     *
+     * @param skus catalog SKUs whose price may have changed
+     * @return the number of items whose price changed
+     */
+    public int reprice(Set<String> skus) {
+        if (skus == null) {
+            throw new IllegalArgumentException("SKUs cannot be null");
+        }
+        int changed = 0;
+        for (CartItem item : items.values()) {
+            if (!skus.contains(item.getSku().trim())) {
+                continue;
+            }
+            Product product = catalog.findProductBySku(item.getSku());
+            if (product != null && product.getPriceInCents() != item.getPriceInCents()) {
+                item.setPriceInCents(product.getPriceInCents());
+                changed++;
+            }
+        }
+        return changed;
     }
 
     /**
      * Calculates the total price of all items in the cart.
      */
     public double getTotal() {
-        return items.values().stream()
-                .mapToDouble(CartItem::getSubtotal)
-                .sum();
+        return Money.toDouble(getTotalInCents());
+    }
+
+    /**
+     * Returns the exact total price of all items in the cart, in cents. The total is kept
+     * up to date on every change, so this does not iterate the items.
+     */
+    public long getTotalInCents() {
+        return snapshot.getTotalInCents();
+    }
+
+    public BigDecimal getTotalAsBigDecimal() {
+        return Money.toBigDecimal(getTotalInCents());
+    }
+
+    /**
+     * Returns the number of units in the cart, summed over all items.
+     */
+    public long getTotalQuantity() {
+        return snapshot.getTotalQuantity();
+    }
+
+    /**
+     * Returns an immutable snapshot of the cart's current lines. It is kept up to date on
+     * every change in O(log n), so taking it costs nothing, and it never changes afterwards.
+     */
+    public CartSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the cart's version, which increases on every change to its lines.
+     */
+    public long getVersion() {
+        return snapshot.getVersion();
     }
 
     /**
@@ -0,0 +1,97 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.ConcurrentInventoryService;
+import com.example.Cart.impl.ReservationInventoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The catalog, inventory and carts served by the web layer. All of them are safe to use
+ * from concurrent request threads.
+ */
+@Configuration
+public class CartConfiguration {
+
+    /**
+     * Opens the catalog snapshot file when one is configured and matches the current source
+     * version, so a restarted node serves lookups without rebuilding the catalog. Otherwise
+     * the catalog starts empty and is filled by the feed.
+     */
+    @Bean
+    public Catalog catalog(@Value("${cart.catalog.snapshot-file:}") String snapshotFile,
+                           @Value("${cart.catalog.source-version:0}") long sourceVersion) throws IOException {
+        if (snapshotFile.isBlank() || !Files.exists(Path.of(snapshotFile))) {
+            return Catalog.threadSafe();
+        }
+        try {
+            return Catalog.openSnapshot(Path.of(snapshotFile), sourceVersion);
+        } catch (CatalogSnapshotException e) {
+            return Catalog.threadSafe();
+        }
+    }
+
+    /**
+     * With reservations enabled, adding to a cart holds the stock until checkout, and held
+     * stock whose reservation has expired is returned on the eviction scheduler.
+     */
+    @Bean
+    public ConcurrentInventoryService inventoryService(ScheduledExecutorService cartEvictionScheduler,
+                                                      @Value("${cart.inventory.reservations:false}") boolean reservations,
+                                                      @Value("${cart.inventory.expiry-interval:1m}") Duration expiryInterval) {
+        if (!reservations) {
+            return new ConcurrentInventoryService();
+        }
+        ReservationInventoryService inventory = new ReservationInventoryService();
+        inventory.scheduleExpiry(cartEvictionScheduler, expiryInterval);
+        return inventory;
+    }
+
+    /**
+     * Runs idle-cart eviction and, with reservations enabled, reservation expiry.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService cartEvictionScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs repricing sweeps one at a time, in the order the catalog changed.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cartRepricingExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-repricing");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    public CartRegistry cartRegistry(Catalog catalog, InventoryService inventoryService,
+                                     CartRepository cartRepository, CartMetrics cartMetrics,
+                                     ScheduledExecutorService cartEvictionScheduler,
+                                     ExecutorService cartRepricingExecutor,
+                                     @Value("${cart.registry.shards:64}") int shards,
+                                     @Value("${cart.registry.idle-timeout:30m}") Duration idleTimeout,
+                                     @Value("${cart.registry.eviction-interval:1m}") Duration evictionInterval) {
+        CartRegistry registry = new CartRegistry(catalog, inventoryService, cartRepository, cartMetrics,
+                shards, idleTimeout, Clock.systemUTC());
+        registry.scheduleEviction(cartEvictionScheduler, evictionInterval);
+        catalog.addChangeListener(registry.repricingListener(cartRepricingExecutor));
+        return registry;
+    }
+}
@@ -2,27 +2,42 @@ package com.example.Cart;
 
 /**
  * Represents a single item in the shopping cart.
+ * The unit price is held in cents (see {@link Money}); the {@code double} accessors
+ * convert at the boundary. While the item belongs to a {@link Cart}, every change of
+ * quantity or price is reported to it so the cart's running totals stay correct.
  */
 public class CartItem {
     private final String sku;  // 🧠 Refactor: made sku final — it's an identifier, should not change.
     private int quantity;
-    private double price;
+    private long priceInCents;
+    private Cart cart;
 
     // 🧠 Refactor: Added validation logic inside constructor
     public CartItem(String sku, int quantity, double price) {
+        this(sku, quantity, toCents(price));
+    }
+
+    private CartItem(String sku, int quantity, long priceInCents) {
         if (sku == null || sku.isEmpty()) {
             throw new IllegalArgumentException("SKU cannot be null or empty");
         }
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than 0");
         }
-        if (price < 0) {
+        if (priceInCents < 0) {
             throw new IllegalArgumentException("Price cannot be negative");
         }
 
         this.sku = sku;
         this.quantity = quantity;
-        this.price = price;
+        this.priceInCents = priceInCents;
+    }
+
+    /**
+     * Creates an item whose unit price is given in cents.
+     */
+    public static CartItem ofCents(String sku, int quantity, long priceInCents) {
+        return new CartItem(sku, quantity, priceInCents);
     }
 
     // 🧠 Refactor: Added getters and setters for proper encapsulation
@@ -35,7 +50,11 @@ public class CartItem {
     }
 
     public double getPrice() {
-        return price;
+        return Money.toDouble(priceInCents);
+    }
+
+    public long getPriceInCents() {
+        return priceInCents;
     }
 
     // 🧠 Refactor: Added validation inside setters to prevent invalid updates
@@ -43,25 +62,53 @@ public class CartItem {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than 0");
         }
+        if (cart != null) {
+            cart.onItemChanged(new CartLine(sku, quantity, priceInCents));
+        }
         this.quantity = quantity;
     }
 
     public void setPrice(double price) {
-        if (price < 0) {
+        setPriceInCents(toCents(price));
+    }
+
+    public void setPriceInCents(long priceInCents) {
+        if (priceInCents < 0) {
             throw new IllegalArgumentException("Price cannot be negative");
         }
-        this.price = price;
+        if (cart != null) {
+            cart.onItemChanged(new CartLine(sku, quantity, priceInCents));
+        }
+        this.priceInCents = priceInCents;
+    }
+
+    /**
+     * Sets the cart to notify of changes, or null once the item has been removed from it.
+     */
+    void setCart(Cart cart) {
+        this.cart = cart;
     }
 
     // 🧠 Refactor: Added a convenience method to calculate subtotal
     public double getSubtotal() {
-        return price * quantity;
+        return Money.toDouble(getSubtotalInCents());
+    }
+
+    public long getSubtotalInCents() {
+        return Money.multiply(priceInCents, quantity);
+    }
+
+    private static long toCents(double price) {
+        if (price < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        return Money.toCents(price);
     }
 
     // 🧠 Refactor: Added a clean toString() override for debugging/logging
     @Override
     public String toString() {
-        return String.format("CartItem{sku='%s', quantity=%d, price=%.2f}", sku, quantity, price);
+        return String.format("CartItem{sku='%s', quantity=%d, price=%.2f}", sku, quantity, getPrice());
     }
 }
 
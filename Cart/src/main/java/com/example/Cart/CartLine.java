@@ -0,0 +1,86 @@
+package com.example.Cart;
+
+/**
+ * An immutable cart line: a quantity of one SKU at a unit price held in cents.
+ * Changing a line produces a new one, so a line read from a {@link ConcurrentCart}
+ * snapshot never changes underneath the reader.
+ */
+public final class CartLine {
+
+    private final String sku;
+    private final int quantity;
+    private final long priceInCents;
+
+    public CartLine(String sku, int quantity, long priceInCents) {
+        if (sku == null || sku.isEmpty()) {
+            throw new IllegalArgumentException("SKU cannot be null or empty");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        if (priceInCents < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+        this.sku = sku;
+        this.quantity = quantity;
+        this.priceInCents = priceInCents;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getPriceInCents() {
+        return priceInCents;
+    }
+
+    public double getPrice() {
+        return Money.toDouble(priceInCents);
+    }
+
+    public long getSubtotalInCents() {
+        return Money.multiply(priceInCents, quantity);
+    }
+
+    public double getSubtotal() {
+        return Money.toDouble(getSubtotalInCents());
+    }
+
+    /**
+     * Returns a line for the same SKU and price with the given quantity.
+     */
+    public CartLine withQuantity(int quantity) {
+        return new CartLine(sku, quantity, priceInCents);
+    }
+
+    /**
+     * Returns a line for the same SKU and quantity with the given unit price.
+     */
+    public CartLine withPriceInCents(long priceInCents) {
+        return new CartLine(sku, quantity, priceInCents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CartLine line)) return false;
+        return quantity == line.quantity && priceInCents == line.priceInCents && sku.equals(line.sku);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = sku.hashCode();
+        result = 31 * result + quantity;
+        result = 31 * result + Long.hashCode(priceInCents);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CartLine{sku='%s', quantity=%d, price=%.2f}", sku, quantity, getPrice());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.Cart;
+
+/**
+ * Hooks through which carts report timings and rejections.
+ * Every method defaults to doing nothing and {@link #start()} to not reading the clock,
+ * so {@link #NOOP} costs only a few inlined calls when metrics are switched off.
+ *
+ * <p>Timed hooks take the value returned by {@link #start()} when the step began.
+ */
+public interface CartMetrics {
+
+    CartMetrics NOOP = new CartMetrics() {
+    };
+
+    /**
+     * Why an item could not be added to a cart.
+     */
+    enum Rejection {
+        UNKNOWN_PRODUCT,
+        INVALID_QUANTITY,
+        INSUFFICIENT_INVENTORY
+    }
+
+    /**
+     * Returns the start time of a step, in nanoseconds, or 0 if nothing is timed.
+     */
+    default long start() {
+        return 0;
+    }
+
+    /**
+     * A catalog lookup for one product finished.
+     */
+    default void catalogLookup(long startNanos) {
+    }
+
+    /**
+     * An inventory check or reservation finished.
+     */
+    default void inventoryCheck(long startNanos) {
+    }
+
+    /**
+     * A cart change finished successfully.
+     *
+     * @param operation the kind of change, such as {@code "add"} or {@code "remove"}
+     */
+    default void cartMutation(String operation, long startNanos) {
+    }
+
+    /**
+     * An item was rejected.
+     */
+    default void rejected(String sku, Rejection reason) {
+    }
+
+    /**
+     * A repricing sweep over the live carts finished.
+     */
+    default void repriced(RepricingResult result) {
+    }
+
+    /**
+     * A background task of the cart registry failed and will be retried on its next run.
+     *
+     * @param task the kind of task, such as {@code "evict"} or {@code "reprice"}
+     */
+    default void backgroundTaskFailed(String task) {
+    }
+}
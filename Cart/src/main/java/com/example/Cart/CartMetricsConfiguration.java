@@ -0,0 +1,47 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.MicrometerCartMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes cart metrics through Micrometer, and so through the actuator metrics endpoint.
+ * Set {@code cart.metrics.enabled=false} to replace them with {@link CartMetrics#NOOP},
+ * which leaves the cart hot paths with no clock reads or meter updates.
+ */
+@Configuration
+public class CartMetricsConfiguration {
+
+    private static final String ENABLED = "cart.metrics.enabled";
+
+    @Bean
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true", matchIfMissing = true)
+    public CartMetrics cartMetrics(MeterRegistry registry,
+                                   @Value("${cart.metrics.rejections-by-sku:false}") boolean rejectionsBySku) {
+        return new MicrometerCartMetrics(registry, rejectionsBySku);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true", matchIfMissing = true)
+    public MeterBinder cartGauges(Catalog catalog, CartRegistry cartRegistry) {
+        return registry -> {
+            Gauge.builder("cart.catalog.size", catalog, Catalog::size)
+                    .description("Products in the catalog")
+                    .register(registry);
+            Gauge.builder("cart.active", cartRegistry, CartRegistry::size)
+                    .description("Carts held in memory")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = ENABLED, havingValue = "false")
+    public CartMetrics noopCartMetrics() {
+        return CartMetrics.NOOP;
+    }
+}
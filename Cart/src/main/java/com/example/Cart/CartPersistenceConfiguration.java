@@ -0,0 +1,49 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.JdbcCartRepository;
+import com.example.Cart.impl.WriteBehindCartRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Wires the cart repository to the configured datasource behind a write-behind queue,
+ * so saving a cart never waits for the database.
+ */
+@Configuration
+public class CartPersistenceConfiguration {
+
+    @Bean
+    public JdbcCartRepository jdbcCartRepository(JdbcTemplate jdbcTemplate,
+                                                 PlatformTransactionManager transactionManager) {
+        return new JdbcCartRepository(jdbcTemplate, transactionManager);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService cartFlushScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public WriteBehindCartRepository cartRepository(
+            JdbcCartRepository jdbcCartRepository,
+            ScheduledExecutorService cartFlushScheduler,
+            @Value("${cart.persistence.batch-size:500}") int batchSize,
+            @Value("${cart.persistence.max-attempts:5}") int maxAttempts,
+            @Value("${cart.persistence.flush-interval:1s}") Duration flushInterval) {
+        return new WriteBehindCartRepository(jdbcCartRepository, batchSize, maxAttempts, flushInterval,
+                cartFlushScheduler);
+    }
+}
@@ -0,0 +1,480 @@
+package com.example.Cart;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the active carts of all sessions by cart id.
+ * Carts are {@link ConcurrentCart}s, so several requests for the same cart can run at
+ * once. A cart that is not in memory is restored from the {@link CartRepository}, and
+ * {@link #save(String, ConcurrentCart)} queues its current snapshot to be stored.
+ *
+ * <p>Carts are spread over a power-of-two number of independent shards by cart id hash,
+ * so table resizes and eviction sweeps only ever touch one shard at a time. Carts not used
+ * for {@code idleTimeout} are moved to the repository by {@link #evictIdle()}, which
+ * bounds the memory held for idle sessions; the next request restores them. Eviction does
+ * not race the requests for a cart: a cart looked up while it is being evicted stays in
+ * memory, and a lookup that comes after the eviction restores the copy it saved. So there
+ * is only ever one live copy of a cart, and no two copies carry the same version. A cart
+ * should therefore be looked up for each request rather than kept, since one held for
+ * longer than the idle timeout can still be evicted.
+ *
+ * <p>The registry also indexes its carts by the SKUs they hold, so that
+ * {@link #reprice(Set)} updates the carts affected by a catalog price change without
+ * scanning all of them. A cart is indexed under a SKU before its first line for that SKU
+ * is added and stays indexed until the cart leaves memory, so the index may name a few
+ * carts that have since removed the line, but never misses one that holds it.
+ */
+public class CartRegistry {
+
+    public static final int DEFAULT_SHARDS = 64;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    private static final int MAX_CART_ID_LENGTH = 64;
+
+    private static final Logger log = LoggerFactory.getLogger(CartRegistry.class);
+
+    private final Catalog catalog;
+    private final InventoryService inventoryService;
+    private final CartRepository repository;
+    private final CartMetrics metrics;
+    private final Map<String, Entry>[] shards;
+    private final Map<String, Set<Entry>> cartsBySku = new ConcurrentHashMap<>();
+    private final int shardMask;
+    private final AtomicInteger active = new AtomicInteger();
+    private final long idleTimeoutMillis;
+    private final Clock clock;
+
+    public CartRegistry(Catalog catalog, InventoryService inventoryService, CartRepository repository) {
+        this(catalog, inventoryService, repository, CartMetrics.NOOP);
+    }
+
+    public CartRegistry(Catalog catalog, InventoryService inventoryService, CartRepository repository,
+                        CartMetrics metrics) {
+        this(catalog, inventoryService, repository, metrics, DEFAULT_SHARDS, DEFAULT_IDLE_TIMEOUT,
+                Clock.systemUTC());
+    }
+
+    /**
+     * @param shardCount the number of shards, rounded up to a power of two
+     * @param idleTimeout how long a cart may go unused before {@link #evictIdle()} moves it
+     *                    to the repository
+     * @param clock the clock used to track cart access
+     */
+    @SuppressWarnings("unchecked")
+    public CartRegistry(Catalog catalog, InventoryService inventoryService, CartRepository repository,
+                        CartMetrics metrics, int shardCount, Duration idleTimeout, Clock clock) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        if (inventoryService == null) {
+            throw new IllegalArgumentException("InventoryService cannot be null");
+        }
+        if (repository == null) {
+            throw new IllegalArgumentException("CartRepository cannot be null");
+        }
+        if (shardCount <= 0 || shardCount > 1 << 16) {
+            throw new IllegalArgumentException("Shard count must be between 1 and 65536");
+        }
+        if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Idle timeout must be positive");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.catalog = catalog;
+        this.inventoryService = inventoryService;
+        this.repository = repository;
+        this.metrics = metrics == null ? CartMetrics.NOOP : metrics;
+        int size = shardCount == 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        this.shards = new Map[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.shardMask = size - 1;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cart with the given id, restoring it from the repository or creating an
+     * empty one if needed.
+     */
+    public ConcurrentCart getOrCreate(String cartId) {
+        validateCartId(cartId);
+        Map<String, Entry> shard = shardFor(cartId);
+        while (true) {
+            Entry entry = shard.get(cartId);
+            if (entry == null) {
+                // Load outside the map: a mapping function would hold the bin lock, and pin a
+                // virtual thread's carrier, for the whole repository call.
+                entry = register(shard, cartId, repository.load(cartId));
+            }
+            if (claim(shard, entry)) {
+                return entry.cart;
+            }
+        }
+    }
+
+    /**
+     * Returns the cart with the given id, restoring it from the repository if needed, or
+     * null if there is no such cart.
+     */
+    public ConcurrentCart find(String cartId) {
+        validateCartId(cartId);
+        Map<String, Entry> shard = shardFor(cartId);
+        while (true) {
+            Entry entry = shard.get(cartId);
+            if (entry == null) {
+                CartSnapshot stored = repository.load(cartId);
+                if (stored == null) {
+                    return null;
+                }
+                entry = register(shard, cartId, stored);
+            }
+            if (claim(shard, entry)) {
+                return entry.cart;
+            }
+        }
+    }
+
+    /**
+     * Queues the cart's current contents to be stored.
+     */
+    public void save(String cartId, ConcurrentCart cart) {
+        CartSnapshot snapshot = cart.snapshot();
+        repository.save(cartId, snapshot);
+        Entry entry = shardFor(cartId).get(cartId);
+        if (entry != null && entry.cart == cart) {
+            entry.storedVersion = snapshot.getVersion();
+        }
+    }
+
+    /**
+     * Drops a cart, returning its reserved inventory and deleting it from the repository.
+     *
+     * @return true if the cart was in memory
+     */
+    public boolean remove(String cartId) {
+        validateCartId(cartId);
+        Entry entry = shardFor(cartId).remove(cartId);
+        if (entry != null) {
+            active.decrementAndGet();
+            unindex(entry);
+            entry.cart.releaseReservations();
+        }
+        repository.delete(cartId);
+        return entry != null;
+    }
+
+    /**
+     * Drops the cart from memory if it is still the registered cart for the id, holds no
+     * lines and has no unsaved changes, such as a cart created by a request whose first item
+     * was rejected. The repository is left alone.
+     *
+     * @return true if the cart was dropped
+     */
+    public boolean discardIfEmpty(String cartId, ConcurrentCart cart) {
+        validateCartId(cartId);
+        Map<String, Entry> shard = shardFor(cartId);
+        Entry entry = shard.get(cartId);
+        if (entry == null || entry.cart != cart) {
+            return false;
+        }
+        CartSnapshot snapshot = cart.snapshot();
+        if (!snapshot.isEmpty() || snapshot.getVersion() != entry.storedVersion || !shard.remove(cartId, entry)) {
+            return false;
+        }
+        active.decrementAndGet();
+        unindex(entry);
+        entry.cart.releaseReservations();
+        return true;
+    }
+
+    /**
+     * Moves every cart that has not been used for the idle timeout out of memory. Its
+     * reservations are released, and its contents are saved unless the repository already
+     * holds the current version.
+     *
+     * @return the number of carts evicted
+     */
+    public int evictIdle() {
+        long cutoff = clock.millis() - idleTimeoutMillis;
+        int evicted = 0;
+        for (Map<String, Entry> shard : shards) {
+            for (Map.Entry<String, Entry> candidate : shard.entrySet()) {
+                Entry entry = candidate.getValue();
+                if (entry.lastAccess >= cutoff) {
+                    continue;
+                }
+                // Save before removing, so a failed save leaves the cart in memory.
+                CartSnapshot snapshot = entry.cart.snapshot();
+                if (snapshot.getVersion() != entry.storedVersion) {
+                    repository.save(candidate.getKey(), snapshot);
+                    entry.storedVersion = snapshot.getVersion();
+                }
+                if (!entry.state.compareAndSet(Entry.ACTIVE, Entry.EVICTING)) {
+                    continue;
+                }
+                // Lookups touch the cart before they check the mark, so one that got the cart
+                // before it was marked shows up here and keeps it, and any later one waits.
+                if (entry.lastAccess >= cutoff || entry.cart.getVersion() != entry.storedVersion) {
+                    entry.state.set(Entry.ACTIVE);
+                    continue;
+                }
+                entry.state.set(Entry.EVICTED);
+                drop(shard, entry);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Runs {@link #evictIdle()} on the scheduler every {@code interval}.
+     */
+    public ScheduledFuture<?> scheduleEviction(ScheduledExecutorService scheduler, Duration interval) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null");
+        }
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Eviction interval must be positive");
+        }
+        return scheduler.scheduleWithFixedDelay(this::evictIdleQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void evictIdleQuietly() {
+        try {
+            evictIdle();
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule; the carts left behind are retried next time.
+            metrics.backgroundTaskFailed("evict");
+            log.warn("Evicting idle carts failed", e);
+        }
+    }
+
+    /**
+     * Updates the line prices of every live cart holding one of the given SKUs to the
+     * catalog's current prices. Only the carts indexed under those SKUs are visited, and
+     * each is changed at most once however many of the SKUs it holds. Carts in the
+     * repository keep their stored prices until they are restored and repriced.
+     *
+     * @param skus catalog SKUs whose price may have changed
+     * @return how many carts and lines changed and how long the sweep took
+     */
+    public RepricingResult reprice(Set<String> skus) {
+        if (skus == null) {
+            throw new IllegalArgumentException("SKUs cannot be null");
+        }
+        long started = System.nanoTime();
+        Set<Entry> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String sku : skus) {
+            Set<Entry> holders = cartsBySku.get(sku);
+            if (holders == null) {
+                continue;
+            }
+            for (Entry entry : holders) {
+                if (shardFor(entry.cartId).get(entry.cartId) == entry) {
+                    affected.add(entry);
+                } else {
+                    // Indexed by a request still holding the cart after it was evicted.
+                    unindex(sku, entry);
+                }
+            }
+        }
+        int cartsChanged = 0;
+        int linesChanged = 0;
+        for (Entry entry : affected) {
+            int lines = entry.cart.reprice(skus);
+            if (lines > 0) {
+                cartsChanged++;
+                linesChanged += lines;
+            }
+        }
+        RepricingResult result = new RepricingResult(skus.size(), affected.size(), cartsChanged, linesChanged,
+                Duration.ofNanos(System.nanoTime() - started));
+        metrics.repriced(result);
+        return result;
+    }
+
+    /**
+     * Returns a listener that reprices the affected carts on the executor whenever the
+     * catalog changes, to be registered with {@link Catalog#addChangeListener}. Results are
+     * reported to the registry's {@link CartMetrics}. When the whole catalog is replaced,
+     * every indexed SKU is repriced.
+     */
+    public CatalogChangeListener repricingListener(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        return new CatalogChangeListener() {
+            @Override
+            public void onCatalogChanged(CatalogChange change) {
+                if (!change.getUpsertedSkus().isEmpty()) {
+                    executor.execute(() -> repriceQuietly(change.getUpsertedSkus()));
+                }
+            }
+
+            @Override
+            public void onCatalogReplaced(long version) {
+                executor.execute(() -> repriceQuietly(Set.copyOf(cartsBySku.keySet())));
+            }
+        };
+    }
+
+    private void repriceQuietly(Set<String> skus) {
+        try {
+            reprice(skus);
+        } catch (RuntimeException e) {
+            // The catalog write has already been published; the next change of these SKUs
+            // reprices the carts again.
+            metrics.backgroundTaskFailed("reprice");
+            log.warn("Repricing carts for {} changed SKUs failed", skus.size(), e);
+        }
+    }
+
+    /**
+     * Returns the number of carts held in memory. This reads a single counter, so it is
+     * cheap enough to poll.
+     */
+    public int size() {
+        return active.get();
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    private Map<String, Entry> shardFor(String cartId) {
+        int hash = cartId.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & shardMask];
+    }
+
+    /**
+     * Puts a cart built from the stored snapshot into the shard unless another request got
+     * there first, and returns whichever entry is in the shard. The new cart is indexed
+     * before it is published, so a repricing sweep never misses its lines.
+     */
+    private Entry register(Map<String, Entry> shard, String cartId, CartSnapshot stored) {
+        ConcurrentCart cart = new ConcurrentCart(catalog, inventoryService, Cart.DEFAULT_RESERVATION_TTL,
+                stored == null ? CartSnapshot.empty() : stored, metrics);
+        Entry entry = new Entry(cartId, cart, stored == null ? 0 : stored.getVersion(), clock.millis());
+        cart.setSkuTracker(sku -> index(sku, entry));
+        cart.snapshot().forEach(line -> index(line.getSku().trim(), entry));
+        Entry existing = shard.putIfAbsent(cartId, entry);
+        if (existing != null) {
+            unindex(entry);
+            return existing;
+        }
+        active.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Marks a cart as used by the calling request. Returns false if the cart has been
+     * evicted, after making sure it has left the shard, so the caller restores it from the
+     * repository instead. A cart that is being evicted is waited for; eviction only reads a
+     * few fields before deciding.
+     */
+    private boolean claim(Map<String, Entry> shard, Entry entry) {
+        entry.touch(clock.millis());
+        int state;
+        while ((state = entry.state.get()) == Entry.EVICTING) {
+            Thread.onSpinWait();
+        }
+        if (state == Entry.EVICTED) {
+            drop(shard, entry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes an evicted cart from the shard and returns its reservations, unless another
+     * thread already has.
+     */
+    private void drop(Map<String, Entry> shard, Entry entry) {
+        if (shard.remove(entry.cartId, entry)) {
+            active.decrementAndGet();
+            unindex(entry);
+            entry.cart.releaseReservations();
+        }
+    }
+
+    private void index(String sku, Entry entry) {
+        if (entry.skus.add(sku)) {
+            // compute, not computeIfAbsent, so the set cannot be dropped as empty between
+            // looking it up and adding to it.
+            cartsBySku.compute(sku, (key, holders) -> {
+                Set<Entry> result = holders == null ? ConcurrentHashMap.newKeySet() : holders;
+                result.add(entry);
+                return result;
+            });
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (String sku : entry.skus) {
+            unindex(sku, entry);
+        }
+    }
+
+    private void unindex(String sku, Entry entry) {
+        cartsBySku.computeIfPresent(sku, (key, holders) -> {
+            holders.remove(entry);
+            return holders.isEmpty() ? null : holders;
+        });
+    }
+
+    private static void validateCartId(String cartId) {
+        if (cartId == null || cartId.isBlank()) {
+            throw new IllegalArgumentException("Cart id cannot be null or empty");
+        }
+        if (cartId.length() > MAX_CART_ID_LENGTH) {
+            throw new IllegalArgumentException("Cart id cannot be longer than " + MAX_CART_ID_LENGTH);
+        }
+    }
+
+    private static final class Entry {
+
+        static final int ACTIVE = 0;
+        static final int EVICTING = 1;
+        static final int EVICTED = 2;
+
+        final String cartId;
+        final ConcurrentCart cart;
+        final Set<String> skus = ConcurrentHashMap.newKeySet();
+        final AtomicInteger state = new AtomicInteger(ACTIVE);
+        volatile long storedVersion;
+        volatile long lastAccess;
+
+        Entry(String cartId, ConcurrentCart cart, long storedVersion, long lastAccess) {
+            this.cartId = cartId;
+            this.cart = cart;
+            this.storedVersion = storedVersion;
+            this.lastAccess = lastAccess;
+        }
+
+        void touch(long now) {
+            // Skip the write when nothing changed, so hot carts read from many threads do
+            // not keep invalidating each other's cache line.
+            if (lastAccess != now) {
+                lastAccess = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.Cart;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Stores cart snapshots by cart id.
+ */
+public interface CartRepository {
+
+    /**
+     * Stores the snapshot as the current contents of the cart, replacing what was stored.
+     */
+    void save(String cartId, CartSnapshot snapshot);
+
+    /**
+     * Returns the stored contents of the cart, or null if nothing is stored for it.
+     */
+    CartSnapshot load(String cartId);
+
+    /**
+     * Removes the stored cart, if any.
+     */
+    void delete(String cartId);
+
+    /**
+     * Stores several carts at once. Implementations backed by a database should override
+     * this to write them in one round trip.
+     */
+    default void saveAll(Map<String, CartSnapshot> snapshotsByCartId) {
+        snapshotsByCartId.forEach(this::save);
+    }
+
+    /**
+     * Removes several carts at once.
+     */
+    default void deleteAll(Collection<String> cartIds) {
+        cartIds.forEach(this::delete);
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.Cart;
+
+import java.math.BigDecimal;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * An immutable, versioned set of cart lines ordered by SKU.
+ *
+ * <p>Lines are kept in a persistent balanced tree: {@link #with(CartLine)} and
+ * {@link #without(String)} copy only the O(log n) nodes on the path to the changed line and
+ * share the rest with the previous version, which stays valid. A snapshot can therefore
+ * be held by renderers, pricing or serializers for as long as they like without copying.
+ * Every change increments the version, so comparing versions detects stale writes.
+ */
+public final class CartSnapshot {
+
+    private static final CartSnapshot EMPTY = new CartSnapshot(null, 0, 0, 0, 0);
+
+    private final Node root;
+    private final int size;
+    private final long version;
+    private final long totalInCents;
+    private final long totalQuantity;
+    private final Map<String, CartLine> map;
+
+    private CartSnapshot(Node root, int size, long version, long totalInCents, long totalQuantity) {
+        this.root = root;
+        this.size = size;
+        this.version = version;
+        this.totalInCents = totalInCents;
+        this.totalQuantity = totalQuantity;
+        this.map = new MapView();
+    }
+
+    /**
+     * Returns the empty snapshot, version 0.
+     */
+    public static CartSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Rebuilds a snapshot with the given lines and version, e.g. when loading a stored cart.
+     */
+    public static CartSnapshot of(Collection<CartLine> lines, long version) {
+        if (lines == null) {
+            throw new IllegalArgumentException("Cart lines cannot be null");
+        }
+        if (version < 0) {
+            throw new IllegalArgumentException("Version cannot be negative");
+        }
+        CartSnapshot snapshot = EMPTY;
+        for (CartLine line : lines) {
+            snapshot = snapshot.with(line);
+        }
+        return new CartSnapshot(snapshot.root, snapshot.size, version, snapshot.totalInCents,
+                snapshot.totalQuantity);
+    }
+
+    /**
+     * Builds a snapshot from the first {@code count} lines, which should be in strictly
+     * ascending SKU order, in O(n) and without rebalancing. Unordered input falls back to
+     * {@link #of(Collection, long)}.
+     */
+    static CartSnapshot ofSorted(CartLine[] lines, int count, long version) {
+        if (version < 0) {
+            throw new IllegalArgumentException("Version cannot be negative");
+        }
+        long total = 0;
+        long quantity = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && lines[i - 1].getSku().compareTo(lines[i].getSku()) >= 0) {
+                return of(Arrays.asList(lines).subList(0, count), version);
+            }
+            total = Money.add(total, lines[i].getSubtotalInCents());
+            quantity += lines[i].getQuantity();
+        }
+        return new CartSnapshot(build(lines, 0, count), count, version, total, quantity);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getTotalInCents() {
+        return totalInCents;
+    }
+
+    public double getTotal() {
+        return Money.toDouble(totalInCents);
+    }
+
+    public BigDecimal getTotalAsBigDecimal() {
+        return Money.toBigDecimal(totalInCents);
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    /**
+     * Returns the line for a SKU, or null if the snapshot has none.
+     */
+    public CartLine get(String sku) {
+        Node node = root;
+        while (node != null) {
+            int cmp = sku.compareTo(node.line.getSku());
+            if (cmp == 0) {
+                return node.line;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    public boolean contains(String sku) {
+        return get(sku) != null;
+    }
+
+    /**
+     * Returns a snapshot in which the line's SKU maps to {@code line}, adding or replacing it.
+     *
+     * @throws ArithmeticException if the total would overflow a long
+     */
+    public CartSnapshot with(CartLine line) {
+        if (line == null) {
+            throw new IllegalArgumentException("Cart line cannot be null");
+        }
+        CartLine old = get(line.getSku());
+        long oldSubtotal = old == null ? 0 : old.getSubtotalInCents();
+        long oldQuantity = old == null ? 0 : old.getQuantity();
+        long total = Money.add(totalInCents, line.getSubtotalInCents() - oldSubtotal);
+        return new CartSnapshot(put(root, line), old == null ? size + 1 : size, version + 1,
+                total, totalQuantity + line.getQuantity() - oldQuantity);
+    }
+
+    /**
+     * Returns a snapshot without the line for {@code sku}, or this snapshot if there is none.
+     */
+    public CartSnapshot without(String sku) {
+        CartLine old = sku == null ? null : get(sku);
+        if (old == null) {
+            return this;
+        }
+        return new CartSnapshot(remove(root, sku), size - 1, version + 1,
+                totalInCents - old.getSubtotalInCents(), totalQuantity - old.getQuantity());
+    }
+
+    /**
+     * Visits every line in SKU order.
+     */
+    public void forEach(Consumer<? super CartLine> action) {
+        forEach(root, action);
+    }
+
+    /**
+     * Returns an unmodifiable map view of the lines, keyed and ordered by SKU. The view is
+     * backed by this snapshot, so it never changes and is not a copy.
+     */
+    public Map<String, CartLine> asMap() {
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CartSnapshot{version=%d, lines=%d, total=%.2f}", version, size, getTotal());
+    }
+
+    private static void forEach(Node node, Consumer<? super CartLine> action) {
+        while (node != null) {
+            forEach(node.left, action);
+            action.accept(node.line);
+            node = node.right;
+        }
+    }
+
+    // ---- persistent AVL tree; every operation returns new nodes and never mutates ----
+
+    private static final class Node {
+        final CartLine line;
+        final Node left;
+        final Node right;
+        final int height;
+
+        Node(CartLine line, Node left, Node right) {
+            this.line = line;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    private static Node build(CartLine[] lines, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        return new Node(lines[mid], build(lines, from, mid), build(lines, mid + 1, to));
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static Node put(Node node, CartLine line) {
+        if (node == null) {
+            return new Node(line, null, null);
+        }
+        int cmp = line.getSku().compareTo(node.line.getSku());
+        if (cmp == 0) {
+            return new Node(line, node.left, node.right);
+        }
+        return cmp < 0
+                ? balance(node.line, put(node.left, line), node.right)
+                : balance(node.line, node.left, put(node.right, line));
+    }
+
+    private static Node remove(Node node, String sku) {
+        int cmp = sku.compareTo(node.line.getSku());
+        if (cmp < 0) {
+            return balance(node.line, remove(node.left, sku), node.right);
+        }
+        if (cmp > 0) {
+            return balance(node.line, node.left, remove(node.right, sku));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.line, node.left, remove(node.right, successor.line.getSku()));
+    }
+
+    private static Node balance(CartLine line, Node left, Node right) {
+        int diff = height(left) - height(right);
+        if (diff > 1) {
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left.line, left.left, left.right);
+            }
+            return rotateRight(line, left, right);
+        }
+        if (diff < -1) {
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right.line, right.left, right.right);
+            }
+            return rotateLeft(line, left, right);
+        }
+        return new Node(line, left, right);
+    }
+
+    private static Node rotateRight(CartLine line, Node left, Node right) {
+        return new Node(left.line, left.left, new Node(line, left.right, right));
+    }
+
+    private static Node rotateLeft(CartLine line, Node left, Node right) {
+        return new Node(right.line, new Node(line, left, right.left), right.right);
+    }
+
+    private final class MapView extends AbstractMap<String, CartLine> {
+
+        @Override
+        public CartLine get(Object key) {
+            return key instanceof String sku ? CartSnapshot.this.get(sku) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, CartLine>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, CartLine>> iterator() {
+                    return new LineIterator(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * In-order iterator using an explicit stack of the left spine.
+     */
+    private static final class LineIterator implements Iterator<Map.Entry<String, CartLine>> {
+        private final Deque<Node> stack = new ArrayDeque<>();
+
+        LineIterator(Node root) {
+            pushLeft(root);
+        }
+
+        private void pushLeft(Node node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<String, CartLine> next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node node = stack.pop();
+            pushLeft(node.right);
+            return Map.entry(node.line.getSku(), node.line);
+        }
+    }
+}
@@ -1,33 +1,256 @@
 package com.example.Cart;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
+/**
+ * In-memory product catalog with SKU, name and price lookups.
+ * A catalog created with {@link #threadSafe()} can be shared between request threads
+ * while a feed keeps updating it: readers never block and always see a complete snapshot.
+ *
+ * <p>Every write that changes the catalog is reported to registered
+ * {@link CatalogChangeListener}s with the SKUs it changed, after the write lock has been
+ * released. Feeds apply incremental batches with {@link #applyDelta(CatalogDelta)}, and
+ * only those move the catalog's {@link #getVersion() version}, so ordinary writes between
+ * two deltas never get in the feed's way.
+ */
 public class Catalog {
-    private final Map<String, Product> products;
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final long NEXT_VERSION = -1;
+
+    /**
+     * How a catalog stores its products.
+     */
+    public enum Storage {
+        /** Product objects in a hash map with sorted price and n-gram name indexes. */
+        INDEXED,
+        /** Primitive columns with products created on demand; name and price queries scan. */
+        COLUMNAR;
+
+        CatalogState newState(int expectedProducts) {
+            return this == INDEXED
+                    ? new IndexedCatalogState(expectedProducts)
+                    : new ColumnarCatalogState(expectedProducts);
+        }
+    }
+
+    private final Storage storage;
+    private final boolean threadSafe;
+    private final Object writeLock = new Object();
+    private final List<CatalogChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Queue<Runnable> notifications = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean notifying = new AtomicBoolean();
+    private volatile CatalogState state;
+    private volatile long version;
+    private volatile long changeCount;
 
     public Catalog() {
-        this.products = new HashMap<>();
+        this(Storage.INDEXED, false);
+    }
+
+    private Catalog(Storage storage, boolean threadSafe) {
+        this(storage, threadSafe, publishable(storage.newState(0), threadSafe), 0);
+    }
+
+    private Catalog(Storage storage, boolean threadSafe, CatalogState state, long version) {
+        this.storage = storage;
+        this.threadSafe = threadSafe;
+        this.state = state;
+        this.version = version;
+    }
+
+    /**
+     * Creates a catalog that is safe to read and write from multiple threads.
+     * Writers copy the products changed since the last compaction, change the copy and
+     * publish it atomically, so a write costs O(changes) rather than O(N). Once enough
+     * products have changed, one write folds them into a full copy of the catalog.
+     */
+    public static Catalog threadSafe() {
+        return new Catalog(Storage.INDEXED, true);
+    }
+
+    /**
+     * Creates a catalog with the given storage mode.
+     *
+     * @see #threadSafe()
+     */
+    public static Catalog create(Storage storage, boolean threadSafe) {
+        if (storage == null) {
+            throw new IllegalArgumentException("Storage cannot be null");
+        }
+        return new Catalog(storage, threadSafe);
+    }
+
+    /**
+     * Opens a snapshot written by {@link #writeSnapshot(Path, long)} by mapping it into
+     * memory. Lookups are served from the file straight away, with no products added and no
+     * indexes rebuilt. The catalog is thread-safe, uses {@link Storage#COLUMNAR} layout and
+     * starts at {@code expectedSourceVersion}, so a delta feed can carry on from it. Writes
+     * are kept on the heap beside the file until they are folded into a heap copy.
+     *
+     * @param expectedSourceVersion the version of the source data the catalog should reflect
+     * @throws CatalogSnapshotException if the file is truncated, corrupt, from an unsupported
+     *         format or built from another source version; rebuild the catalog instead
+     */
+    public static Catalog openSnapshot(Path file, long expectedSourceVersion) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Snapshot file cannot be null");
+        }
+        return new Catalog(Storage.COLUMNAR, true,
+                new OverlayCatalogState(MappedCatalogState.open(file, expectedSourceVersion)), expectedSourceVersion);
+    }
+
+    /**
+     * Writes the whole catalog, with its SKU table, price order and name index, to a
+     * snapshot file that {@link #openSnapshot(Path, long)} can map. The file is replaced
+     * atomically, so a node never opens a partly written snapshot.
+     *
+     * @param sourceVersion identifies the source data the catalog was built from, usually
+     *                      {@link #getVersion()}, so stale snapshots can be detected
+     */
+    public void writeSnapshot(Path file, long sourceVersion) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Snapshot file cannot be null");
+        }
+        MappedCatalogState.write(state.products(), file, sourceVersion);
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+
+    /**
+     * Returns the version of the last delta applied, or of the snapshot the catalog was
+     * opened from. Writes other than {@link #applyDelta(CatalogDelta)} leave it unchanged.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns a counter that every published write increases, whether it came from a delta
+     * or not, so callers can tell whether anything changed between two reads.
+     */
+    long getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Registers a listener, such as a cache, to be told about every catalog change.
+     *
+     * @param listener the listener to notify
+     */
+    public void addChangeListener(CatalogChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    public void removeChangeListener(CatalogChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Applies one batch of an incremental feed in a single write: readers see either none or
+     * all of it, and the catalog moves to the delta's version even if nothing changed.
+     * Listeners are told only about the SKUs whose product actually changed.
+     *
+     * @return the SKUs that changed
+     * @throws IllegalArgumentException if the delta's version is not greater than the
+     *         catalog's
+     */
+    public CatalogChange applyDelta(CatalogDelta delta) {
+        if (delta == null) {
+            throw new IllegalArgumentException("Delta cannot be null");
+        }
+        return apply(delta.getVersion(), delta.getUpserts(), delta.getDeletes());
     }
 
     public void addProduct(Product product) {
         validateProduct(product);
-        products.put(product.getSku(), product);
+        apply(NEXT_VERSION, List.of(product), List.of());
     }
 
+    /**
+     * Adds all products in one write. On a thread-safe catalog readers see either
+     * none or all of the batch.
+     */
     public void addProducts(List<Product> products) {
         if (products == null) {
             throw new IllegalArgumentException("Product list cannot be null");
         }
-        products.forEach(this::addProduct);
+        products.forEach(Catalog::validateProduct);
+        apply(NEXT_VERSION, products, List.of());
+    }
+
+    /**
+     * Replaces the whole catalog with the given products.
+     *
+     * @see #loadProducts(List, Function)
+     */
+    public void loadProducts(List<Product> products) {
+        loadProducts(products, Function.identity());
+    }
+
+    /**
+     * Replaces the whole catalog with products built from the given rows.
+     * Rows are converted and validated in parallel on the fork-join common pool, the new
+     * catalog is built into storage pre-sized for the input, and it is then published in a
+     * single step: readers see either the old catalog or the new one. If any row fails to
+     * convert, the exception is rethrown and the current catalog is left untouched.
+     * When several rows share a SKU, the last one wins, as with {@link #addProducts(List)}.
+     *
+     * @param rows source rows, one per product
+     * @param factory converts a row into a product, throwing IllegalArgumentException for invalid rows
+     */
+    public <T> void loadProducts(List<T> rows, Function<? super T, Product> factory) {
+        if (rows == null) {
+            throw new IllegalArgumentException("Product list cannot be null");
+        }
+        if (factory == null) {
+            throw new IllegalArgumentException("Product factory cannot be null");
+        }
+        Product[] loaded = rows.parallelStream()
+                .map(row -> {
+                    Product product = factory.apply(row);
+                    validateProduct(product);
+                    return product;
+                })
+                .toArray(Product[]::new);
+
+        CatalogState next = storage.newState(loaded.length);
+        for (Product product : loaded) {
+            next.put(product);
+        }
+        replace(next);
     }
 
     public Product findProductBySku(String sku) {
         validateSku(sku);
-        if (sku.trim().isEmpty()) {
+        String key = sku.trim();
+        if (key.isEmpty()) {
             return null;
         }
-        return products.get(sku.trim());
+        return state.get(key);
+    }
+
+    /**
+     * Looks up a product by an already canonical SKU without trimming or allocating.
+     */
+    public Product findProduct(SkuKey sku) {
+        if (sku == null) {
+            throw new IllegalArgumentException("SKU cannot be null");
+        }
+        return state.get(sku.value());
     }
 
     public List<Product> findProductsByName(String name) {
@@ -35,52 +258,227 @@ public class Catalog {
             return Collections.emptyList();
         }
         String searchTerm = name.trim().toLowerCase();
-        return products.values().stream()
-                .filter(p -> p.getName().toLowerCase().contains(searchTerm))
-                .collect(Collectors.toList());
+        return state.findByName(searchTerm);
+    }
+
+    /**
+     * Returns one page of the products whose name contains the given text, ignoring case.
+     * Results are ordered by SKU.
+     *
+     * @param offset number of matching products to skip
+     * @param limit maximum number of products to return
+     */
+    public List<Product> findProductsByName(String name, int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        List<Product> matches = findProductsByName(name);
+        int wanted = (int) Math.min((long) offset + limit, matches.size());
+        if (offset >= wanted) {
+            return Collections.emptyList();
+        }
+        // Keeps only the first offset + limit SKUs, so a broad term on a large catalog
+        // does not sort every match to serve one page.
+        Comparator<Product> bySku = Comparator.comparing(Product::getSku);
+        PriorityQueue<Product> firstSkus = new PriorityQueue<>(wanted + 1, bySku.reversed());
+        for (Product product : matches) {
+            if (firstSkus.size() < wanted) {
+                firstSkus.add(product);
+            } else if (bySku.compare(product, firstSkus.peek()) < 0) {
+                firstSkus.poll();
+                firstSkus.add(product);
+            }
+        }
+        Product[] page = new Product[wanted - offset];
+        for (int i = wanted - 1; i >= 0; i--) {
+            Product product = firstSkus.poll();
+            if (i >= offset) {
+                page[i - offset] = product;
+            }
+        }
+        return List.of(page);
     }
 
+    /**
+     * Returns all products priced between the given bounds (inclusive), cheapest first.
+     */
     public List<Product> findProductsByPriceRange(double minPrice, double maxPrice) {
+        return findProductsByPriceRange(minPrice, maxPrice, 0, Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * Returns one page of products priced between the given bounds (inclusive).
+     * Results are ordered by price, then by SKU.
+     *
+     * @param offset number of matching products to skip
+     * @param limit maximum number of products to return
+     * @param descending whether to return the most expensive products first
+     */
+    public List<Product> findProductsByPriceRange(double minPrice, double maxPrice,
+                                                  int offset, int limit, boolean descending) {
         if (minPrice < 0 || maxPrice < 0) {
             throw new IllegalArgumentException("Price cannot be negative");
         }
         if (minPrice > maxPrice) {
             throw new IllegalArgumentException("Min price cannot be greater than max price");
         }
-        return products.values().stream()
-                .filter(p -> p.getPrice() >= minPrice && p.getPrice() <= maxPrice)
-                .collect(Collectors.toList());
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        if (Double.isNaN(minPrice) || Double.isNaN(maxPrice)) {
+            return Collections.emptyList();
+        }
+        return state.findByPriceRange(toCents(minPrice, RoundingMode.CEILING), toCents(maxPrice, RoundingMode.FLOOR),
+                offset, limit, descending);
     }
 
     public boolean removeProduct(String sku) {
         validateSku(sku);
-        return products.remove(sku.trim()) != null;
+        return removeCanonical(sku.trim());
+    }
+
+    public boolean remove(SkuKey sku) {
+        if (sku == null) {
+            throw new IllegalArgumentException("SKU cannot be null");
+        }
+        return removeCanonical(sku.value());
+    }
+
+    private boolean removeCanonical(String sku) {
+        if (!state.contains(sku)) {
+            return false;
+        }
+        return !apply(NEXT_VERSION, List.of(), List.of(sku)).isEmpty();
     }
 
     public boolean containsProduct(String sku) {
-        if (sku == null || sku.trim().isEmpty()) {
+        if (sku == null) {
             return false;
         }
-        return products.containsKey(sku.trim());
+        String key = sku.trim();
+        return !key.isEmpty() && state.contains(key);
+    }
+
+    public boolean contains(SkuKey sku) {
+        return sku != null && state.contains(sku.value());
     }
 
     public List<Product> getAllProducts() {
-        return Collections.unmodifiableList(new ArrayList<>(products.values()));
+        return Collections.unmodifiableList(state.products());
     }
 
     public int size() {
-        return products.size();
+        return state.size();
     }
 
     public boolean isEmpty() {
-        return products.isEmpty();
+        return state.size() == 0;
     }
 
     public void clear() {
-        products.clear();
+        replace(storage.newState(0));
+    }
+
+    /**
+     * Upserts and deletes products in one write, moves to the given version unless it is
+     * {@link #NEXT_VERSION}, and notifies listeners once the write lock is released.
+     * Thread-safe catalogs apply the write to a private copy and publish the copy only if
+     * the whole write completes.
+     */
+    private CatalogChange apply(long requestedVersion, Collection<Product> upserts, Collection<String> deletes) {
+        CatalogChange change = applyLocked(requestedVersion, upserts, deletes);
+        deliverNotifications();
+        return change;
+    }
+
+    private CatalogChange applyLocked(long requestedVersion, Collection<Product> upserts, Collection<String> deletes) {
+        synchronized (writeLock) {
+            if (requestedVersion != NEXT_VERSION && requestedVersion <= version) {
+                throw new IllegalArgumentException("Delta version " + requestedVersion
+                        + " is not newer than catalog version " + version);
+            }
+            CatalogState next = threadSafe ? state.copy() : state;
+            Set<String> upserted = new LinkedHashSet<>();
+            Set<String> deleted = new LinkedHashSet<>();
+            for (Product product : upserts) {
+                if (!sameProduct(next.get(product.getSku()), product)) {
+                    next.put(product);
+                    upserted.add(product.getSku());
+                }
+            }
+            for (String sku : deletes) {
+                if (next.remove(sku)) {
+                    upserted.remove(sku);
+                    deleted.add(sku);
+                }
+            }
+            if (requestedVersion == NEXT_VERSION && upserted.isEmpty() && deleted.isEmpty()) {
+                return new CatalogChange(version, upserted, deleted);
+            }
+            state = next;
+            if (requestedVersion != NEXT_VERSION) {
+                version = requestedVersion;
+            }
+            CatalogChange change = new CatalogChange(version, upserted, deleted);
+            if (!change.isEmpty()) {
+                changeCount++;
+                notifications.add(() -> listeners.forEach(listener -> listener.onCatalogChanged(change)));
+            }
+            return change;
+        }
     }
 
-    private void validateProduct(Product product) {
+    /**
+     * Publishes a new state in place of the whole catalog.
+     */
+    private void replace(CatalogState next) {
+        synchronized (writeLock) {
+            state = publishable(next, threadSafe);
+            changeCount++;
+            long replacedAt = version;
+            notifications.add(() -> listeners.forEach(listener -> listener.onCatalogReplaced(replacedAt)));
+        }
+        deliverNotifications();
+    }
+
+    /**
+     * Runs queued listener notifications in write order, one thread at a time. A writer that
+     * finds another thread delivering leaves its notification to that thread rather than
+     * wait, so a slow listener never holds up the write lock.
+     */
+    private void deliverNotifications() {
+        while (!notifications.isEmpty() && notifying.compareAndSet(false, true)) {
+            try {
+                Runnable notification;
+                while ((notification = notifications.poll()) != null) {
+                    notification.run();
+                }
+            } finally {
+                notifying.set(false);
+            }
+        }
+    }
+
+    /**
+     * Wraps the state of a thread-safe catalog in an overlay, so writes copy only the
+     * products they change.
+     */
+    private static CatalogState publishable(CatalogState next, boolean threadSafe) {
+        return threadSafe ? new OverlayCatalogState(next) : next;
+    }
+
+    private static boolean sameProduct(Product current, Product product) {
+        return current != null && current.getPriceInCents() == product.getPriceInCents()
+                && current.getName().equals(product.getName());
+    }
+
+    private static void validateProduct(Product product) {
         if (product == null) {
             throw new IllegalArgumentException("Product cannot be null");
         }
@@ -92,8 +490,16 @@ public class Catalog {
         }
     }
 
+    private static long toCents(double price, RoundingMode roundingMode) {
+        if (Double.isInfinite(price)) {
+            return Long.MAX_VALUE;
+        }
+        BigDecimal cents = BigDecimal.valueOf(price).movePointRight(2).setScale(0, roundingMode);
+        return cents.compareTo(MAX_CENTS) >= 0 ? Long.MAX_VALUE : cents.longValue();
+    }
+
     @Override
     public String toString() {
-        return String.format("Catalog{products=%d}", products.size());
+        return String.format("Catalog{products=%d}", size());
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.example.Cart;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The SKUs that one write to a {@link Catalog} actually changed, and the catalog's feed
+ * version after the write. Upserts that left a product exactly as it was and deletes of
+ * missing SKUs are not included.
+ */
+public final class CatalogChange {
+
+    private final long version;
+    private final Set<String> upsertedSkus;
+    private final Set<String> deletedSkus;
+
+    CatalogChange(long version, Set<String> upsertedSkus, Set<String> deletedSkus) {
+        this.version = version;
+        this.upsertedSkus = Collections.unmodifiableSet(upsertedSkus);
+        this.deletedSkus = Collections.unmodifiableSet(deletedSkus);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the SKUs that were added or whose name or price changed.
+     */
+    public Set<String> getUpsertedSkus() {
+        return upsertedSkus;
+    }
+
+    public Set<String> getDeletedSkus() {
+        return deletedSkus;
+    }
+
+    public boolean isEmpty() {
+        return upsertedSkus.isEmpty() && deletedSkus.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CatalogChange{version=%d, upserted=%d, deleted=%d}",
+                version, upsertedSkus.size(), deletedSkus.size());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.Cart;
+
+/**
+ * Receives notifications when a {@link Catalog} changes, so that copies of its data
+ * (such as caches, or prices held by carts) can be invalidated per SKU.
+ * Notifications are delivered in write order, after readers can already see the change
+ * and after the catalog's write lock is released. They usually run on the writing thread;
+ * when writes race, one thread delivers all pending notifications while the others return,
+ * so listeners should still return quickly.
+ */
+public interface CatalogChangeListener {
+
+    /**
+     * Called after products have been added, changed or removed.
+     *
+     * @param change the catalog's feed version after the write and the SKUs that changed
+     */
+    void onCatalogChanged(CatalogChange change);
+
+    /**
+     * Called after the whole catalog has been replaced or cleared.
+     *
+     * @param version the catalog's feed version, which a replacement leaves unchanged
+     */
+    void onCatalogReplaced(long version);
+}
@@ -0,0 +1,76 @@
+package com.example.Cart;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One batch of an incremental catalog feed: products to add or replace and SKUs to
+ * delete, tagged with the catalog version the batch produces. Versions must increase from
+ * one delta to the next but need not be consecutive.
+ */
+public final class CatalogDelta {
+
+    private final long version;
+    private final List<Product> upserts;
+    private final List<String> deletes;
+
+    private CatalogDelta(long version, List<Product> upserts, List<String> deletes) {
+        this.version = version;
+        this.upserts = upserts;
+        this.deletes = deletes;
+    }
+
+    /**
+     * @param version the catalog version after this delta, greater than the current one
+     * @param upserts products to add or replace
+     * @param deletes SKUs to remove; SKUs not in the catalog are ignored
+     * @throws IllegalArgumentException if a SKU is both upserted and deleted, or upserted twice
+     */
+    public static CatalogDelta of(long version, Collection<Product> upserts, Collection<String> deletes) {
+        if (version <= 0) {
+            throw new IllegalArgumentException("Delta version must be greater than 0");
+        }
+        if (upserts == null || deletes == null) {
+            throw new IllegalArgumentException("Upserts and deletes cannot be null");
+        }
+        Set<String> skus = new HashSet<>(CatalogState.capacityFor(upserts.size() + deletes.size()));
+        for (Product product : upserts) {
+            if (product == null) {
+                throw new IllegalArgumentException("Product cannot be null");
+            }
+            if (!skus.add(product.getSku())) {
+                throw new IllegalArgumentException("SKU " + product.getSku() + " appears more than once in the delta");
+            }
+        }
+        List<String> canonicalDeletes = deletes.stream().map(sku -> SkuKey.of(sku).value()).toList();
+        for (String sku : canonicalDeletes) {
+            if (!skus.add(sku)) {
+                throw new IllegalArgumentException("SKU " + sku + " appears more than once in the delta");
+            }
+        }
+        return new CatalogDelta(version, List.copyOf(upserts), canonicalDeletes);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Product> getUpserts() {
+        return upserts;
+    }
+
+    public List<String> getDeletes() {
+        return deletes;
+    }
+
+    public int size() {
+        return upserts.size() + deletes.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CatalogDelta{version=%d, upserts=%d, deletes=%d}", version, upserts.size(), deletes.size());
+    }
+}
@@ -0,0 +1,552 @@
+package com.example.Cart;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streams products from CSV or NDJSON feed files into a {@link Catalog}.
+ * The file is read through memory-mapped windows, fields are decoded from a reusable
+ * buffer, and products are added to the catalog in batches. Rows that cannot be parsed
+ * or that fail {@link Product} validation are counted and reported without stopping
+ * the import.
+ *
+ * <p>CSV rows are {@code sku,name,price} with optional double-quoted fields and an
+ * optional {@code sku,name,price} header. NDJSON rows are flat objects with
+ * {@code "sku"}, {@code "name"} and {@code "price"} members; other members are ignored.
+ */
+public class CatalogImporter {
+
+    public enum Format { CSV, NDJSON }
+
+    /**
+     * Receives progress after every batch handed to the catalog.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long bytesRead, long totalBytes, long accepted, long rejected);
+    }
+
+    /**
+     * A row that was skipped, with its 1-based line number and the reason.
+     */
+    public static final class RejectedRow {
+        private final long lineNumber;
+        private final String reason;
+
+        RejectedRow(long lineNumber, String reason) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RejectedRow{line=%d, reason='%s'}", lineNumber, reason);
+        }
+    }
+
+    /**
+     * Summary of a finished import. Only the first rejected rows are kept in detail.
+     */
+    public static final class Result {
+        private final long accepted;
+        private final long rejected;
+        private final List<RejectedRow> rejectedRows;
+
+        Result(long accepted, long rejected, List<RejectedRow> rejectedRows) {
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.rejectedRows = Collections.unmodifiableList(rejectedRows);
+        }
+
+        public long getAccepted() {
+            return accepted;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public List<RejectedRow> getRejectedRows() {
+            return rejectedRows;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Result{accepted=%d, rejected=%d}", accepted, rejected);
+        }
+    }
+
+    static final int DEFAULT_BATCH_SIZE = 10_000;
+    static final int MAX_REJECTED_ROWS = 1_000;
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Catalog catalog;
+    private final int batchSize;
+    private final int windowSize;
+
+    public CatalogImporter(Catalog catalog) {
+        this(catalog, DEFAULT_BATCH_SIZE);
+    }
+
+    public CatalogImporter(Catalog catalog, int batchSize) {
+        this(catalog, batchSize, WINDOW_SIZE);
+    }
+
+    CatalogImporter(Catalog catalog, int batchSize, int windowSize) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        this.catalog = catalog;
+        this.batchSize = batchSize;
+        this.windowSize = windowSize;
+    }
+
+    public Result importFile(Path file, Format format) throws IOException {
+        return importFile(file, format, (bytesRead, totalBytes, accepted, rejected) -> { });
+    }
+
+    public Result importFile(Path file, Format format, ProgressListener listener) throws IOException {
+        if (file == null || format == null || listener == null) {
+            throw new IllegalArgumentException("File, format and listener cannot be null");
+        }
+        return new Run(format, listener).execute(file);
+    }
+
+    /**
+     * State of a single import: the current window, reusable field buffer and counters.
+     */
+    private final class Run {
+        private final Format format;
+        private final ProgressListener listener;
+        private final List<Product> batch = new ArrayList<>(batchSize);
+        private final List<RejectedRow> rejectedRows = new ArrayList<>();
+
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long totalBytes;
+        private byte[] field = new byte[256];
+        private int fieldLength;
+        private long accepted;
+        private long rejected;
+        private long lineNumber;
+
+        private String sku;
+        private String name;
+        private double price;
+        private boolean hasPrice;
+
+        Run(Format format, ProgressListener listener) {
+            this.format = format;
+            this.listener = listener;
+        }
+
+        Result execute(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                totalBytes = channel.size();
+                long position = 0;
+                boolean skippingLongLine = false;
+                while (position < totalBytes) {
+                    long length = Math.min(windowSize, totalBytes - position);
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                    windowStart = position;
+                    boolean lastWindow = position + length == totalBytes;
+                    int lineStart = 0;
+                    int limit = (int) length;
+                    for (int i = 0; i < limit; i++) {
+                        if (window.get(i) != '\n') {
+                            continue;
+                        }
+                        if (skippingLongLine) {
+                            skippingLongLine = false;
+                        } else {
+                            processLine(lineStart, i);
+                        }
+                        lineStart = i + 1;
+                    }
+                    if (lastWindow) {
+                        if (lineStart < limit && !skippingLongLine) {
+                            processLine(lineStart, limit);
+                        }
+                        position = totalBytes;
+                    } else if (lineStart == 0) {
+                        // No line break in a whole window: reject the row and skip to the next one.
+                        if (!skippingLongLine) {
+                            reject(++lineNumber, "Row exceeds " + windowSize + " bytes");
+                            skippingLongLine = true;
+                        }
+                        position += length;
+                    } else {
+                        position += lineStart;
+                    }
+                }
+                flush(totalBytes);
+                return new Result(accepted, rejected, rejectedRows);
+            } finally {
+                window = null;
+            }
+        }
+
+        private void processLine(int start, int end) {
+            lineNumber++;
+            if (end > start && window.get(end - 1) == '\r') {
+                end--;
+            }
+            if (isBlank(start, end)) {
+                return;
+            }
+            try {
+                sku = null;
+                name = null;
+                hasPrice = false;
+                if (format == Format.CSV) {
+                    if (lineNumber == 1 && isCsvHeader(start, end)) {
+                        return;
+                    }
+                    parseCsv(start, end);
+                } else {
+                    parseJson(start, end);
+                }
+                if (!hasPrice) {
+                    throw new IllegalArgumentException("Missing price");
+                }
+                batch.add(new Product(sku, name, price));
+                accepted++;
+            } catch (IllegalArgumentException e) {
+                reject(lineNumber, e.getMessage());
+            }
+            if (batch.size() >= batchSize) {
+                flush(windowStart + end);
+            }
+        }
+
+        private void reject(long line, String reason) {
+            rejected++;
+            if (rejectedRows.size() < MAX_REJECTED_ROWS) {
+                rejectedRows.add(new RejectedRow(line, reason));
+            }
+        }
+
+        private void flush(long bytesRead) {
+            if (!batch.isEmpty()) {
+                catalog.addProducts(batch);
+                batch.clear();
+            }
+            listener.onProgress(bytesRead, totalBytes, accepted, rejected);
+        }
+
+        // ---------- CSV ----------
+
+        private void parseCsv(int start, int end) {
+            int position = start;
+            for (int column = 0; column < 3; column++) {
+                if (position > end) {
+                    throw new IllegalArgumentException("Expected 3 columns but found " + column);
+                }
+                position = readCsvField(position, end);
+                storeField(column);
+            }
+            if (position <= end) {
+                throw new IllegalArgumentException("Too many columns");
+            }
+        }
+
+        /**
+         * Reads one CSV field into the field buffer and returns the position after its delimiter.
+         */
+        private int readCsvField(int position, int end) {
+            fieldLength = 0;
+            if (position < end && window.get(position) == '"') {
+                position++;
+                while (true) {
+                    if (position >= end) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    byte b = window.get(position++);
+                    if (b == '"') {
+                        if (position < end && window.get(position) == '"') {
+                            append(b);
+                            position++;
+                            continue;
+                        }
+                        break;
+                    }
+                    append(b);
+                }
+                if (position < end && window.get(position) != ',') {
+                    throw new IllegalArgumentException("Unexpected character after quoted field");
+                }
+                return position + 1;
+            }
+            while (position < end && window.get(position) != ',') {
+                append(window.get(position++));
+            }
+            return position + 1;
+        }
+
+        private boolean isCsvHeader(int start, int end) {
+            byte[] header = "sku,name,price".getBytes(StandardCharsets.US_ASCII);
+            if (end - start != header.length) {
+                return false;
+            }
+            for (int i = 0; i < header.length; i++) {
+                if (Character.toLowerCase(window.get(start + i)) != header[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // ---------- NDJSON ----------
+
+        private void parseJson(int start, int end) {
+            int position = skipWhitespace(start, end);
+            position = expect(position, end, '{');
+            position = skipWhitespace(position, end);
+            if (position < end && window.get(position) == '}') {
+                return;
+            }
+            while (true) {
+                position = skipWhitespace(position, end);
+                position = readJsonString(position, end);
+                int member = memberIndex();
+                position = skipWhitespace(position, end);
+                position = expect(position, end, ':');
+                position = skipWhitespace(position, end);
+                if (position < end && window.get(position) == '"') {
+                    position = readJsonString(position, end);
+                } else {
+                    position = readJsonLiteral(position, end);
+                }
+                if (member >= 0) {
+                    storeField(member);
+                }
+                position = skipWhitespace(position, end);
+                if (position < end && window.get(position) == ',') {
+                    position++;
+                    continue;
+                }
+                expect(position, end, '}');
+                return;
+            }
+        }
+
+        private int memberIndex() {
+            if (fieldEquals("sku")) {
+                return 0;
+            }
+            if (fieldEquals("name")) {
+                return 1;
+            }
+            if (fieldEquals("price")) {
+                return 2;
+            }
+            return -1;
+        }
+
+        private int readJsonString(int position, int end) {
+            position = expect(position, end, '"');
+            fieldLength = 0;
+            while (true) {
+                if (position >= end) {
+                    throw new IllegalArgumentException("Unterminated string");
+                }
+                byte b = window.get(position++);
+                if (b == '"') {
+                    return position;
+                }
+                if (b != '\\') {
+                    append(b);
+                    continue;
+                }
+                if (position >= end) {
+                    throw new IllegalArgumentException("Unterminated escape");
+                }
+                byte escaped = window.get(position++);
+                switch (escaped) {
+                    case 'n' -> append((byte) '\n');
+                    case 't' -> append((byte) '\t');
+                    case 'r' -> append((byte) '\r');
+                    case 'b' -> append((byte) '\b');
+                    case 'f' -> append((byte) '\f');
+                    case 'u' -> {
+                        if (position + 4 > end) {
+                            throw new IllegalArgumentException("Invalid unicode escape");
+                        }
+                        int codePoint = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(window.get(position++), 16);
+                            if (digit < 0) {
+                                throw new IllegalArgumentException("Invalid unicode escape");
+                            }
+                            codePoint = (codePoint << 4) | digit;
+                        }
+                        appendUtf8((char) codePoint);
+                    }
+                    default -> append(escaped);
+                }
+            }
+        }
+
+        private int readJsonLiteral(int position, int end) {
+            fieldLength = 0;
+            while (position < end) {
+                byte b = window.get(position);
+                if (b == ',' || b == '}' || b == ' ' || b == '\t') {
+                    break;
+                }
+                append(b);
+                position++;
+            }
+            if (fieldLength == 0) {
+                throw new IllegalArgumentException("Missing value");
+            }
+            return position;
+        }
+
+        private int expect(int position, int end, char expected) {
+            if (position >= end || window.get(position) != expected) {
+                throw new IllegalArgumentException("Expected '" + expected + "' at column " + (position + 1));
+            }
+            return position + 1;
+        }
+
+        private int skipWhitespace(int position, int end) {
+            while (position < end && (window.get(position) == ' ' || window.get(position) == '\t')) {
+                position++;
+            }
+            return position;
+        }
+
+        // ---------- Field buffer ----------
+
+        private void storeField(int column) {
+            switch (column) {
+                case 0 -> sku = new String(field, 0, fieldLength, StandardCharsets.UTF_8);
+                case 1 -> name = new String(field, 0, fieldLength, StandardCharsets.UTF_8);
+                default -> {
+                    price = parsePrice();
+                    hasPrice = true;
+                }
+            }
+        }
+
+        /**
+         * Parses a plain decimal price straight from the field buffer. Values with more
+         * digits than a double represents exactly fall back to {@link Double#parseDouble}.
+         */
+        private double parsePrice() {
+            int i = 0;
+            while (i < fieldLength && field[i] == ' ') {
+                i++;
+            }
+            int end = fieldLength;
+            while (end > i && field[end - 1] == ' ') {
+                end--;
+            }
+            boolean negative = i < end && field[i] == '-';
+            if (negative) {
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = -1;
+            for (; i < end; i++) {
+                byte b = field[i];
+                if (b == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else if (b >= '0' && b <= '9') {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                    if (digits > 15) {
+                        return parsePriceSlow();
+                    }
+                } else {
+                    return parsePriceSlow();
+                }
+            }
+            if (digits == 0) {
+                throw new IllegalArgumentException("Invalid price");
+            }
+            double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+
+        private double parsePriceSlow() {
+            String text = new String(field, 0, fieldLength, StandardCharsets.UTF_8).trim();
+            try {
+                return Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid price: " + text);
+            }
+        }
+
+        private boolean fieldEquals(String ascii) {
+            if (fieldLength != ascii.length()) {
+                return false;
+            }
+            for (int i = 0; i < fieldLength; i++) {
+                if (field[i] != ascii.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isBlank(int start, int end) {
+            for (int i = start; i < end; i++) {
+                byte b = window.get(i);
+                if (b != ' ' && b != '\t') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void appendUtf8(char c) {
+            if (c < 0x80) {
+                append((byte) c);
+            } else if (c < 0x800) {
+                append((byte) (0xC0 | (c >> 6)));
+                append((byte) (0x80 | (c & 0x3F)));
+            } else {
+                append((byte) (0xE0 | (c >> 12)));
+                append((byte) (0x80 | ((c >> 6) & 0x3F)));
+                append((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+
+        private void append(byte b) {
+            if (fieldLength == field.length) {
+                field = Arrays.copyOf(field, field.length * 2);
+            }
+            field[fieldLength++] = b;
+        }
+    }
+}
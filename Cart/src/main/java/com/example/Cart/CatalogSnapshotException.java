@@ -0,0 +1,35 @@
+package com.example.Cart;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a catalog snapshot file cannot be used, so the caller should rebuild the
+ * catalog from its source data instead.
+ */
+public class CatalogSnapshotException extends IOException {
+
+    /**
+     * Why a snapshot was rejected.
+     */
+    public enum Reason {
+        /** The file is shorter or longer than its header says. */
+        TRUNCATED,
+        /** The file is not a catalog snapshot, or a checksum does not match. */
+        CORRUPT,
+        /** The file was written by a newer, unsupported format version. */
+        UNSUPPORTED_VERSION,
+        /** The file was built from different source data than expected. */
+        STALE
+    }
+
+    private final Reason reason;
+
+    public CatalogSnapshotException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.Cart;
+
+/**
+ * Storage behind a {@link Catalog}: the products and whatever structures answer its queries.
+ * A thread-safe catalog never mutates a state once it has been published to readers.
+ */
+interface CatalogState extends CatalogView {
+
+    void put(Product product);
+
+    boolean remove(String sku);
+
+    static int capacityFor(int expectedSize) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) Math.ceil(expectedSize / 0.75));
+    }
+}
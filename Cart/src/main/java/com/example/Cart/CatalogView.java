@@ -0,0 +1,42 @@
+package com.example.Cart;
+
+import java.util.List;
+
+/**
+ * The read side of {@link CatalogState}: the queries a {@link Catalog} answers from its
+ * storage. Storage that can never change, such as a mapped snapshot file, implements only
+ * this and is written to through an {@link OverlayCatalogState} on top of it.
+ */
+interface CatalogView {
+
+    Product get(String sku);
+
+    boolean contains(String sku);
+
+    int size();
+
+    List<Product> products();
+
+    /**
+     * Returns the products whose lower-cased name contains the given lower-cased term.
+     */
+    List<Product> findByName(String lowerCaseTerm);
+
+    /**
+     * Returns one page of products priced between the given bounds (inclusive),
+     * ordered by price, then by SKU.
+     */
+    List<Product> findByPriceRange(long minCents, long maxCents, int offset, int limit, boolean descending);
+
+    /**
+     * Returns, for each of the given products, how many products priced between the given
+     * bounds (inclusive) come before it in the order {@link #findByPriceRange} uses. The
+     * given products must already be in that order.
+     */
+    int[] rankByPrice(long minCents, long maxCents, List<Product> products, boolean descending);
+
+    /**
+     * Returns an independent copy that can be changed without affecting this state.
+     */
+    CatalogState copy();
+}
@@ -0,0 +1,476 @@
+package com.example.Cart;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compact catalog storage that keeps products in primitive columns instead of objects.
+ * SKUs and names are UTF-8 bytes in one shared text array, prices are long cents, and SKU
+ * lookups go through an open-addressing table of row numbers. {@link Product} instances
+ * are only created when a query returns them.
+ *
+ * <p>No secondary indexes are kept: name and price queries scan the columns without
+ * allocating per row, trading query latency for a much smaller heap.
+ */
+class ColumnarCatalogState implements CatalogState {
+
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = -1;
+    private static final int DELETED = -1;
+    private static final int MIN_ROWS = 16;
+    private static final int MIN_DEAD_TEXT = 4096;
+
+    private int[] skuOffsets;
+    private int[] skuLengths;
+    private int[] nameOffsets;
+    private int[] nameLengths;
+    private long[] prices;
+    private int[] hashes;
+    private int rows;
+    private int live;
+
+    private byte[] text;
+    private int textLength;
+    /** Bytes of {@link #text} no live row refers to any more. */
+    private int deadText;
+
+    /** Row number plus one for each slot, {@link #EMPTY} or {@link #TOMBSTONE}. */
+    private int[] table;
+    private int occupiedSlots;
+
+    ColumnarCatalogState() {
+        this(MIN_ROWS);
+    }
+
+    ColumnarCatalogState(int expectedProducts) {
+        allocate(Math.max(MIN_ROWS, expectedProducts), Math.max(MIN_ROWS, expectedProducts) * 24);
+    }
+
+    private ColumnarCatalogState(ColumnarCatalogState source) {
+        this.skuOffsets = source.skuOffsets.clone();
+        this.skuLengths = source.skuLengths.clone();
+        this.nameOffsets = source.nameOffsets.clone();
+        this.nameLengths = source.nameLengths.clone();
+        this.prices = source.prices.clone();
+        this.hashes = source.hashes.clone();
+        this.rows = source.rows;
+        this.live = source.live;
+        this.text = source.text.clone();
+        this.textLength = source.textLength;
+        this.deadText = source.deadText;
+        this.table = source.table.clone();
+        this.occupiedSlots = source.occupiedSlots;
+    }
+
+    private void allocate(int rowCapacity, int textCapacity) {
+        skuOffsets = new int[rowCapacity];
+        skuLengths = new int[rowCapacity];
+        nameOffsets = new int[rowCapacity];
+        nameLengths = new int[rowCapacity];
+        prices = new long[rowCapacity];
+        hashes = new int[rowCapacity];
+        text = new byte[textCapacity];
+        table = new int[tableSizeFor(rowCapacity)];
+        rows = 0;
+        live = 0;
+        textLength = 0;
+        deadText = 0;
+        occupiedSlots = 0;
+    }
+
+    @Override
+    public Product get(String sku) {
+        int slot = findSlot(sku);
+        return slot < 0 ? null : view(table[slot] - 1);
+    }
+
+    @Override
+    public boolean contains(String sku) {
+        return findSlot(sku) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return live;
+    }
+
+    @Override
+    public List<Product> products() {
+        List<Product> products = new ArrayList<>(live);
+        for (int row = 0; row < rows; row++) {
+            if (skuLengths[row] != DELETED) {
+                products.add(view(row));
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public List<Product> findByName(String lowerCaseTerm) {
+        byte[] term = asciiBytes(lowerCaseTerm);
+        List<Product> matches = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            if (skuLengths[row] == DELETED) {
+                continue;
+            }
+            int match = term == null ? -1 : containsIgnoreAsciiCase(nameOffsets[row], nameLengths[row], term);
+            if (match < 0) {
+                match = decode(nameOffsets[row], nameLengths[row]).toLowerCase().contains(lowerCaseTerm) ? 1 : 0;
+            }
+            if (match == 1) {
+                matches.add(view(row));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Keeps the first {@code offset + limit} matching rows in a bounded heap of row numbers
+     * while scanning, then sorts just those, so nothing is allocated per matching row.
+     */
+    @Override
+    public List<Product> findByPriceRange(long minCents, long maxCents, int offset, int limit, boolean descending) {
+        if (minCents > maxCents) {
+            return Collections.emptyList();
+        }
+        int bound = (int) Math.min(Integer.MAX_VALUE - 8, (long) offset + limit);
+        int[] heap = new int[Math.min(bound, MIN_ROWS)];
+        int size = 0;
+        for (int row = 0; row < rows; row++) {
+            if (skuLengths[row] == DELETED || prices[row] < minCents || prices[row] > maxCents) {
+                continue;
+            }
+            if (size < bound) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min(bound, heap.length * 2L));
+                }
+                heap[size] = row;
+                siftUp(heap, size++, descending);
+            } else if (compareRows(row, heap[0], descending) < 0) {
+                heap[0] = row;
+                siftDown(heap, 0, size, descending);
+            }
+        }
+        if (offset >= size) {
+            return Collections.emptyList();
+        }
+
+        // The root is always the last row in order; moving it to the end sorts the heap.
+        for (int end = size - 1; end > 0; end--) {
+            int last = heap[0];
+            heap[0] = heap[end];
+            heap[end] = last;
+            siftDown(heap, 0, end, descending);
+        }
+        List<Product> page = new ArrayList<>(size - offset);
+        for (int i = offset; i < size; i++) {
+            page.add(view(heap[i]));
+        }
+        return page;
+    }
+
+    @Override
+    public int[] rankByPrice(long minCents, long maxCents, List<Product> products, boolean descending) {
+        int count = products.size();
+        long[] cents = new long[count];
+        byte[][] skus = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            cents[i] = products.get(i).getPriceInCents();
+            skus[i] = products.get(i).getSku().getBytes(StandardCharsets.UTF_8);
+        }
+        int[] ranks = new int[count + 1];
+        for (int row = 0; row < rows; row++) {
+            if (skuLengths[row] == DELETED || prices[row] < minCents || prices[row] > maxCents) {
+                continue;
+            }
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int order = prices[row] != cents[mid] ? Long.compare(prices[row], cents[mid])
+                        : Arrays.compareUnsigned(text, skuOffsets[row], skuOffsets[row] + skuLengths[row],
+                                skus[mid], 0, skus[mid].length);
+                if (descending ? order > 0 : order < 0) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            ranks[low]++;
+        }
+        for (int i = 1; i < count; i++) {
+            ranks[i] += ranks[i - 1];
+        }
+        return Arrays.copyOf(ranks, count);
+    }
+
+    @Override
+    public void put(Product product) {
+        String sku = product.getSku();
+        int slot = findSlot(sku);
+        byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+        if (slot >= 0) {
+            int row = table[slot] - 1;
+            prices[row] = product.getPriceInCents();
+            if (!Arrays.equals(text, nameOffsets[row], nameOffsets[row] + nameLengths[row], name, 0, name.length)) {
+                deadText += nameLengths[row];
+                nameOffsets[row] = appendText(name);
+                nameLengths[row] = name.length;
+                compactIfSparse();
+            }
+            return;
+        }
+
+        if (rows == prices.length) {
+            growRows();
+        }
+        if ((occupiedSlots + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        byte[] skuBytes = sku.getBytes(StandardCharsets.UTF_8);
+        int row = rows++;
+        skuOffsets[row] = appendText(skuBytes);
+        skuLengths[row] = skuBytes.length;
+        nameOffsets[row] = appendText(name);
+        nameLengths[row] = name.length;
+        prices[row] = product.getPriceInCents();
+        hashes[row] = sku.hashCode();
+        insertIntoTable(row);
+        live++;
+    }
+
+    @Override
+    public boolean remove(String sku) {
+        int slot = findSlot(sku);
+        if (slot < 0) {
+            return false;
+        }
+        int row = table[slot] - 1;
+        table[slot] = TOMBSTONE;
+        deadText += skuLengths[row] + nameLengths[row];
+        skuLengths[row] = DELETED;
+        live--;
+        compactIfSparse();
+        return true;
+    }
+
+    @Override
+    public ColumnarCatalogState copy() {
+        return new ColumnarCatalogState(this);
+    }
+
+    // ---------- Hash table ----------
+
+    private int findSlot(String sku) {
+        int hash = sku.hashCode();
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != TOMBSTONE) {
+                int row = entry - 1;
+                if (hashes[row] == hash && skuEquals(row, sku)) {
+                    return slot;
+                }
+            }
+        }
+    }
+
+    private void insertIntoTable(int row) {
+        int mask = table.length - 1;
+        int slot = spread(hashes[row]) & mask;
+        while (table[slot] != EMPTY && table[slot] != TOMBSTONE) {
+            slot = (slot + 1) & mask;
+        }
+        if (table[slot] == EMPTY) {
+            occupiedSlots++;
+        }
+        table[slot] = row + 1;
+    }
+
+    private void rehash(int size) {
+        table = new int[size];
+        occupiedSlots = 0;
+        for (int row = 0; row < rows; row++) {
+            if (skuLengths[row] != DELETED) {
+                insertIntoTable(row);
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int tableSizeFor(int rowCapacity) {
+        return Integer.highestOneBit(Math.max(MIN_ROWS, rowCapacity) * 2 - 1) * 2;
+    }
+
+    // ---------- Columns ----------
+
+    private void growRows() {
+        int capacity = prices.length * 2;
+        skuOffsets = Arrays.copyOf(skuOffsets, capacity);
+        skuLengths = Arrays.copyOf(skuLengths, capacity);
+        nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+        nameLengths = Arrays.copyOf(nameLengths, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+    }
+
+    private int appendText(byte[] bytes) {
+        if (textLength + bytes.length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + bytes.length));
+        }
+        int offset = textLength;
+        System.arraycopy(bytes, 0, text, offset, bytes.length);
+        textLength += bytes.length;
+        return offset;
+    }
+
+    /**
+     * Compacts once deleted rows make up half the rows or replaced names half the text.
+     */
+    private void compactIfSparse() {
+        if ((rows > MIN_ROWS && live < rows / 2) || (deadText > MIN_DEAD_TEXT && deadText > textLength / 2)) {
+            compact();
+        }
+    }
+
+    /**
+     * Drops deleted rows and text that is no longer referenced.
+     */
+    private void compact() {
+        ColumnarCatalogState source = copy();
+        allocate(Math.max(MIN_ROWS, source.live * 2), Math.max(16, source.textLength - source.deadText));
+        for (int row = 0; row < source.rows; row++) {
+            if (source.skuLengths[row] == DELETED) {
+                continue;
+            }
+            int target = rows++;
+            skuOffsets[target] = appendText(Arrays.copyOfRange(source.text,
+                    source.skuOffsets[row], source.skuOffsets[row] + source.skuLengths[row]));
+            skuLengths[target] = source.skuLengths[row];
+            nameOffsets[target] = appendText(Arrays.copyOfRange(source.text,
+                    source.nameOffsets[row], source.nameOffsets[row] + source.nameLengths[row]));
+            nameLengths[target] = source.nameLengths[row];
+            prices[target] = source.prices[row];
+            hashes[target] = source.hashes[row];
+            insertIntoTable(target);
+            live++;
+        }
+    }
+
+    int getTextLength() {
+        return textLength;
+    }
+
+    private Product view(int row) {
+        return Product.ofCents(decode(skuOffsets[row], skuLengths[row]), decode(nameOffsets[row], nameLengths[row]),
+                prices[row]);
+    }
+
+    private String decode(int offset, int length) {
+        return new String(text, offset, length, StandardCharsets.UTF_8);
+    }
+
+    private boolean skuEquals(int row, String sku) {
+        int offset = skuOffsets[row];
+        int length = skuLengths[row];
+        for (int i = 0; i < length; i++) {
+            byte b = text[offset + i];
+            if (b < 0) {
+                return decode(offset, length).equals(sku);
+            }
+            if (i >= sku.length() || sku.charAt(i) != b) {
+                return false;
+            }
+        }
+        return length == sku.length();
+    }
+
+    /**
+     * Compares two rows by price, then SKU, in the requested order.
+     */
+    private int compareRows(int left, int right, boolean descending) {
+        int order = prices[left] != prices[right] ? Long.compare(prices[left], prices[right]) : compareSkus(left, right);
+        return descending ? -order : order;
+    }
+
+    private void siftUp(int[] heap, int index, boolean descending) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compareRows(heap[index], heap[parent], descending) <= 0) {
+                return;
+            }
+            int row = heap[index];
+            heap[index] = heap[parent];
+            heap[parent] = row;
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int index, int size, boolean descending) {
+        while (2 * index + 1 < size) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && compareRows(heap[child + 1], heap[child], descending) > 0) {
+                child++;
+            }
+            if (compareRows(heap[child], heap[index], descending) <= 0) {
+                return;
+            }
+            int row = heap[index];
+            heap[index] = heap[child];
+            heap[child] = row;
+            index = child;
+        }
+    }
+
+    private int compareSkus(int left, int right) {
+        return Arrays.compareUnsigned(text, skuOffsets[left], skuOffsets[left] + skuLengths[left],
+                text, skuOffsets[right], skuOffsets[right] + skuLengths[right]);
+    }
+
+    /**
+     * Returns 1 if the ASCII name contains the term ignoring ASCII case, 0 if not,
+     * or -1 if the name has non-ASCII bytes and must be compared as a String.
+     */
+    private int containsIgnoreAsciiCase(int offset, int length, byte[] term) {
+        for (int i = 0; i < length; i++) {
+            if (text[offset + i] < 0) {
+                return -1;
+            }
+        }
+        outer:
+        for (int start = 0; start + term.length <= length; start++) {
+            for (int j = 0; j < term.length; j++) {
+                byte b = text[offset + start + j];
+                if (b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                }
+                if (b != term[j]) {
+                    continue outer;
+                }
+            }
+            return 1;
+        }
+        return 0;
+    }
+
+    private static byte[] asciiBytes(String value) {
+        byte[] bytes = new byte[value.length()];
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                return null;
+            }
+            bytes[i] = (byte) c;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.Cart;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * A shopping cart that several clients of one user, such as web and mobile, can change
+ * at the same time without any external lock.
+ *
+ * <p>The cart's whole state is one immutable {@link State}, holding a {@link CartSnapshot}
+ * of the lines and totals plus the held reservations, published through an
+ * {@link AtomicReference}. A change
+ * reads the current state, checks inventory against it, builds the next state and
+ * publishes it with compare-and-set, retrying if another client got there first. The
+ * inventory check therefore always applies to the quantity that is actually stored, and
+ * readers get a consistent snapshot from {@link #getItems()} without copying or blocking.
+ * Each change copies only O(log n) nodes of the snapshot.
+ *
+ * <p>As with {@link Cart}, a {@link ReservableInventoryService} makes the cart reserve
+ * added quantities instead of only checking them.
+ */
+public class ConcurrentCart {
+
+    private final Catalog catalog;
+    private final InventoryService inventoryService;
+    private final ReservableInventoryService reservableInventory;
+    private final Duration reservationTtl;
+    private final AtomicReference<State> state;
+    private final CartMetrics metrics;
+    private Consumer<String> skuTracker = sku -> { };
+
+    public ConcurrentCart(Catalog catalog, InventoryService inventoryService) {
+        this(catalog, inventoryService, Cart.DEFAULT_RESERVATION_TTL);
+    }
+
+    public ConcurrentCart(Catalog catalog, InventoryService inventoryService, Duration reservationTtl) {
+        this(catalog, inventoryService, reservationTtl, CartSnapshot.empty());
+    }
+
+    /**
+     * Creates a cart that starts with the lines of a stored snapshot, e.g. one loaded from a
+     * {@link CartRepository}. The lines keep their stored prices; no inventory is reserved
+     * for them.
+     */
+    public ConcurrentCart(Catalog catalog, InventoryService inventoryService, Duration reservationTtl,
+                          CartSnapshot initial) {
+        this(catalog, inventoryService, reservationTtl, initial, CartMetrics.NOOP);
+    }
+
+    /**
+     * Creates a cart from a stored snapshot that reports timings and rejections to the given
+     * metrics.
+     */
+    public ConcurrentCart(Catalog catalog, InventoryService inventoryService, Duration reservationTtl,
+                          CartSnapshot initial, CartMetrics metrics) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        if (inventoryService == null) {
+            throw new IllegalArgumentException("InventoryService cannot be null");
+        }
+        if (reservationTtl == null || reservationTtl.isNegative() || reservationTtl.isZero()) {
+            throw new IllegalArgumentException("Reservation TTL must be positive");
+        }
+        if (initial == null) {
+            throw new IllegalArgumentException("Initial snapshot cannot be null");
+        }
+        this.catalog = catalog;
+        this.inventoryService = inventoryService;
+        this.reservableInventory = inventoryService instanceof ReservableInventoryService reservable
+                ? reservable : null;
+        this.reservationTtl = reservationTtl;
+        this.state = new AtomicReference<>(new State(initial, Map.of()));
+        this.metrics = metrics == null ? CartMetrics.NOOP : metrics;
+    }
+
+    /**
+     * Adds or updates an item in the cart after checking, or reserving, inventory for it.
+     */
+    public void addItem(String sku, int quantity) {
+        long started = metrics.start();
+        if (quantity <= 0) {
+            metrics.rejected(sku, CartMetrics.Rejection.INVALID_QUANTITY);
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        long catalogChanges = catalog.getChangeCount();
+        Product product = catalog.findProductBySku(sku);
+        metrics.catalogLookup(started);
+        if (product == null) {
+            metrics.rejected(sku, CartMetrics.Rejection.UNKNOWN_PRODUCT);
+            throw new IllegalArgumentException("Product not found in catalog: " + sku);
+        }
+        if (!state.get().lines.contains(sku)) {
+            skuTracker.accept(product.getSku());
+        }
+
+        if (reservableInventory != null) {
+            addReserved(sku, quantity, product);
+        } else {
+            addChecked(sku, quantity, product);
+        }
+        // A price change published after the lookup may have been swept before this line
+        // existed, so pick it up here.
+        if (catalog.getChangeCount() != catalogChanges) {
+            reprice(Set.of(product.getSku()));
+        }
+        metrics.cartMutation("add", started);
+    }
+
+    private void addChecked(String sku, int quantity, Product product) {
+        State current;
+        State next;
+        do {
+            current = state.get();
+            CartLine existing = current.lines.get(sku);
+            int totalRequiredQuantity = (existing == null ? 0 : existing.getQuantity()) + quantity;
+            long checkStarted = metrics.start();
+            int availableQuantity = inventoryService.getAvailable(sku);
+            metrics.inventoryCheck(checkStarted);
+            if (totalRequiredQuantity > availableQuantity) {
+                metrics.rejected(sku, CartMetrics.Rejection.INSUFFICIENT_INVENTORY);
+                throw new InsufficientInventoryException(sku, totalRequiredQuantity, availableQuantity);
+            }
+            next = current.withLine(merged(existing, sku, quantity, product), null);
+        } while (!state.compareAndSet(current, next));
+    }
+
+    private void addReserved(String sku, int quantity, Product product) {
+        Reservation reservation;
+        long checkStarted = metrics.start();
+        try {
+            reservation = reservableInventory.reserve(sku, quantity, reservationTtl);
+            metrics.inventoryCheck(checkStarted);
+        } catch (InsufficientInventoryException e) {
+            metrics.rejected(sku, CartMetrics.Rejection.INSUFFICIENT_INVENTORY);
+            CartLine existing = state.get().lines.get(sku);
+            int currentCartQuantity = existing == null ? 0 : existing.getQuantity();
+            throw new InsufficientInventoryException(sku, currentCartQuantity + quantity,
+                    currentCartQuantity + e.getAvailableQuantity());
+        }
+        try {
+            State current;
+            State next;
+            do {
+                current = state.get();
+                next = current.withLine(merged(current.lines.get(sku), sku, quantity, product), reservation);
+            } while (!state.compareAndSet(current, next));
+        } catch (RuntimeException e) {
+            reservableInventory.release(reservation);
+            throw e;
+        }
+    }
+
+    private static CartLine merged(CartLine existing, String sku, int quantity, Product product) {
+        return existing == null
+                ? new CartLine(sku, quantity, product.getPriceInCents())
+                : existing.withQuantity(Math.addExact(existing.getQuantity(), quantity));
+    }
+
+    /**
+     * Removes an item from the cart by SKU, releasing any inventory reserved for it.
+     */
+    public void removeItem(String sku) {
+        long started = metrics.start();
+        State current;
+        State next;
+        do {
+            current = state.get();
+            if (!current.lines.contains(sku)) {
+                throw new IllegalArgumentException("Item not found in cart: " + sku);
+            }
+            next = current.withoutLine(sku);
+        } while (!state.compareAndSet(current, next));
+        List<Reservation> held = current.reservations.get(sku);
+        if (held != null) {
+            held.forEach(reservableInventory::release);
+        }
+        metrics.cartMutation("remove", started);
+    }
+
+    /**
+     * Updates the unit price of every line for one of the given SKUs to the catalog's
+     * current price, in one change. Lines whose product is no longer in the catalog keep
+     * their price. Reservations and quantities are not touched.
+     *
+     * @param skus catalog SKUs whose price may have changed, e.g.
+     *             {@link CatalogChange#getUpsertedSkus()}
+     * @return the number of lines whose price changed
+     */
+    public int reprice(Set<String> skus) {
+        if (skus == null) {
+            throw new IllegalArgumentException("SKUs cannot be null");
+        }
+        State current;
+        CartSnapshot lines;
+        int changed;
+        do {
+            current = state.get();
+            lines = current.lines;
+            changed = 0;
+            for (CartLine line : current.lines.asMap().values()) {
+                if (!skus.contains(line.getSku().trim())) {
+                    continue;
+                }
+                Product product = catalog.findProductBySku(line.getSku());
+                if (product != null && product.getPriceInCents() != line.getPriceInCents()) {
+                    lines = lines.with(line.withPriceInCents(product.getPriceInCents()));
+                    changed++;
+                }
+            }
+            if (changed == 0) {
+                return 0;
+            }
+        } while (!state.compareAndSet(current, new State(lines, current.reservations)));
+        return changed;
+    }
+
+    /**
+     * Sets the callback told about a SKU before the cart first adds a line for it, so that
+     * {@link CartRegistry} can index carts by SKU. It must be set before the cart is shared.
+     */
+    void setSkuTracker(Consumer<String> skuTracker) {
+        this.skuTracker = skuTracker;
+    }
+
+    /**
+     * Commits every inventory reservation held by this cart, e.g. at checkout.
+     *
+     * @return true if all reservations were still held; false if any had expired or been released
+     */
+    public boolean commitReservations() {
+        boolean allCommitted = true;
+        for (List<Reservation> held : takeReservations().values()) {
+            for (Reservation reservation : held) {
+                allCommitted &= reservableInventory.commit(reservation);
+            }
+        }
+        return allCommitted;
+    }
+
+    /**
+     * Returns every inventory reservation held by this cart to stock.
+     */
+    public void releaseReservations() {
+        takeReservations().values().forEach(held -> held.forEach(reservableInventory::release));
+    }
+
+    private Map<String, List<Reservation>> takeReservations() {
+        State current;
+        do {
+            current = state.get();
+            if (current.reservations.isEmpty()) {
+                return current.reservations;
+            }
+        } while (!state.compareAndSet(current, current.withoutReservations()));
+        return current.reservations;
+    }
+
+    public double getTotal() {
+        return Money.toDouble(getTotalInCents());
+    }
+
+    public long getTotalInCents() {
+        return state.get().lines.getTotalInCents();
+    }
+
+    public BigDecimal getTotalAsBigDecimal() {
+        return Money.toBigDecimal(getTotalInCents());
+    }
+
+    public long getTotalQuantity() {
+        return state.get().lines.getTotalQuantity();
+    }
+
+    public int getItemCount() {
+        return state.get().lines.size();
+    }
+
+    public boolean hasItem(String sku) {
+        return state.get().lines.contains(sku);
+    }
+
+    /**
+     * Returns an immutable snapshot of the cart lines. Later changes to the cart are not
+     * reflected in it; call again to see them.
+     */
+    public Map<String, CartLine> getItems() {
+        return state.get().lines.asMap();
+    }
+
+    /**
+     * Returns the current version of the cart's lines.
+     */
+    public CartSnapshot snapshot() {
+        return state.get().lines;
+    }
+
+    public long getVersion() {
+        return state.get().lines.getVersion();
+    }
+
+    /**
+     * One immutable version of the cart: the lines with their totals, and the reservations
+     * held for them. The reservation map is never modified after construction.
+     */
+    private static final class State {
+        final CartSnapshot lines;
+        final Map<String, List<Reservation>> reservations;
+
+        State(CartSnapshot lines, Map<String, List<Reservation>> reservations) {
+            this.lines = lines;
+            this.reservations = reservations;
+        }
+
+        State withLine(CartLine line, Reservation reservation) {
+            Map<String, List<Reservation>> newReservations = reservations;
+            if (reservation != null) {
+                newReservations = new HashMap<>(reservations);
+                List<Reservation> held = new ArrayList<>(reservations.getOrDefault(line.getSku(), List.of()));
+                held.add(reservation);
+                newReservations.put(line.getSku(), Collections.unmodifiableList(held));
+                newReservations = Collections.unmodifiableMap(newReservations);
+            }
+            return new State(lines.with(line), newReservations);
+        }
+
+        State withoutLine(String sku) {
+            Map<String, List<Reservation>> newReservations = reservations;
+            if (reservations.containsKey(sku)) {
+                newReservations = new HashMap<>(reservations);
+                newReservations.remove(sku);
+                newReservations = Collections.unmodifiableMap(newReservations);
+            }
+            return new State(lines.without(sku), newReservations);
+        }
+
+        State withoutReservations() {
+            return new State(lines, Map.of());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.Cart;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalog storage backed by a hash map of products plus sorted price and n-gram name indexes.
+ * Queries are fast at the cost of several objects per product.
+ */
+class IndexedCatalogState implements CatalogState {
+
+    private final Map<String, Product> products;
+    private final PriceIndex priceIndex;
+    private final NameIndex nameIndex;
+
+    IndexedCatalogState() {
+        this.products = new HashMap<>();
+        this.priceIndex = new PriceIndex();
+        this.nameIndex = new NameIndex();
+    }
+
+    /**
+     * Creates an empty state sized to hold the given number of products without rehashing.
+     */
+    IndexedCatalogState(int expectedProducts) {
+        this.products = new HashMap<>(CatalogState.capacityFor(expectedProducts));
+        this.priceIndex = new PriceIndex();
+        this.nameIndex = new NameIndex(expectedProducts);
+    }
+
+    private IndexedCatalogState(IndexedCatalogState source) {
+        this.products = new HashMap<>(source.products);
+        this.priceIndex = new PriceIndex(source.priceIndex);
+        this.nameIndex = new NameIndex(source.nameIndex);
+    }
+
+    @Override
+    public Product get(String sku) {
+        return products.get(sku);
+    }
+
+    @Override
+    public boolean contains(String sku) {
+        return products.containsKey(sku);
+    }
+
+    @Override
+    public int size() {
+        return products.size();
+    }
+
+    @Override
+    public List<Product> products() {
+        return new ArrayList<>(products.values());
+    }
+
+    @Override
+    public List<Product> findByName(String lowerCaseTerm) {
+        return nameIndex.search(lowerCaseTerm);
+    }
+
+    @Override
+    public List<Product> findByPriceRange(long minCents, long maxCents, int offset, int limit, boolean descending) {
+        return priceIndex.range(minCents, maxCents, offset, limit, descending);
+    }
+
+    @Override
+    public int[] rankByPrice(long minCents, long maxCents, List<Product> products, boolean descending) {
+        return priceIndex.rank(minCents, maxCents, products, descending);
+    }
+
+    @Override
+    public IndexedCatalogState copy() {
+        return new IndexedCatalogState(this);
+    }
+
+    @Override
+    public void put(Product product) {
+        Product previous = products.put(product.getSku(), product);
+        if (previous != null) {
+            priceIndex.remove(previous);
+        }
+        priceIndex.add(product);
+        nameIndex.add(product);
+    }
+
+    @Override
+    public boolean remove(String sku) {
+        Product removed = products.remove(sku);
+        if (removed == null) {
+            return false;
+        }
+        priceIndex.remove(removed);
+        nameIndex.remove(removed);
+        return true;
+    }
+}
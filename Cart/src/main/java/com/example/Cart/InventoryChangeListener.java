@@ -0,0 +1,20 @@
+package com.example.Cart;
+
+/**
+ * Receives notifications when an inventory source changes, so that copies of its
+ * data (such as caches) can be invalidated.
+ */
+public interface InventoryChangeListener {
+
+    /**
+     * Called after the available quantity of a SKU has changed.
+     *
+     * @param sku the product SKU whose inventory changed
+     */
+    void onInventoryChanged(String sku);
+
+    /**
+     * Called after all inventory data has been replaced or cleared.
+     */
+    void onInventoryCleared();
+}
@@ -1,5 +1,9 @@
 package com.example.Cart;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Service interface for checking product inventory availability.
  * Implementations should provide real-time inventory data.
@@ -13,4 +17,20 @@ public interface InventoryService {
      * @return the available quantity, or 0 if not available/not found
      */
     int getAvailable(String sku);
+
+    /**
+     * Returns the available quantity for each of the given SKUs in one call.
+     * Network-backed implementations should override this to fetch all SKUs in a single
+     * round trip; the default falls back to one {@link #getAvailable(String)} call per SKU.
+     *
+     * @param skus the product SKUs to check
+     * @return a map from every requested SKU to its available quantity (0 if not available/not found)
+     */
+    default Map<String, Integer> getAvailable(Collection<String> skus) {
+        Map<String, Integer> available = new HashMap<>();
+        for (String sku : skus) {
+            available.put(sku, getAvailable(sku));
+        }
+        return available;
+    }
 }
\ No newline at end of file
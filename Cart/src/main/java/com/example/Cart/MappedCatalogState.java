@@ -0,0 +1,655 @@
+package com.example.Cart;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Read-only catalog storage over a memory-mapped snapshot file.
+ *
+ * <p>The file holds the same columns as {@link ColumnarCatalogState} together with its
+ * indexes, so nothing is rebuilt when it is opened: the open-addressing SKU table, the rows
+ * in price-then-SKU order, and the 1 to 3 character name grams of {@link NameIndex} with
+ * their posting lists. Pages are loaded by the operating system as queries touch them.
+ * {@link Product} instances are created only when a query returns them.
+ *
+ * <p>Layout, little-endian, each section directly after the previous one:
+ * <pre>
+ *   header      64 bytes, see {@link #HEADER_SIZE}
+ *   prices      long[products]
+ *   gram keys   long[grams], sorted
+ *   sku offset, sku length, name offset, name length, sku hash   int[products] each
+ *   sku table   int[table slots], row plus one or 0 for empty
+ *   price order int[products]
+ *   postings    int[grams + 1] start of each gram's rows, then int[postings] rows
+ *   text        UTF-8 SKUs and names
+ * </pre>
+ * The header carries the source version the catalog was built from, the file length and
+ * CRC32C checksums of itself and of everything after it. The state has no write methods:
+ * a catalog opened from a snapshot writes to an {@link OverlayCatalogState} over it, and
+ * {@link #copy()} returns a heap {@link ColumnarCatalogState} with the same products.
+ */
+final class MappedCatalogState implements CatalogView {
+
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * magic, format version, source version, product count, table slots, gram count,
+     * posting count, text length, file length, body checksum, header checksum.
+     */
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC = 0x43415443;
+    private static final int HEADER_CHECKSUM_OFFSET = 56;
+    private static final int MIN_TABLE_SLOTS = 16;
+
+    private final ByteBuffer buffer;
+    private final int products;
+    private final int tableMask;
+    private final int grams;
+    private final int prices;
+    private final int gramKeys;
+    private final int skuOffsets;
+    private final int skuLengths;
+    private final int nameOffsets;
+    private final int nameLengths;
+    private final int hashes;
+    private final int table;
+    private final int priceOrder;
+    private final int postingStarts;
+    private final int postings;
+    private final int text;
+
+    private MappedCatalogState(ByteBuffer buffer, Layout layout) {
+        this.buffer = buffer;
+        this.products = layout.products;
+        this.tableMask = layout.tableSlots - 1;
+        this.grams = layout.grams;
+        this.prices = (int) layout.prices();
+        this.gramKeys = (int) layout.gramKeys();
+        this.skuOffsets = (int) layout.skuOffsets();
+        this.skuLengths = (int) layout.skuLengths();
+        this.nameOffsets = (int) layout.nameOffsets();
+        this.nameLengths = (int) layout.nameLengths();
+        this.hashes = (int) layout.hashes();
+        this.table = (int) layout.table();
+        this.priceOrder = (int) layout.priceOrder();
+        this.postingStarts = (int) layout.postingStarts();
+        this.postings = (int) layout.postings();
+        this.text = (int) layout.text();
+    }
+
+    // ---------- Opening ----------
+
+    /**
+     * Maps a snapshot file after checking its length, source version and checksums. The
+     * body checksum reads the whole file once, which also brings it into the page cache.
+     *
+     * @throws CatalogSnapshotException if the file is truncated, corrupt, from a newer
+     *         format or built from a different source version
+     */
+    static MappedCatalogState open(Path file, long expectedSourceVersion) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new CatalogSnapshotException(CatalogSnapshotException.Reason.TRUNCATED,
+                        "Catalog snapshot " + file + " is shorter than its header");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new CatalogSnapshotException(CatalogSnapshotException.Reason.CORRUPT,
+                        "Catalog snapshot " + file + " is larger than 2 GB");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new CatalogSnapshotException(CatalogSnapshotException.Reason.CORRUPT,
+                    file + " is not a catalog snapshot");
+        }
+        if (buffer.getInt(HEADER_CHECKSUM_OFFSET) != checksum(buffer, 0, HEADER_CHECKSUM_OFFSET)) {
+            throw new CatalogSnapshotException(CatalogSnapshotException.Reason.CORRUPT,
+                    "Catalog snapshot " + file + " has a corrupt header");
+        }
+        int version = buffer.getInt(4);
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new CatalogSnapshotException(CatalogSnapshotException.Reason.UNSUPPORTED_VERSION,
+                    "Catalog snapshot " + file + " has unsupported format version " + version);
+        }
+        Layout layout = new Layout(buffer.getInt(16), buffer.getInt(20), buffer.getInt(24), buffer.getInt(28),
+                buffer.getInt(32));
+        long length = buffer.getLong(40);
+        if (length != buffer.capacity() || length != layout.fileLength()) {
+            throw new CatalogSnapshotException(CatalogSnapshotException.Reason.TRUNCATED,
+                    "Catalog snapshot " + file + " is " + buffer.capacity() + " bytes but should be " + length);
+        }
+        long sourceVersion = buffer.getLong(8);
+        if (sourceVersion != expectedSourceVersion) {
+            throw new CatalogSnapshotException(CatalogSnapshotException.Reason.STALE,
+                    "Catalog snapshot " + file + " was built from source version " + sourceVersion
+                            + ", expected " + expectedSourceVersion);
+        }
+        if (buffer.getLong(48) != checksum(buffer, HEADER_SIZE, (int) length - HEADER_SIZE)) {
+            throw new CatalogSnapshotException(CatalogSnapshotException.Reason.CORRUPT,
+                    "Catalog snapshot " + file + " does not match its checksum");
+        }
+        return new MappedCatalogState(buffer, layout);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    // ---------- Writing ----------
+
+    /**
+     * Writes the products to a snapshot file. The file is written next to the target and
+     * then renamed over it, so readers never see a partial file and a process that still
+     * maps the previous file keeps reading it unchanged.
+     */
+    static void write(List<Product> products, Path file, long sourceVersion) throws IOException {
+        int count = products.size();
+        byte[][] skuBytes = new byte[count][];
+        byte[][] nameBytes = new byte[count][];
+        long textLength = 0;
+        for (int row = 0; row < count; row++) {
+            skuBytes[row] = products.get(row).getSku().getBytes(StandardCharsets.UTF_8);
+            nameBytes[row] = products.get(row).getName().getBytes(StandardCharsets.UTF_8);
+            textLength += skuBytes[row].length + nameBytes[row].length;
+        }
+
+        // First pass over the name grams counts each gram's rows; the second fills them in.
+        GramTable gramTable = new GramTable();
+        long postingCount = 0;
+        for (Product product : products) {
+            for (long gram : NameIndex.grams(product.getName().toLowerCase())) {
+                gramTable.increment(gram);
+                postingCount++;
+            }
+        }
+        long[] sortedGrams = gramTable.sortedKeys();
+
+        Layout layout = new Layout(count, tableSizeFor(count), sortedGrams.length, toIntSize(postingCount),
+                toIntSize(textLength));
+        long length = layout.fileLength();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Catalog of " + count + " products is too large for a 2 GB snapshot");
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+                ByteBuffer out = mapped.order(ByteOrder.LITTLE_ENDIAN);
+                writeBody(out, layout, products, skuBytes, nameBytes, sortedGrams, gramTable);
+                writeHeader(out, layout, sourceVersion);
+                mapped.force();
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeBody(ByteBuffer out, Layout layout, List<Product> products, byte[][] skuBytes,
+                                  byte[][] nameBytes, long[] sortedGrams, GramTable gramTable) {
+        int count = layout.products;
+        int text = (int) layout.text();
+        int textOffset = 0;
+        // Regions added by extending a file are unspecified, and empty slots must read 0.
+        for (int slot = 0; slot < layout.tableSlots; slot++) {
+            out.putInt((int) layout.table() + 4 * slot, 0);
+        }
+        for (int row = 0; row < count; row++) {
+            Product product = products.get(row);
+            out.putLong((int) layout.prices() + 8 * row, product.getPriceInCents());
+            out.putInt((int) layout.skuOffsets() + 4 * row, textOffset);
+            out.putInt((int) layout.skuLengths() + 4 * row, skuBytes[row].length);
+            out.put(text + textOffset, skuBytes[row]);
+            textOffset += skuBytes[row].length;
+            out.putInt((int) layout.nameOffsets() + 4 * row, textOffset);
+            out.putInt((int) layout.nameLengths() + 4 * row, nameBytes[row].length);
+            out.put(text + textOffset, nameBytes[row]);
+            textOffset += nameBytes[row].length;
+            int hash = product.getSku().hashCode();
+            out.putInt((int) layout.hashes() + 4 * row, hash);
+
+            int mask = layout.tableSlots - 1;
+            int slot = spread(hash) & mask;
+            while (out.getInt((int) layout.table() + 4 * slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            out.putInt((int) layout.table() + 4 * slot, row + 1);
+        }
+
+        Integer[] byPrice = new Integer[count];
+        for (int row = 0; row < count; row++) {
+            byPrice[row] = row;
+        }
+        Arrays.sort(byPrice, Comparator.<Integer>comparingLong(row -> products.get(row).getPriceInCents())
+                .thenComparing(row -> products.get(row).getSku()));
+        for (int i = 0; i < count; i++) {
+            out.putInt((int) layout.priceOrder() + 4 * i, byPrice[i]);
+        }
+
+        // Turn each gram's count into the position of its next row in the postings section.
+        int start = 0;
+        for (int g = 0; g < sortedGrams.length; g++) {
+            out.putLong((int) layout.gramKeys() + 8 * g, sortedGrams[g]);
+            out.putInt((int) layout.postingStarts() + 4 * g, start);
+            start += gramTable.replace(sortedGrams[g], start);
+        }
+        out.putInt((int) layout.postingStarts() + 4 * sortedGrams.length, start);
+        for (int row = 0; row < count; row++) {
+            for (long gram : NameIndex.grams(products.get(row).getName().toLowerCase())) {
+                out.putInt((int) layout.postings() + 4 * gramTable.increment(gram), row);
+            }
+        }
+    }
+
+    private static void writeHeader(ByteBuffer out, Layout layout, long sourceVersion) {
+        out.putInt(0, MAGIC);
+        out.putInt(4, FORMAT_VERSION);
+        out.putLong(8, sourceVersion);
+        out.putInt(16, layout.products);
+        out.putInt(20, layout.tableSlots);
+        out.putInt(24, layout.grams);
+        out.putInt(28, layout.postingCount);
+        out.putInt(32, layout.textLength);
+        out.putLong(40, layout.fileLength());
+        out.putLong(48, checksum(out, HEADER_SIZE, (int) layout.fileLength() - HEADER_SIZE));
+        out.putInt(HEADER_CHECKSUM_OFFSET, checksum(out, 0, HEADER_CHECKSUM_OFFSET));
+    }
+
+    private static int toIntSize(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Catalog is too large for a 2 GB snapshot");
+        }
+        return (int) size;
+    }
+
+    private static int tableSizeFor(int products) {
+        return Integer.highestOneBit(Math.max(MIN_TABLE_SLOTS, products) * 2 - 1) * 2;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    // ---------- Queries ----------
+
+    @Override
+    public Product get(String sku) {
+        int row = findRow(sku);
+        return row < 0 ? null : Product.ofCents(sku, name(row), price(row));
+    }
+
+    @Override
+    public boolean contains(String sku) {
+        return findRow(sku) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return products;
+    }
+
+    @Override
+    public List<Product> products() {
+        List<Product> all = new ArrayList<>(products);
+        for (int row = 0; row < products; row++) {
+            all.add(view(row));
+        }
+        return all;
+    }
+
+    @Override
+    public List<Product> findByName(String lowerCaseTerm) {
+        if (lowerCaseTerm.length() <= NameIndex.MAX_GRAM) {
+            int g = findGram(NameIndex.gram(lowerCaseTerm, 0, lowerCaseTerm.length()));
+            if (g < 0) {
+                return Collections.emptyList();
+            }
+            List<Product> matches = new ArrayList<>(postingEnd(g) - postingStart(g));
+            for (int i = postingStart(g); i < postingEnd(g); i++) {
+                matches.add(view(buffer.getInt(postings + 4 * i)));
+            }
+            return matches;
+        }
+
+        int rarest = -1;
+        for (int i = 0; i + NameIndex.MAX_GRAM <= lowerCaseTerm.length(); i++) {
+            int g = findGram(NameIndex.gram(lowerCaseTerm, i, NameIndex.MAX_GRAM));
+            if (g < 0) {
+                return Collections.emptyList();
+            }
+            if (rarest < 0 || postingEnd(g) - postingStart(g) < postingEnd(rarest) - postingStart(rarest)) {
+                rarest = g;
+            }
+        }
+        List<Product> matches = new ArrayList<>();
+        for (int i = postingStart(rarest); i < postingEnd(rarest); i++) {
+            int row = buffer.getInt(postings + 4 * i);
+            if (name(row).toLowerCase().contains(lowerCaseTerm)) {
+                matches.add(view(row));
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public List<Product> findByPriceRange(long minCents, long maxCents, int offset, int limit, boolean descending) {
+        if (minCents > maxCents) {
+            return Collections.emptyList();
+        }
+        int from = firstPricedAtLeast(minCents);
+        int to = maxCents == Long.MAX_VALUE ? products : firstPricedAtLeast(maxCents + 1);
+        if (offset >= to - from) {
+            return Collections.emptyList();
+        }
+        int count = (int) Math.min(to - from - offset, limit);
+        List<Product> page = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = descending ? to - 1 - offset - i : from + offset + i;
+            page.add(view(buffer.getInt(priceOrder + 4 * index)));
+        }
+        return page;
+    }
+
+    @Override
+    public int[] rankByPrice(long minCents, long maxCents, List<Product> ordered, boolean descending) {
+        int[] ranks = new int[ordered.size()];
+        if (minCents > maxCents) {
+            return ranks;
+        }
+        int from = firstPricedAtLeast(minCents);
+        int to = maxCents == Long.MAX_VALUE ? products : firstPricedAtLeast(maxCents + 1);
+        for (int i = 0; i < ranks.length; i++) {
+            Product product = ordered.get(i);
+            int at = firstOrderedAtLeast(from, to, product);
+            if (!descending) {
+                ranks[i] = at - from;
+            } else {
+                int row = at < to ? buffer.getInt(priceOrder + 4 * at) : -1;
+                boolean found = row >= 0 && price(row) == product.getPriceInCents() && skuEquals(row, product.getSku());
+                ranks[i] = to - at - (found ? 1 : 0);
+            }
+        }
+        return ranks;
+    }
+
+    @Override
+    public ColumnarCatalogState copy() {
+        ColumnarCatalogState copy = new ColumnarCatalogState(products);
+        for (int row = 0; row < products; row++) {
+            copy.put(view(row));
+        }
+        return copy;
+    }
+
+    private int findRow(String sku) {
+        int hash = sku.hashCode();
+        for (int slot = spread(hash) & tableMask; ; slot = (slot + 1) & tableMask) {
+            int entry = buffer.getInt(table + 4 * slot);
+            if (entry == 0) {
+                return -1;
+            }
+            int row = entry - 1;
+            if (buffer.getInt(hashes + 4 * row) == hash && skuEquals(row, sku)) {
+                return row;
+            }
+        }
+    }
+
+    private boolean skuEquals(int row, String sku) {
+        int offset = buffer.getInt(skuOffsets + 4 * row);
+        int length = buffer.getInt(skuLengths + 4 * row);
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(text + offset + i);
+            if (b < 0) {
+                return text(offset, length).equals(sku);
+            }
+            if (i >= sku.length() || sku.charAt(i) != b) {
+                return false;
+            }
+        }
+        return length == sku.length();
+    }
+
+    private int firstPricedAtLeast(long cents) {
+        int low = 0;
+        int high = products;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (price(buffer.getInt(priceOrder + 4 * mid)) < cents) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first position between the given ones in price order whose row is not
+     * ordered before the given product.
+     */
+    private int firstOrderedAtLeast(int from, int to, Product product) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int row = buffer.getInt(priceOrder + 4 * mid);
+            int order = price(row) != product.getPriceInCents() ? Long.compare(price(row), product.getPriceInCents())
+                    : sku(row).compareTo(product.getSku());
+            if (order < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int findGram(long gram) {
+        int low = 0;
+        int high = grams - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long key = buffer.getLong(gramKeys + 8 * mid);
+            if (key < gram) {
+                low = mid + 1;
+            } else if (key > gram) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int postingStart(int g) {
+        return buffer.getInt(postingStarts + 4 * g);
+    }
+
+    private int postingEnd(int g) {
+        return buffer.getInt(postingStarts + 4 * (g + 1));
+    }
+
+    private long price(int row) {
+        return buffer.getLong(prices + 8 * row);
+    }
+
+    private String name(int row) {
+        return text(buffer.getInt(nameOffsets + 4 * row), buffer.getInt(nameLengths + 4 * row));
+    }
+
+    private String sku(int row) {
+        return text(buffer.getInt(skuOffsets + 4 * row), buffer.getInt(skuLengths + 4 * row));
+    }
+
+    private Product view(int row) {
+        return Product.ofCents(sku(row), name(row), price(row));
+    }
+
+    private String text(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(text + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Open-addressing map from packed name gram to an int, used while writing so that tens
+     * of millions of gram occurrences are counted without boxing.
+     */
+    private static final class GramTable {
+
+        private long[] keys = new long[1 << 12];
+        private int[] values = new int[1 << 12];
+        private boolean[] used = new boolean[1 << 12];
+        private int size;
+
+        /**
+         * Adds one to the gram's value, starting from 0, and returns the value before.
+         */
+        int increment(long gram) {
+            int slot = slotOf(gram);
+            if (!used[slot]) {
+                used[slot] = true;
+                keys[slot] = gram;
+                if (++size * 2 > keys.length) {
+                    grow();
+                    slot = slotOf(gram);
+                }
+            }
+            return values[slot]++;
+        }
+
+        /**
+         * Sets the value of a gram already in the table, returning the previous value.
+         */
+        int replace(long gram, int value) {
+            int slot = slotOf(gram);
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+
+        long[] sortedKeys() {
+            long[] sorted = new long[size];
+            int count = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (used[slot]) {
+                    sorted[count++] = keys[slot];
+                }
+            }
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        private int slotOf(long gram) {
+            int mask = keys.length - 1;
+            int slot = spread(Long.hashCode(gram * 0x9E3779B97F4A7C15L)) & mask;
+            while (used[slot] && keys[slot] != gram) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = slotOf(oldKeys[i]);
+                    used[slot] = true;
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Byte offsets of each section, derived from the counts in the header.
+     */
+    private record Layout(int products, int tableSlots, int grams, int postingCount, int textLength) {
+
+        long prices() {
+            return HEADER_SIZE;
+        }
+
+        long gramKeys() {
+            return prices() + 8L * products;
+        }
+
+        long skuOffsets() {
+            return gramKeys() + 8L * grams;
+        }
+
+        long skuLengths() {
+            return skuOffsets() + 4L * products;
+        }
+
+        long nameOffsets() {
+            return skuLengths() + 4L * products;
+        }
+
+        long nameLengths() {
+            return nameOffsets() + 4L * products;
+        }
+
+        long hashes() {
+            return nameLengths() + 4L * products;
+        }
+
+        long table() {
+            return hashes() + 4L * products;
+        }
+
+        long priceOrder() {
+            return table() + 4L * tableSlots;
+        }
+
+        long postingStarts() {
+            return priceOrder() + 4L * products;
+        }
+
+        long postings() {
+            return postingStarts() + 4L * (grams + 1);
+        }
+
+        long text() {
+            return postings() + 4L * postingCount;
+        }
+
+        long fileLength() {
+            return text() + textLength;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Cart;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for monetary amounts held as a {@code long} number of cents.
+ * Amounts are converted from {@code double} once, at the edge, with the same half-up
+ * rounding to two decimal places as {@link Product}; all arithmetic after that is exact
+ * integer arithmetic that fails on overflow rather than wrapping.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Converts a decimal amount to cents, rounding half-up to two decimal places.
+     *
+     * @throws IllegalArgumentException if the amount is not finite or its cents do not fit
+     *         in a long
+     */
+    public static long toCents(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("Amount must be a finite number");
+        }
+        try {
+            return BigDecimal.valueOf(amount).setScale(SCALE, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount is too large: " + amount, e);
+        }
+    }
+
+    /**
+     * Returns the double closest to the given number of cents.
+     */
+    public static double toDouble(long cents) {
+        return cents / 100.0;
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Returns the price of {@code quantity} units.
+     *
+     * @throws ArithmeticException if the result overflows a long
+     */
+    public static long multiply(long cents, int quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    /**
+     * @throws ArithmeticException if the result overflows a long
+     */
+    public static long add(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.Cart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index over lower-cased product names.
+ * Every indexed product gets a row in a product array, and every 1, 2 and 3 character gram
+ * of a name maps to a packed int array of the rows containing it, so short queries are
+ * answered straight from a posting list and longer queries only verify the rows under their
+ * rarest trigram. Grams are packed into a long so building the index does not allocate a
+ * substring per gram.
+ *
+ * <p>A row is never renumbered while the index is in use: removing a product or renaming
+ * it only clears its row, and queries skip cleared rows. Once more than half the rows are
+ * cleared, the index is rebuilt from the live ones. Changing only the price of a product
+ * reuses its row.
+ */
+class NameIndex {
+
+    static final int MAX_GRAM = 3;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MIN_REBUILD_ROWS = 1024;
+
+    private final Map<String, Integer> rowsBySku;
+    private final Map<Long, Postings> postings;
+    private Product[] products;
+    private String[] lowerCaseNames;
+    private int rows;
+    private int clearedRows;
+
+    NameIndex() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty index sized to hold the given number of products without growing.
+     */
+    NameIndex(int expectedProducts) {
+        this.rowsBySku = new HashMap<>(CatalogState.capacityFor(expectedProducts));
+        this.postings = new HashMap<>();
+        int capacity = Math.max(MIN_CAPACITY, expectedProducts);
+        this.products = new Product[capacity];
+        this.lowerCaseNames = new String[capacity];
+    }
+
+    NameIndex(NameIndex source) {
+        this.rowsBySku = new HashMap<>(source.rowsBySku);
+        this.postings = new HashMap<>(CatalogState.capacityFor(source.postings.size()));
+        source.postings.forEach((gram, rows) -> postings.put(gram, new Postings(rows)));
+        this.products = Arrays.copyOf(source.products, Math.max(MIN_CAPACITY, source.rows));
+        this.lowerCaseNames = Arrays.copyOf(source.lowerCaseNames, products.length);
+        this.rows = source.rows;
+        this.clearedRows = source.clearedRows;
+    }
+
+    /**
+     * Indexes a product, replacing the product with the same SKU. The replaced product keeps
+     * its row when the name is unchanged.
+     */
+    void add(Product product) {
+        String lowerCaseName = product.getName().toLowerCase();
+        Integer row = rowsBySku.get(product.getSku());
+        if (row != null) {
+            if (lowerCaseNames[row].equals(lowerCaseName)) {
+                products[row] = product;
+                return;
+            }
+            clear(row);
+        }
+        append(product, lowerCaseName);
+        rebuildIfSparse();
+    }
+
+    void remove(Product product) {
+        Integer row = rowsBySku.remove(product.getSku());
+        if (row != null) {
+            clear(row);
+            rebuildIfSparse();
+        }
+    }
+
+    /**
+     * Returns the products whose lower-cased name contains the given lower-cased term.
+     */
+    List<Product> search(String lowerCaseTerm) {
+        if (lowerCaseTerm.length() <= MAX_GRAM) {
+            Postings matching = postings.get(gram(lowerCaseTerm, 0, lowerCaseTerm.length()));
+            if (matching == null) {
+                return Collections.emptyList();
+            }
+            List<Product> matches = new ArrayList<>(matching.size);
+            for (int i = 0; i < matching.size; i++) {
+                Product product = products[matching.rows[i]];
+                if (product != null) {
+                    matches.add(product);
+                }
+            }
+            return matches;
+        }
+
+        Postings candidates = null;
+        for (int i = 0; i + MAX_GRAM <= lowerCaseTerm.length(); i++) {
+            Postings matching = postings.get(gram(lowerCaseTerm, i, MAX_GRAM));
+            if (matching == null) {
+                return Collections.emptyList();
+            }
+            if (candidates == null || matching.size < candidates.size) {
+                candidates = matching;
+            }
+        }
+
+        List<Product> matches = new ArrayList<>();
+        for (int i = 0; i < candidates.size; i++) {
+            int row = candidates.rows[i];
+            if (products[row] != null && lowerCaseNames[row].contains(lowerCaseTerm)) {
+                matches.add(products[row]);
+            }
+        }
+        return matches;
+    }
+
+    private void append(Product product, String lowerCaseName) {
+        if (rows == products.length) {
+            int capacity = products.length + (products.length >> 1);
+            products = Arrays.copyOf(products, capacity);
+            lowerCaseNames = Arrays.copyOf(lowerCaseNames, capacity);
+        }
+        int row = rows++;
+        products[row] = product;
+        lowerCaseNames[row] = lowerCaseName;
+        rowsBySku.put(product.getSku(), row);
+        for (long gram : grams(lowerCaseName)) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(row);
+        }
+    }
+
+    private void clear(int row) {
+        products[row] = null;
+        lowerCaseNames[row] = null;
+        clearedRows++;
+    }
+
+    /**
+     * Renumbers the live rows from zero once cleared rows make up more than half the index.
+     */
+    private void rebuildIfSparse() {
+        if (clearedRows < MIN_REBUILD_ROWS || clearedRows * 2 <= rows) {
+            return;
+        }
+        Product[] live = products;
+        String[] liveNames = lowerCaseNames;
+        int liveRows = rows;
+        rowsBySku.clear();
+        postings.clear();
+        products = new Product[Math.max(MIN_CAPACITY, liveRows - clearedRows)];
+        lowerCaseNames = new String[products.length];
+        rows = 0;
+        clearedRows = 0;
+        for (int row = 0; row < liveRows; row++) {
+            if (live[row] != null) {
+                append(live[row], liveNames[row]);
+            }
+        }
+    }
+
+    int getClearedRowCount() {
+        return clearedRows;
+    }
+
+    /**
+     * Returns the distinct packed grams of the given text.
+     */
+    static long[] grams(String text) {
+        int length = text.length();
+        long[] grams = new long[MAX_GRAM * length];
+        int count = 0;
+        for (int gramLength = 1; gramLength <= MAX_GRAM; gramLength++) {
+            for (int i = 0; i + gramLength <= length; i++) {
+                grams[count++] = gram(text, i, gramLength);
+            }
+        }
+        Arrays.sort(grams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Packs up to three chars and the gram length into one long.
+     */
+    static long gram(String text, int start, int length) {
+        long packed = length;
+        for (int i = start; i < start + length; i++) {
+            packed = (packed << 16) | text.charAt(i);
+        }
+        return packed;
+    }
+
+    /**
+     * The rows containing one gram, in ascending order.
+     */
+    private static final class Postings {
+        int[] rows;
+        int size;
+
+        Postings() {
+            this.rows = new int[2];
+        }
+
+        Postings(Postings source) {
+            this.rows = Arrays.copyOf(source.rows, source.size);
+            this.size = source.size;
+        }
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(2, size + (size >> 1)));
+            }
+            rows[size++] = row;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.Cart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A shared, never-changed base plus a map of the products one or more writes changed,
+ * so a thread-safe catalog can publish a write without copying every product. A deleted SKU
+ * maps to null.
+ *
+ * <p>The base may itself be an overlay: {@link #copy()} stacks a new, empty layer on the
+ * published one, so a write costs only the products it changes. Layers are merged like a
+ * binary counter whenever a layer is at least half the size of the one beneath it, which
+ * keeps the stack about log2(changes) deep and copies each change O(log) times. Once the
+ * bottom layer grows past a fraction of the base, it is folded into a fresh copy of the
+ * base, which costs O(N) but happens only once per that many changed SKUs.
+ *
+ * <p>Queries consult the changes first and fall back to the base. The first query on a
+ * layer indexes its changes by name and by price, so a query costs the same as on the
+ * base plus a lookup per layer rather than a scan of every changed product.
+ */
+final class OverlayCatalogState implements CatalogState {
+
+    private static final int MIN_COMPACTION_THRESHOLD = 4096;
+    private static final int COMPACTION_DIVISOR = 32;
+    private static final Comparator<Product> BY_PRICE_THEN_SKU =
+            Comparator.comparingLong(Product::getPriceInCents).thenComparing(Product::getSku);
+
+    private final CatalogView base;
+    private final Map<String, Product> changes;
+    private int sizeDelta;
+    private volatile ChangeIndex index;
+
+    OverlayCatalogState(CatalogView base) {
+        this(base, new HashMap<>(), 0);
+    }
+
+    private OverlayCatalogState(CatalogView base, Map<String, Product> changes, int sizeDelta) {
+        this.base = base;
+        this.changes = changes;
+        this.sizeDelta = sizeDelta;
+    }
+
+    @Override
+    public Product get(String sku) {
+        Product changed = changes.get(sku);
+        if (changed != null) {
+            return changed;
+        }
+        return changes.containsKey(sku) ? null : base.get(sku);
+    }
+
+    @Override
+    public boolean contains(String sku) {
+        Product changed = changes.get(sku);
+        if (changed != null) {
+            return true;
+        }
+        return !changes.containsKey(sku) && base.contains(sku);
+    }
+
+    @Override
+    public int size() {
+        return base.size() + sizeDelta;
+    }
+
+    @Override
+    public List<Product> products() {
+        if (changes.isEmpty()) {
+            return base.products();
+        }
+        List<Product> products = new ArrayList<>(size());
+        for (Product product : base.products()) {
+            if (!changes.containsKey(product.getSku())) {
+                products.add(product);
+            }
+        }
+        for (Product product : changes.values()) {
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public List<Product> findByName(String lowerCaseTerm) {
+        if (changes.isEmpty()) {
+            return base.findByName(lowerCaseTerm);
+        }
+        List<Product> matches = new ArrayList<>();
+        for (Product product : base.findByName(lowerCaseTerm)) {
+            if (!changes.containsKey(product.getSku())) {
+                matches.add(product);
+            }
+        }
+        matches.addAll(index().names.search(lowerCaseTerm));
+        return matches;
+    }
+
+    /**
+     * Merges this layer's changed products into the base's page. The page starts after
+     * {@code offset} matches, some of them changed products and the rest visible base
+     * products. One rank query on the base places the changed products that may come first
+     * and the base products this layer hides, so the base is asked only for the visible
+     * products of this page and the hidden ones among them.
+     */
+    @Override
+    public List<Product> findByPriceRange(long minCents, long maxCents, int offset, int limit, boolean descending) {
+        if (changes.isEmpty()) {
+            return base.findByPriceRange(minCents, maxCents, offset, limit, descending);
+        }
+        if (minCents > maxCents || limit == 0) {
+            return Collections.emptyList();
+        }
+        ChangeIndex index = index();
+        List<Product> changed = ChangeIndex.inRange(index.changedByPrice, minCents, maxCents, descending);
+        List<Product> hidden = ChangeIndex.inRange(index.hiddenByPrice, minCents, maxCents, descending);
+        Comparator<Product> order = descending ? BY_PRICE_THEN_SKU.reversed() : BY_PRICE_THEN_SKU;
+
+        // Only the first offset changed products can come before the page, and nothing after
+        // the changed product at offset + limit - 1 can be on it, so later hidden products
+        // need no rank.
+        int candidates = Math.min(changed.size(), offset);
+        int hiddenCandidates = (long) offset + limit <= changed.size()
+                ? countBefore(hidden, changed.get(offset + limit - 1), order) : hidden.size();
+        List<Product> ranked = new ArrayList<>(candidates + hiddenCandidates);
+        boolean[] isHidden = new boolean[candidates + hiddenCandidates];
+        for (int c = 0, h = 0; c < candidates || h < hiddenCandidates; ) {
+            if (h == hiddenCandidates || (c < candidates && order.compare(changed.get(c), hidden.get(h)) <= 0)) {
+                ranked.add(changed.get(c++));
+            } else {
+                isHidden[ranked.size()] = true;
+                ranked.add(hidden.get(h++));
+            }
+        }
+        int[] ranks = base.rankByPrice(minCents, maxCents, ranked, descending);
+
+        // The i-th changed product has i changed products and its base rank less the hidden
+        // products ahead of it; the k-th hidden product has its base rank less k visible ones.
+        int changedSkipped = 0;
+        for (int t = 0, c = 0, h = 0; t < ranks.length; t++) {
+            if (isHidden[t]) {
+                h++;
+            } else if (c++ + ranks[t] - h < offset) {
+                changedSkipped = c;
+            }
+        }
+        int visibleSkipped = offset - changedSkipped;
+        long lastVisible = (long) visibleSkipped + limit - 1;
+        int hiddenSkipped = 0;
+        int hiddenInPage = 0;
+        for (int t = 0, h = 0; t < ranks.length; t++) {
+            if (isHidden[t]) {
+                int visibleAhead = ranks[t] - h++;
+                hiddenSkipped += visibleAhead <= visibleSkipped ? 1 : 0;
+                hiddenInPage += visibleAhead <= lastVisible ? 1 : 0;
+            }
+        }
+        // Unranked hidden products can only sit between the page's last changed product and
+        // the first visible base product after it, so the window then starts on them and
+        // they are skipped with the other hidden products below.
+        int baseLimit = (int) Math.min(Integer.MAX_VALUE, (long) limit + hiddenInPage - hiddenSkipped);
+        List<Product> fromBase = base.findByPriceRange(minCents, maxCents, visibleSkipped + hiddenSkipped,
+                baseLimit, descending);
+
+        List<Product> page = new ArrayList<>(Math.min(limit, fromBase.size() + changed.size() - changedSkipped));
+        int b = 0;
+        int c = changedSkipped;
+        while (page.size() < limit) {
+            while (b < fromBase.size() && changes.containsKey(fromBase.get(b).getSku())) {
+                b++;
+            }
+            boolean baseLeft = b < fromBase.size();
+            boolean changedLeft = c < changed.size();
+            if (!baseLeft && !changedLeft) {
+                break;
+            }
+            if (!changedLeft || (baseLeft && order.compare(fromBase.get(b), changed.get(c)) < 0)) {
+                page.add(fromBase.get(b++));
+            } else {
+                page.add(changed.get(c++));
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public int[] rankByPrice(long minCents, long maxCents, List<Product> products, boolean descending) {
+        int[] ranks = base.rankByPrice(minCents, maxCents, products, descending);
+        if (changes.isEmpty() || minCents > maxCents) {
+            return ranks;
+        }
+        ChangeIndex index = index();
+        List<Product> changed = ChangeIndex.inRange(index.changedByPrice, minCents, maxCents, descending);
+        List<Product> hidden = ChangeIndex.inRange(index.hiddenByPrice, minCents, maxCents, descending);
+        Comparator<Product> order = descending ? BY_PRICE_THEN_SKU.reversed() : BY_PRICE_THEN_SKU;
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] += countBefore(changed, products.get(i), order) - countBefore(hidden, products.get(i), order);
+        }
+        return ranks;
+    }
+
+    private static int countBefore(List<Product> sorted, Product product, Comparator<Product> order) {
+        int position = Collections.binarySearch(sorted, product, order);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private ChangeIndex index() {
+        ChangeIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = new ChangeIndex(base, changes);
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public void put(Product product) {
+        index = null;
+        if (!contains(product.getSku())) {
+            sizeDelta++;
+        }
+        changes.put(product.getSku(), product);
+    }
+
+    @Override
+    public boolean remove(String sku) {
+        if (!contains(sku)) {
+            return false;
+        }
+        index = null;
+        if (base.contains(sku)) {
+            changes.put(sku, null);
+        } else {
+            changes.remove(sku);
+        }
+        sizeDelta--;
+        return true;
+    }
+
+    /**
+     * Returns an empty layer over this one, after merging layers that have grown too close
+     * in size and, once the changes have grown too large, folding them into a copy of the
+     * base. This state must not be changed afterwards.
+     */
+    @Override
+    public OverlayCatalogState copy() {
+        if (changes.isEmpty()) {
+            return new OverlayCatalogState(base);
+        }
+        OverlayCatalogState top = this;
+        while (top.base instanceof OverlayCatalogState below && top.changes.size() * 2 >= below.changes.size()) {
+            top = below.mergedWith(top);
+        }
+        if (!(top.base instanceof OverlayCatalogState)
+                && top.changes.size() > Math.max(MIN_COMPACTION_THRESHOLD, top.base.size() / COMPACTION_DIVISOR)) {
+            return new OverlayCatalogState(top.compact());
+        }
+        return new OverlayCatalogState(top);
+    }
+
+    /**
+     * Returns one layer over this layer's base holding this layer's changes followed by
+     * the newer layer's.
+     */
+    private OverlayCatalogState mergedWith(OverlayCatalogState newer) {
+        Map<String, Product> merged = new HashMap<>(CatalogState.capacityFor(changes.size() + newer.changes.size()));
+        merged.putAll(changes);
+        newer.changes.forEach((sku, product) -> {
+            if (product == null && !base.contains(sku)) {
+                merged.remove(sku);
+            } else {
+                merged.put(sku, product);
+            }
+        });
+        return new OverlayCatalogState(base, merged, sizeDelta + newer.sizeDelta);
+    }
+
+    private CatalogState compact() {
+        CatalogState compacted = base.copy();
+        changes.forEach((sku, product) -> {
+            if (product == null) {
+                compacted.remove(sku);
+            } else {
+                compacted.put(product);
+            }
+        });
+        return compacted;
+    }
+
+    int getChangeCount() {
+        return changes.size();
+    }
+
+    int getDepth() {
+        return base instanceof OverlayCatalogState below ? below.getDepth() + 1 : 1;
+    }
+
+    /**
+     * A layer's changes indexed for queries: the changed products by name and in price order,
+     * and the base products they replace or delete in price order.
+     */
+    private static final class ChangeIndex {
+
+        final NameIndex names;
+        final Product[] changedByPrice;
+        final Product[] hiddenByPrice;
+
+        ChangeIndex(CatalogView base, Map<String, Product> changes) {
+            this.names = new NameIndex(changes.size());
+            List<Product> changed = new ArrayList<>(changes.size());
+            List<Product> hidden = new ArrayList<>(changes.size());
+            changes.forEach((sku, product) -> {
+                if (product != null) {
+                    changed.add(product);
+                    names.add(product);
+                }
+                Product replaced = base.get(sku);
+                if (replaced != null) {
+                    hidden.add(replaced);
+                }
+            });
+            this.changedByPrice = changed.toArray(new Product[0]);
+            this.hiddenByPrice = hidden.toArray(new Product[0]);
+            Arrays.sort(changedByPrice, BY_PRICE_THEN_SKU);
+            Arrays.sort(hiddenByPrice, BY_PRICE_THEN_SKU);
+        }
+
+        /**
+         * Returns the products priced between the given bounds, in the requested order.
+         */
+        static List<Product> inRange(Product[] byPrice, long minCents, long maxCents, boolean descending) {
+            int from = firstPricedAtLeast(byPrice, minCents);
+            int to = maxCents == Long.MAX_VALUE ? byPrice.length : firstPricedAtLeast(byPrice, maxCents + 1);
+            List<Product> range = Arrays.asList(byPrice).subList(from, Math.max(from, to));
+            return descending ? range.reversed() : range;
+        }
+
+        private static int firstPricedAtLeast(Product[] byPrice, long cents) {
+            int low = 0;
+            int high = byPrice.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (byPrice[mid].getPriceInCents() < cents) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.Cart;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Sorted index of catalog products keyed on price in cents.
+ * Products sharing a price are kept in SKU order so paging is stable.
+ */
+class PriceIndex {
+
+    private final NavigableMap<Long, NavigableMap<String, Product>> byPrice;
+
+    PriceIndex() {
+        this.byPrice = new TreeMap<>();
+    }
+
+    PriceIndex(PriceIndex source) {
+        this.byPrice = new TreeMap<>();
+        source.byPrice.forEach((cents, bucket) -> byPrice.put(cents, new TreeMap<>(bucket)));
+    }
+
+    void add(Product product) {
+        byPrice.computeIfAbsent(product.getPriceInCents(), cents -> new TreeMap<>())
+                .put(product.getSku(), product);
+    }
+
+    void remove(Product product) {
+        long cents = product.getPriceInCents();
+        NavigableMap<String, Product> bucket = byPrice.get(cents);
+        if (bucket == null) {
+            return;
+        }
+        bucket.remove(product.getSku());
+        if (bucket.isEmpty()) {
+            byPrice.remove(cents);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products priced between the given bounds (inclusive),
+     * skipping the first {@code offset} matches in the requested order.
+     */
+    List<Product> range(long minCents, long maxCents, int offset, int limit, boolean descending) {
+        if (minCents > maxCents) {
+            return Collections.emptyList();
+        }
+        NavigableMap<Long, NavigableMap<String, Product>> view = byPrice.subMap(minCents, true, maxCents, true);
+        if (descending) {
+            view = view.descendingMap();
+        }
+
+        List<Product> result = new ArrayList<>();
+        int toSkip = offset;
+        for (NavigableMap<String, Product> bucket : view.values()) {
+            if (toSkip >= bucket.size()) {
+                toSkip -= bucket.size();
+                continue;
+            }
+            Map<String, Product> ordered = descending ? bucket.descendingMap() : bucket;
+            for (Product product : ordered.values()) {
+                if (toSkip > 0) {
+                    toSkip--;
+                    continue;
+                }
+                result.add(product);
+                if (result.size() == limit) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns, for each of the given products in the requested order, how many products
+     * priced between the given bounds (inclusive) come before it. One walk over the price
+     * buckets answers all of them.
+     */
+    int[] rank(long minCents, long maxCents, List<Product> products, boolean descending) {
+        int[] ranks = new int[products.size()];
+        if (minCents > maxCents) {
+            return ranks;
+        }
+        NavigableMap<Long, NavigableMap<String, Product>> view = byPrice.subMap(minCents, true, maxCents, true);
+        if (descending) {
+            view = view.descendingMap();
+        }
+
+        Iterator<Map.Entry<Long, NavigableMap<String, Product>>> buckets = view.entrySet().iterator();
+        Map.Entry<Long, NavigableMap<String, Product>> bucket = buckets.hasNext() ? buckets.next() : null;
+        int passed = 0;
+        for (int i = 0; i < ranks.length; i++) {
+            Product product = products.get(i);
+            long cents = product.getPriceInCents();
+            while (bucket != null && (descending ? bucket.getKey() > cents : bucket.getKey() < cents)) {
+                passed += bucket.getValue().size();
+                bucket = buckets.hasNext() ? buckets.next() : null;
+            }
+            ranks[i] = passed;
+            if (bucket != null && bucket.getKey() == cents) {
+                NavigableMap<String, Product> skus = bucket.getValue();
+                ranks[i] += (descending ? skus.tailMap(product.getSku(), false) : skus.headMap(product.getSku(), false)).size();
+            }
+        }
+        return ranks;
+    }
+}
@@ -1,18 +1,33 @@
 package com.example.Cart;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Objects;
 
 public class Product {
     private final String sku;
     private final String name;
-    private final BigDecimal price;
+    private final long priceInCents;
 
     public Product(String sku, String name, double price) {
         this.sku = validateSku(sku);
         this.name = validateName(name);
-        this.price = validatePrice(price);
+        this.priceInCents = validatePrice(price);
+    }
+
+    private Product(String sku, String name, long priceInCents) {
+        this.sku = validateSku(sku);
+        this.name = validateName(name);
+        if (priceInCents < 0) {
+            throw new IllegalArgumentException("Product price cannot be negative");
+        }
+        this.priceInCents = priceInCents;
+    }
+
+    /**
+     * Creates a product whose price is given in cents, avoiding a round trip through double.
+     */
+    public static Product ofCents(String sku, String name, long priceInCents) {
+        return new Product(sku, name, priceInCents);
     }
 
     private String validateSku(String sku) {
@@ -29,11 +44,11 @@ public class Product {
         return name.trim();
     }
 
-    private BigDecimal validatePrice(double price) {
+    private long validatePrice(double price) {
         if (price < 0) {
             throw new IllegalArgumentException("Product price cannot be negative");
         }
-        return BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP);
+        return Money.toCents(price);
     }
 
     public String getSku() {
@@ -45,11 +60,15 @@ public class Product {
     }
 
     public double getPrice() {
-        return price.doubleValue();
+        return Money.toDouble(priceInCents);
     }
 
     public BigDecimal getPriceAsBigDecimal() {
-        return price;
+        return Money.toBigDecimal(priceInCents);
+    }
+
+    public long getPriceInCents() {
+        return priceInCents;
     }
 
     @Override
@@ -68,6 +87,6 @@ public class Product {
     @Override
     public String toString() {
         return String.format("Product{sku='%s', name='%s', price=$%.2f}",
-                sku, name, price.doubleValue());
+                sku, name, Money.toDouble(priceInCents));
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.Cart;
+
+import java.time.Duration;
+
+/**
+ * What one repricing sweep of {@link CartRegistry} did: how many carts held one of the
+ * changed SKUs, how many of them and how many of their lines got a new price, and how long
+ * the sweep took.
+ */
+public final class RepricingResult {
+
+    private final int skus;
+    private final int cartsVisited;
+    private final int cartsChanged;
+    private final int linesChanged;
+    private final Duration duration;
+
+    RepricingResult(int skus, int cartsVisited, int cartsChanged, int linesChanged, Duration duration) {
+        this.skus = skus;
+        this.cartsVisited = cartsVisited;
+        this.cartsChanged = cartsChanged;
+        this.linesChanged = linesChanged;
+        this.duration = duration;
+    }
+
+    /**
+     * Returns the number of changed SKUs the sweep was asked to apply.
+     */
+    public int getSkuCount() {
+        return skus;
+    }
+
+    /**
+     * Returns the number of live carts found through the SKU index.
+     */
+    public int getCartsVisited() {
+        return cartsVisited;
+    }
+
+    public int getCartsChanged() {
+        return cartsChanged;
+    }
+
+    public int getLinesChanged() {
+        return linesChanged;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RepricingResult{skus=%d, cartsVisited=%d, cartsChanged=%d, linesChanged=%d, duration=%s}",
+                skus, cartsVisited, cartsChanged, linesChanged, duration);
+    }
+}
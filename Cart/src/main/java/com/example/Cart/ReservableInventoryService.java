@@ -0,0 +1,38 @@
+package com.example.Cart;
+
+import java.time.Duration;
+
+/**
+ * Inventory service that can hold stock for a cart instead of only reporting it.
+ * A reservation takes its quantity out of {@link #getAvailable(String)} immediately, so
+ * two carts can never both be granted the same last units.
+ */
+public interface ReservableInventoryService extends InventoryService {
+
+    /**
+     * Atomically takes the given quantity out of available inventory.
+     *
+     * @param sku the product SKU to reserve
+     * @param quantity the quantity to hold
+     * @param ttl how long the hold lasts before it is released automatically
+     * @return the reservation, to be committed or released later
+     * @throws InsufficientInventoryException if less than {@code quantity} is available
+     */
+    Reservation reserve(String sku, int quantity, Duration ttl);
+
+    /**
+     * Returns a reservation's quantity to available inventory.
+     *
+     * @return true if the reservation was still held, false if it was already committed,
+     *         released or expired
+     */
+    boolean release(Reservation reservation);
+
+    /**
+     * Makes a reservation permanent, e.g. at checkout. The quantity stays out of inventory.
+     *
+     * @return true if the reservation was still held, false if it was already committed,
+     *         released or expired
+     */
+    boolean commit(Reservation reservation);
+}
@@ -0,0 +1,51 @@
+package com.example.Cart;
+
+import java.time.Instant;
+
+/**
+ * A quantity of one SKU held for a cart until it is committed, released or expires.
+ */
+public final class Reservation {
+
+    private final long id;
+    private final String sku;
+    private final int quantity;
+    private final Instant expiresAt;
+
+    public Reservation(long id, String sku, int quantity, Instant expiresAt) {
+        if (sku == null) {
+            throw new IllegalArgumentException("SKU cannot be null");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        if (expiresAt == null) {
+            throw new IllegalArgumentException("Expiry cannot be null");
+        }
+        this.id = id;
+        this.sku = sku;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Reservation{id=%d, sku='%s', quantity=%d, expiresAt=%s}", id, sku, quantity, expiresAt);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.Cart;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A fixed, sorted list of SKUs that {@link SnapshotCodec} writes as small integer codes
+ * instead of strings. Two dictionaries built from the same SKUs have the same codes and
+ * the same {@link #fingerprint()}, whatever order the SKUs were given in, so nodes that
+ * load the same catalog can read each other's carts.
+ */
+public final class SkuDictionary {
+
+    private static final SkuDictionary EMPTY = new SkuDictionary(new String[0]);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String[] skus;
+    private final Map<String, Integer> codes;
+    private final long fingerprint;
+
+    private SkuDictionary(String[] skus) {
+        this.skus = skus;
+        this.codes = new HashMap<>(skus.length * 2);
+        for (int i = 0; i < skus.length; i++) {
+            codes.put(skus[i], i);
+        }
+        this.fingerprint = fingerprint(skus);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes of the SKUs in order, each followed by 0xFF, which
+     * never occurs in UTF-8, so that no two different SKU lists hash the same bytes.
+     */
+    private static long fingerprint(String[] skus) {
+        long hash = FNV_OFFSET_BASIS;
+        for (String sku : skus) {
+            for (byte b : sku.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+            }
+            hash = (hash ^ 0xFF) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a dictionary with no SKUs; every SKU is then written in full.
+     */
+    public static SkuDictionary empty() {
+        return EMPTY;
+    }
+
+    public static SkuDictionary of(Collection<String> skus) {
+        if (skus == null) {
+            throw new IllegalArgumentException("SKUs cannot be null");
+        }
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String sku : skus) {
+            if (sku == null || sku.isEmpty()) {
+                throw new IllegalArgumentException("SKU cannot be null or empty");
+            }
+            sorted.add(sku);
+        }
+        return new SkuDictionary(sorted.toArray(new String[0]));
+    }
+
+    /**
+     * Builds a dictionary of every SKU currently in the catalog.
+     */
+    public static SkuDictionary of(Catalog catalog) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        return of(catalog.getAllProducts().stream().map(Product::getSku).toList());
+    }
+
+    /**
+     * Returns the code of a SKU, or -1 if it is not in the dictionary.
+     */
+    public int codeOf(String sku) {
+        Integer code = codes.get(sku);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Returns the SKU for a code.
+     *
+     * @throws IllegalArgumentException if there is no such code
+     */
+    public String skuOf(int code) {
+        if (code < 0 || code >= skus.length) {
+            throw new IllegalArgumentException("Unknown SKU code " + code);
+        }
+        return skus[code];
+    }
+
+    public int size() {
+        return skus.length;
+    }
+
+    /**
+     * Returns a 64-bit hash of the SKUs and their order, written into every encoded value so
+     * that a reader with a different dictionary fails instead of decoding the wrong SKUs.
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+}
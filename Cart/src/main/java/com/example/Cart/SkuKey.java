@@ -0,0 +1,47 @@
+package com.example.Cart;
+
+/**
+ * Canonical (trimmed) form of a SKU, created once where a SKU enters the system.
+ * Catalog lookups by key skip the trimming and validation done for raw strings.
+ */
+public final class SkuKey {
+
+    private final String value;
+
+    private SkuKey(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Creates a key from a raw SKU, trimming surrounding whitespace.
+     *
+     * @throws IllegalArgumentException if the SKU is null or blank
+     */
+    public static SkuKey of(String sku) {
+        if (sku == null || sku.trim().isEmpty()) {
+            throw new IllegalArgumentException("SKU cannot be null or empty");
+        }
+        return new SkuKey(sku.trim());
+    }
+
+    public String value() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return value.equals(((SkuKey) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.Cart;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact binary encoding of cart snapshots and catalog products, written straight to and
+ * read straight from a {@link ByteBuffer}, e.g. for session replication or caching.
+ *
+ * <p>Every value starts with a header: a magic byte, the format version, the kind of
+ * value and the fingerprint of the {@link SkuDictionary} it was written with. After that:
+ * <ul>
+ *   <li>a cart is its version and line count, then per line the SKU, quantity and unit
+ *       price in cents</li>
+ *   <li>a product list is its count, then per product the SKU, name and price in cents</li>
+ * </ul>
+ * Counts, quantities, versions and prices are unsigned varints, so small values take one
+ * byte. A SKU in the dictionary is written as its code plus one; any other SKU as a zero
+ * followed by its UTF-8 bytes. Readers reject values from another format version, from a
+ * different dictionary, or cut short.
+ *
+ * <p>Encoding allocates nothing for ASCII strings, and decoding allocates only the lines,
+ * products and SKUs outside the dictionary. A codec is immutable and thread-safe.
+ */
+public final class SnapshotCodec {
+
+    public static final int FORMAT_VERSION = 2;
+
+    private static final byte MAGIC = (byte) 0xCA;
+    private static final byte CART = 1;
+    private static final byte PRODUCTS = 2;
+    private static final int HEADER_SIZE = 3 + Long.BYTES;
+    // Smallest encoding of a line or product: one byte for each field.
+    private static final int MIN_ENTRY_SIZE = 3;
+
+    private final SkuDictionary dictionary;
+
+    public SnapshotCodec(SkuDictionary dictionary) {
+        if (dictionary == null) {
+            throw new IllegalArgumentException("SkuDictionary cannot be null");
+        }
+        this.dictionary = dictionary;
+    }
+
+    public SkuDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Writes a cart snapshot at the buffer's position, advancing it.
+     *
+     * @throws java.nio.BufferOverflowException if fewer than {@link #encodedSize(CartSnapshot)}
+     *         bytes remain; the buffer's position is then undefined
+     */
+    public void encode(CartSnapshot snapshot, ByteBuffer out) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null");
+        }
+        putHeader(out, CART);
+        putVarLong(out, snapshot.getVersion());
+        putVarLong(out, snapshot.size());
+        snapshot.forEach(line -> {
+            putSku(out, line.getSku());
+            putVarLong(out, line.getQuantity());
+            putVarLong(out, line.getPriceInCents());
+        });
+    }
+
+    /**
+     * Reads a cart snapshot from the buffer's position, advancing it.
+     *
+     * @throws IllegalArgumentException if the bytes are not a cart in a supported format
+     *         written with this codec's dictionary
+     */
+    public CartSnapshot decodeCart(ByteBuffer in) {
+        checkHeader(in, CART);
+        try {
+            long version = getVarLong(in);
+            int count = getCount(in);
+            CartLine[] lines = new CartLine[count];
+            for (int i = 0; i < count; i++) {
+                lines[i] = new CartLine(getSku(in), getInt(in), getVarLong(in));
+            }
+            return CartSnapshot.ofSorted(lines, count, version);
+        } catch (BufferUnderflowException e) {
+            throw truncated(e);
+        }
+    }
+
+    /**
+     * Returns the exact number of bytes {@link #encode(CartSnapshot, ByteBuffer)} writes.
+     */
+    public int encodedSize(CartSnapshot snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null");
+        }
+        int[] size = {HEADER_SIZE + varLongSize(snapshot.getVersion()) + varLongSize(snapshot.size())};
+        snapshot.forEach(line -> size[0] += skuSize(line.getSku()) + varLongSize(line.getQuantity())
+                + varLongSize(line.getPriceInCents()));
+        return size[0];
+    }
+
+    /**
+     * Writes a list of products at the buffer's position, advancing it.
+     *
+     * @throws java.nio.BufferOverflowException if fewer than {@link #encodedSize(Collection)}
+     *         bytes remain; the buffer's position is then undefined
+     */
+    public void encode(Collection<Product> products, ByteBuffer out) {
+        if (products == null) {
+            throw new IllegalArgumentException("Products cannot be null");
+        }
+        putHeader(out, PRODUCTS);
+        putVarLong(out, products.size());
+        for (Product product : products) {
+            putSku(out, product.getSku());
+            putString(out, product.getName());
+            putVarLong(out, product.getPriceInCents());
+        }
+    }
+
+    /**
+     * Reads a list of products from the buffer's position, advancing it.
+     *
+     * @throws IllegalArgumentException if the bytes are not a product list in a supported
+     *         format written with this codec's dictionary
+     */
+    public List<Product> decodeProducts(ByteBuffer in) {
+        checkHeader(in, PRODUCTS);
+        try {
+            int count = getCount(in);
+            List<Product> products = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String sku = getSku(in);
+                String name = getString(in);
+                products.add(Product.ofCents(sku, name, getVarLong(in)));
+            }
+            return products;
+        } catch (BufferUnderflowException e) {
+            throw truncated(e);
+        }
+    }
+
+    /**
+     * Returns the exact number of bytes {@link #encode(Collection, ByteBuffer)} writes.
+     */
+    public int encodedSize(Collection<Product> products) {
+        if (products == null) {
+            throw new IllegalArgumentException("Products cannot be null");
+        }
+        int size = HEADER_SIZE + varLongSize(products.size());
+        for (Product product : products) {
+            size += skuSize(product.getSku()) + stringSize(product.getName())
+                    + varLongSize(product.getPriceInCents());
+        }
+        return size;
+    }
+
+    // ---- header ----
+
+    private void putHeader(ByteBuffer out, byte kind) {
+        out.put(MAGIC);
+        out.put((byte) FORMAT_VERSION);
+        out.put(kind);
+        out.putLong(dictionary.fingerprint());
+    }
+
+    private void checkHeader(ByteBuffer in, byte kind) {
+        if (in.remaining() < HEADER_SIZE || in.get() != MAGIC) {
+            throw new IllegalArgumentException("Not an encoded cart or product list");
+        }
+        int version = in.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported format version " + version);
+        }
+        byte actualKind = in.get();
+        if (actualKind != kind) {
+            throw new IllegalArgumentException("Expected value kind " + kind + " but found " + actualKind);
+        }
+        if (in.getLong() != dictionary.fingerprint()) {
+            throw new IllegalArgumentException("Value was written with a different SKU dictionary");
+        }
+    }
+
+    private static IllegalArgumentException truncated(BufferUnderflowException cause) {
+        return new IllegalArgumentException("Encoded value is truncated", cause);
+    }
+
+    private static int getCount(ByteBuffer in) {
+        long count = getVarLong(in);
+        if (count > in.remaining() / MIN_ENTRY_SIZE) {
+            throw new IllegalArgumentException("Count " + count + " exceeds the remaining bytes");
+        }
+        return (int) count;
+    }
+
+    // ---- SKUs and strings ----
+
+    private void putSku(ByteBuffer out, String sku) {
+        int code = dictionary.codeOf(sku);
+        if (code >= 0) {
+            putVarLong(out, code + 1L);
+        } else {
+            out.put((byte) 0);
+            putString(out, sku);
+        }
+    }
+
+    private String getSku(ByteBuffer in) {
+        long code = getVarLong(in);
+        if (code == 0) {
+            return getString(in);
+        }
+        if (code > dictionary.size()) {
+            throw new IllegalArgumentException("Unknown SKU code " + (code - 1));
+        }
+        return dictionary.skuOf((int) code - 1);
+    }
+
+    private int skuSize(String sku) {
+        int code = dictionary.codeOf(sku);
+        return code >= 0 ? varLongSize(code + 1L) : 1 + stringSize(sku);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (isAscii(value)) {
+            int length = value.length();
+            putVarLong(out, length);
+            for (int i = 0; i < length; i++) {
+                out.put((byte) value.charAt(i));
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarLong(out, bytes.length);
+            out.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        long length = getVarLong(in);
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("String length " + length + " exceeds the remaining bytes");
+        }
+        int size = (int) length;
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), size, StandardCharsets.UTF_8);
+            in.position(in.position() + size);
+            return value;
+        }
+        byte[] bytes = new byte[size];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int stringSize(String value) {
+        int length = isAscii(value) ? value.length() : value.getBytes(StandardCharsets.UTF_8).length;
+        return varLongSize(length) + length;
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ---- unsigned LEB128 varints ----
+
+    private static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int getInt(ByteBuffer in) {
+        long value = getVarLong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Value " + value + " does not fit in an int");
+        }
+        return (int) value;
+    }
+
+    private static int varLongSize(long value) {
+        int bits = Long.SIZE - Long.numberOfLeadingZeros(value | 1);
+        return (bits + 6) / 7;
+    }
+}
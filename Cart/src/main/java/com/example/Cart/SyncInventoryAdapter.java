@@ -0,0 +1,29 @@
+package com.example.Cart;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs a synchronous {@link InventoryService} behind the {@link AsyncInventoryService}
+ * contract. A blocked lookup only parks its executor thread, which with the default
+ * virtual-thread executor costs no platform thread.
+ */
+final class SyncInventoryAdapter implements AsyncInventoryService {
+
+    static final ExecutorService VIRTUAL_THREADS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final InventoryService delegate;
+    private final Executor executor;
+
+    SyncInventoryAdapter(InventoryService delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Integer> getAvailableAsync(String sku) {
+        return CompletableFuture.supplyAsync(() -> delegate.getAvailable(sku), executor);
+    }
+}
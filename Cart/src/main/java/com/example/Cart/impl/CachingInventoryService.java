@@ -0,0 +1,303 @@
+package com.example.Cart.impl;
+
+import com.example.Cart.InventoryChangeListener;
+import com.example.Cart.InventoryService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache in front of another InventoryService.
+ * Entries expire after a fixed time-to-live and the cache holds at most a fixed number of
+ * SKUs, evicting the least recently used one when full. When a refresh interval is set,
+ * a hit on an entry older than that interval returns the cached value and reloads it in
+ * the background, so hot SKUs never wait for the backend.
+ *
+ * <p>The cache is split into independently locked segments so that threads working on
+ * different SKUs rarely contend. Register it with
+ * {@link SimpleInventoryService#addChangeListener(InventoryChangeListener)}, or call
+ * {@link #invalidate(String)} directly, to drop entries when inventory changes.
+ */
+public class CachingInventoryService implements InventoryService, InventoryChangeListener {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final InventoryService delegate;
+    private final long ttlMillis;
+    private final long refreshAfterMillis;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    /**
+     * Creates a cache without refresh-ahead.
+     */
+    public CachingInventoryService(InventoryService delegate, int maximumSize, Duration ttl) {
+        this(delegate, maximumSize, ttl, null, null, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a cache that reloads entries in the background once they are older than
+     * {@code refreshAfter}.
+     *
+     * @param delegate the inventory source to cache
+     * @param maximumSize the maximum number of SKUs to keep
+     * @param ttl how long an entry may be served before it must be reloaded
+     * @param refreshAfter age after which a hit triggers a background reload, or null to disable
+     * @param refreshExecutor runs background reloads; required when refreshAfter is set
+     * @param clock time source for entry ages
+     */
+    public CachingInventoryService(InventoryService delegate, int maximumSize, Duration ttl,
+                                   Duration refreshAfter, Executor refreshExecutor, Clock clock) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate InventoryService cannot be null");
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be greater than 0");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        if (refreshAfter != null && (refreshAfter.isNegative() || refreshAfter.compareTo(ttl) >= 0)) {
+            throw new IllegalArgumentException("Refresh interval must be between zero and the TTL");
+        }
+        if (refreshAfter != null && refreshExecutor == null) {
+            throw new IllegalArgumentException("Refresh executor is required when refresh is enabled");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.delegate = delegate;
+        this.ttlMillis = ttl.toMillis();
+        this.refreshAfterMillis = refreshAfter == null ? Long.MAX_VALUE : refreshAfter.toMillis();
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+
+        int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumSize));
+        this.segments = new Segment[segmentCount];
+        int perSegment = maximumSize / segmentCount;
+        int remainder = maximumSize % segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(perSegment + (i < remainder ? 1 : 0));
+        }
+    }
+
+    @Override
+    public int getAvailable(String sku) {
+        Segment segment = segmentFor(sku);
+        long now = clock.millis();
+        Entry entry = segment.get(sku);
+        if (entry != null && now - entry.loadedAt < ttlMillis) {
+            hits.increment();
+            if (now - entry.loadedAt >= refreshAfterMillis && entry.refreshing.compareAndSet(false, true)) {
+                scheduleRefresh(segment, sku, entry);
+            }
+            return entry.available;
+        }
+
+        misses.increment();
+        long generation = segment.generation();
+        int available = delegate.getAvailable(sku);
+        segment.putIfCurrent(sku, new Entry(available, now), generation);
+        return available;
+    }
+
+    /**
+     * Serves cached SKUs and loads all the others from the delegate in one batch call.
+     */
+    @Override
+    public Map<String, Integer> getAvailable(Collection<String> skus) {
+        long now = clock.millis();
+        Map<String, Integer> available = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String sku : skus) {
+            Entry entry = segmentFor(sku).get(sku);
+            if (entry != null && now - entry.loadedAt < ttlMillis) {
+                hits.increment();
+                available.put(sku, entry.available);
+            } else if (!available.containsKey(sku)) {
+                available.put(sku, null);
+                missing.add(sku);
+            }
+        }
+        if (missing.isEmpty()) {
+            return available;
+        }
+
+        misses.add(missing.size());
+        long[] generations = new long[missing.size()];
+        for (int i = 0; i < missing.size(); i++) {
+            generations[i] = segmentFor(missing.get(i)).generation();
+        }
+        Map<String, Integer> loaded = delegate.getAvailable(missing);
+        for (int i = 0; i < missing.size(); i++) {
+            String sku = missing.get(i);
+            int quantity = loaded.getOrDefault(sku, 0);
+            available.put(sku, quantity);
+            segmentFor(sku).putIfCurrent(sku, new Entry(quantity, now), generations[i]);
+        }
+        return available;
+    }
+
+    private void scheduleRefresh(Segment segment, String sku, Entry stale) {
+        long generation = segment.generation();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    int available = delegate.getAvailable(sku);
+                    if (segment.replace(sku, stale, new Entry(available, clock.millis()), generation)) {
+                        refreshes.increment();
+                    }
+                } finally {
+                    stale.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The executor is saturated or shut down: keep serving the cached quantity and let
+            // a later hit try again.
+            stale.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Drops the cached quantity for a SKU. Loads already in flight for it are discarded.
+     */
+    public void invalidate(String sku) {
+        segmentFor(sku).invalidate(sku);
+    }
+
+    /**
+     * Drops every cached quantity.
+     */
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.invalidateAll();
+        }
+    }
+
+    @Override
+    public void onInventoryChanged(String sku) {
+        invalidate(sku);
+    }
+
+    @Override
+    public void onInventoryCleared() {
+        invalidateAll();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Returns the number of SKUs currently cached, including expired entries not yet evicted.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(String sku) {
+        int hash = sku == null ? 0 : sku.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static final class Entry {
+        final int available;
+        final long loadedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(int available, long loadedAt) {
+            this.available = available;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * An LRU map guarded by its own lock. The generation counter is bumped on every
+     * invalidation so that a load started before it cannot store a stale value afterwards.
+     */
+    private final class Segment {
+        private final LinkedHashMap<String, Entry> entries;
+        private long generation;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized Entry get(String sku) {
+            return entries.get(sku);
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized void putIfCurrent(String sku, Entry entry, long expectedGeneration) {
+            if (generation == expectedGeneration) {
+                entries.put(sku, entry);
+            }
+        }
+
+        synchronized boolean replace(String sku, Entry expected, Entry entry, long expectedGeneration) {
+            if (generation != expectedGeneration || entries.get(sku) != expected) {
+                return false;
+            }
+            entries.put(sku, entry);
+            return true;
+        }
+
+        synchronized void invalidate(String sku) {
+            generation++;
+            entries.remove(sku);
+        }
+
+        synchronized void invalidateAll() {
+            generation++;
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.Cart.impl;
+
+import com.example.Cart.InsufficientInventoryException;
+import com.example.Cart.InventoryChangeListener;
+import com.example.Cart.InventoryService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe in-memory implementation of InventoryService.
+ * Each SKU owns a primitive counter that is updated with compare-and-set, so there is no
+ * global lock: checkouts of different SKUs never contend, and concurrent decrements of the
+ * same SKU never lose updates. Unlike {@link SimpleInventoryService}, a decrease that
+ * exceeds the available quantity fails instead of clamping at zero.
+ */
+public class ConcurrentInventoryService implements InventoryService {
+
+    private final Map<String, AtomicInteger> inventory;
+    private final List<InventoryChangeListener> listeners;
+
+    public ConcurrentInventoryService() {
+        this.inventory = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Registers a listener, such as a cache, to be told about every inventory change.
+     *
+     * @param listener the listener to notify
+     */
+    public void addChangeListener(InventoryChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    public void removeChangeListener(InventoryChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sets the available inventory for a specific SKU.
+     *
+     * @param sku the product SKU
+     * @param quantity the available quantity
+     */
+    public void setInventory(String sku, int quantity) {
+        Objects.requireNonNull(sku, "SKU cannot be null");
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Inventory quantity cannot be negative");
+        }
+        counter(sku).set(quantity);
+        notifyChanged(sku);
+    }
+
+    /**
+     * Atomically decreases inventory by the specified quantity.
+     *
+     * @param sku the product SKU
+     * @param quantity the quantity to decrease
+     * @throws InsufficientInventoryException if less than {@code quantity} is available;
+     *         inventory is left unchanged
+     */
+    public void decreaseInventory(String sku, int quantity) {
+        Objects.requireNonNull(sku, "SKU cannot be null");
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        AtomicInteger available = inventory.get(sku);
+        if (available == null) {
+            throw new InsufficientInventoryException(sku, quantity, 0);
+        }
+        int current;
+        do {
+            current = available.get();
+            if (current < quantity) {
+                throw new InsufficientInventoryException(sku, quantity, current);
+            }
+        } while (!available.compareAndSet(current, current - quantity));
+        notifyChanged(sku);
+    }
+
+    /**
+     * Atomically increases inventory by the specified quantity, e.g. on restock or return.
+     *
+     * @param sku the product SKU
+     * @param quantity the quantity to add
+     */
+    public void increaseInventory(String sku, int quantity) {
+        Objects.requireNonNull(sku, "SKU cannot be null");
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        AtomicInteger available = counter(sku);
+        int current;
+        do {
+            current = available.get();
+            if (current > Integer.MAX_VALUE - quantity) {
+                throw new IllegalArgumentException("Inventory quantity would overflow");
+            }
+        } while (!available.compareAndSet(current, current + quantity));
+        notifyChanged(sku);
+    }
+
+    @Override
+    public int getAvailable(String sku) {
+        AtomicInteger available = inventory.get(sku);
+        return available == null ? 0 : available.get();
+    }
+
+    /**
+     * Clears all inventory data.
+     */
+    public void clear() {
+        inventory.clear();
+        listeners.forEach(InventoryChangeListener::onInventoryCleared);
+    }
+
+    private AtomicInteger counter(String sku) {
+        AtomicInteger available = inventory.get(sku);
+        return available != null ? available : inventory.computeIfAbsent(sku, s -> new AtomicInteger());
+    }
+
+    /**
+     * Tells every listener that the inventory of a SKU changed. Subclasses call this after
+     * their own updates, outside of any lock.
+     */
+    protected void notifyChanged(String sku) {
+        for (InventoryChangeListener listener : listeners) {
+            listener.onInventoryChanged(sku);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.Cart.impl;
+
+import com.example.Cart.CartLine;
+import com.example.Cart.CartRepository;
+import com.example.Cart.CartSnapshot;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores carts in two tables, {@code cart} (id and version) and {@code cart_line}, through
+ * plain JDBC. Saving a cart replaces all of its rows; {@link #saveAll(Map)} and
+ * {@link #deleteAll(Collection)} do this for many carts with one JDBC batch per statement
+ * inside a single transaction.
+ *
+ * <p>SKUs are stored in a column of {@link #MAX_SKU_LENGTH} characters; a batch holding a
+ * longer one is rejected before anything is written.
+ *
+ * <p>The tables are created on first use with {@code CREATE TABLE IF NOT EXISTS}, which
+ * both MySQL and H2 accept, so the application starts even when the database is not yet
+ * reachable.
+ */
+public class JdbcCartRepository implements CartRepository {
+
+    /**
+     * The width of the {@code cart_line.sku} column; carts holding a longer SKU are rejected.
+     */
+    public static final int MAX_SKU_LENGTH = 64;
+
+    private static final String CREATE_CART = "CREATE TABLE IF NOT EXISTS cart ("
+            + "id VARCHAR(64) NOT NULL PRIMARY KEY, "
+            + "version BIGINT NOT NULL)";
+    private static final String CREATE_CART_LINE = "CREATE TABLE IF NOT EXISTS cart_line ("
+            + "cart_id VARCHAR(64) NOT NULL, "
+            + "sku VARCHAR(" + MAX_SKU_LENGTH + ") NOT NULL, "
+            + "quantity INT NOT NULL, "
+            + "price_cents BIGINT NOT NULL, "
+            + "PRIMARY KEY (cart_id, sku))";
+
+    private static final String DELETE_LINES = "DELETE FROM cart_line WHERE cart_id = ?";
+    private static final String DELETE_CART = "DELETE FROM cart WHERE id = ?";
+    private static final String INSERT_CART = "INSERT INTO cart (id, version) VALUES (?, ?)";
+    private static final String INSERT_LINE =
+            "INSERT INTO cart_line (cart_id, sku, quantity, price_cents) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_VERSION = "SELECT version FROM cart WHERE id = ?";
+    private static final String SELECT_LINES =
+            "SELECT sku, quantity, price_cents FROM cart_line WHERE cart_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private volatile boolean schemaCreated;
+
+    public JdbcCartRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        if (jdbcTemplate == null) {
+            throw new IllegalArgumentException("JdbcTemplate cannot be null");
+        }
+        if (transactionManager == null) {
+            throw new IllegalArgumentException("Transaction manager cannot be null");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void save(String cartId, CartSnapshot snapshot) {
+        saveAll(Map.of(cartId, snapshot));
+    }
+
+    @Override
+    public void saveAll(Map<String, CartSnapshot> snapshotsByCartId) {
+        if (snapshotsByCartId.isEmpty()) {
+            return;
+        }
+        ensureSchema();
+        List<Object[]> ids = new ArrayList<>(snapshotsByCartId.size());
+        List<Object[]> carts = new ArrayList<>(snapshotsByCartId.size());
+        List<Object[]> lines = new ArrayList<>();
+        snapshotsByCartId.forEach((cartId, snapshot) -> {
+            ids.add(new Object[]{cartId});
+            carts.add(new Object[]{cartId, snapshot.getVersion()});
+            snapshot.forEach(line -> {
+                if (line.getSku().length() > MAX_SKU_LENGTH) {
+                    throw new IllegalArgumentException("Cart " + cartId + " holds SKU " + line.getSku()
+                            + " longer than " + MAX_SKU_LENGTH + " characters");
+                }
+                lines.add(new Object[]{cartId, line.getSku(), line.getQuantity(), line.getPriceInCents()});
+            });
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(DELETE_LINES, ids);
+            jdbcTemplate.batchUpdate(DELETE_CART, ids);
+            jdbcTemplate.batchUpdate(INSERT_CART, carts);
+            if (!lines.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_LINE, lines);
+            }
+        });
+    }
+
+    @Override
+    public CartSnapshot load(String cartId) {
+        ensureSchema();
+        List<Long> versions = jdbcTemplate.queryForList(SELECT_VERSION, Long.class, cartId);
+        if (versions.isEmpty()) {
+            return null;
+        }
+        List<CartLine> lines = jdbcTemplate.query(SELECT_LINES,
+                (rs, row) -> new CartLine(rs.getString(1), rs.getInt(2), rs.getLong(3)), cartId);
+        return CartSnapshot.of(lines, versions.get(0));
+    }
+
+    @Override
+    public void delete(String cartId) {
+        deleteAll(List.of(cartId));
+    }
+
+    @Override
+    public void deleteAll(Collection<String> cartIds) {
+        if (cartIds.isEmpty()) {
+            return;
+        }
+        ensureSchema();
+        List<Object[]> ids = new ArrayList<>(cartIds.size());
+        for (String cartId : cartIds) {
+            ids.add(new Object[]{cartId});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(DELETE_LINES, ids);
+            jdbcTemplate.batchUpdate(DELETE_CART, ids);
+        });
+    }
+
+    private void ensureSchema() {
+        if (!schemaCreated) {
+            synchronized (this) {
+                if (!schemaCreated) {
+                    jdbcTemplate.execute(CREATE_CART);
+                    jdbcTemplate.execute(CREATE_CART_LINE);
+                    schemaCreated = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.Cart.impl;
+
+import com.example.Cart.CartMetrics;
+import com.example.Cart.RepricingResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records cart metrics in a Micrometer registry:
+ * <ul>
+ *   <li>{@code cart.catalog.lookup} and {@code cart.inventory.check} timers</li>
+ *   <li>{@code cart.mutation} timers tagged with the operation</li>
+ *   <li>{@code cart.rejections} counters tagged with the reason, and optionally the SKU</li>
+ *   <li>a {@code cart.reprice} timer and {@code cart.reprice.carts} and
+ *       {@code cart.reprice.lines} counters for repricing sweeps</li>
+ *   <li>{@code cart.background.failures} counters tagged with the failed task</li>
+ * </ul>
+ * Meters on the hot path are registered up front so that recording is a clock read and
+ * an atomic add. Tagging rejections by SKU creates one counter per rejected SKU, so it is
+ * off by default.
+ */
+public class MicrometerCartMetrics implements CartMetrics {
+
+    private final MeterRegistry registry;
+    private final boolean rejectionsBySku;
+    private final Timer catalogLookup;
+    private final Timer inventoryCheck;
+    private final Timer addMutation;
+    private final Timer removeMutation;
+    private final Map<Rejection, Counter> rejections;
+    private final Timer reprice;
+    private final Counter repricedCarts;
+    private final Counter repricedLines;
+    private final Counter evictionFailures;
+    private final Counter repricingFailures;
+
+    public MicrometerCartMetrics(MeterRegistry registry, boolean rejectionsBySku) {
+        if (registry == null) {
+            throw new IllegalArgumentException("MeterRegistry cannot be null");
+        }
+        this.registry = registry;
+        this.rejectionsBySku = rejectionsBySku;
+        this.catalogLookup = Timer.builder("cart.catalog.lookup")
+                .description("Time to look up a product in the catalog")
+                .register(registry);
+        this.inventoryCheck = Timer.builder("cart.inventory.check")
+                .description("Time to check or reserve inventory")
+                .register(registry);
+        this.addMutation = mutationTimer("add");
+        this.removeMutation = mutationTimer("remove");
+        this.rejections = new EnumMap<>(Rejection.class);
+        for (Rejection reason : Rejection.values()) {
+            rejections.put(reason, rejectionCounter(reason, null));
+        }
+        this.reprice = Timer.builder("cart.reprice")
+                .description("Time to reprice the live carts holding changed SKUs")
+                .register(registry);
+        this.repricedCarts = Counter.builder("cart.reprice.carts")
+                .description("Carts that got a new price for at least one line")
+                .register(registry);
+        this.repricedLines = Counter.builder("cart.reprice.lines")
+                .description("Cart lines that got a new price")
+                .register(registry);
+        this.evictionFailures = backgroundFailureCounter("evict");
+        this.repricingFailures = backgroundFailureCounter("reprice");
+    }
+
+    @Override
+    public long start() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void catalogLookup(long startNanos) {
+        catalogLookup.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void inventoryCheck(long startNanos) {
+        inventoryCheck.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void cartMutation(String operation, long startNanos) {
+        Timer timer = switch (operation) {
+            case "add" -> addMutation;
+            case "remove" -> removeMutation;
+            default -> mutationTimer(operation);
+        };
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void rejected(String sku, Rejection reason) {
+        if (rejectionsBySku && sku != null) {
+            rejectionCounter(reason, sku).increment();
+        } else {
+            rejections.get(reason).increment();
+        }
+    }
+
+    @Override
+    public void repriced(RepricingResult result) {
+        reprice.record(result.getDuration());
+        repricedCarts.increment(result.getCartsChanged());
+        repricedLines.increment(result.getLinesChanged());
+    }
+
+    @Override
+    public void backgroundTaskFailed(String task) {
+        Counter counter = switch (task) {
+            case "evict" -> evictionFailures;
+            case "reprice" -> repricingFailures;
+            default -> backgroundFailureCounter(task);
+        };
+        counter.increment();
+    }
+
+    private Counter backgroundFailureCounter(String task) {
+        return Counter.builder("cart.background.failures")
+                .description("Background cart registry tasks that failed")
+                .tag("task", task)
+                .register(registry);
+    }
+
+    private Timer mutationTimer(String operation) {
+        return Timer.builder("cart.mutation")
+                .description("Time to change a cart, including catalog lookup and inventory check")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private Counter rejectionCounter(Rejection reason, String sku) {
+        Counter.Builder builder = Counter.builder("cart.rejections")
+                .description("Items that could not be added to a cart")
+                .tag("reason", reason.name().toLowerCase());
+        if (rejectionsBySku) {
+            builder.tag("sku", sku == null ? "unknown" : sku);
+        }
+        return builder.register(registry);
+    }
+}
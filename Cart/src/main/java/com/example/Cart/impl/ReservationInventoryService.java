@@ -0,0 +1,263 @@
+package com.example.Cart.impl;
+
+import com.example.Cart.InsufficientInventoryException;
+import com.example.Cart.ReservableInventoryService;
+import com.example.Cart.Reservation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory inventory with reservations. Each SKU's stock is one {@link AtomicLong} that
+ * packs the unreserved quantity into its high half and the held quantity into its low half,
+ * so every operation, reserving included, is a single compare-and-set: contention on one
+ * hot SKU never blocks others, and no thread ever waits on a lock. Listeners registered
+ * through {@link #addChangeListener} are told about a change after it has been made.
+ * Held reservations are tracked by id; whichever of commit, release or expiry removes a
+ * reservation first wins, and the others become no-ops.
+ *
+ * <p>Because the held quantity moves together with the unreserved one, {@link #setInventory}
+ * sets the stock on hand: held units are subtracted from it, and releasing them later
+ * cannot push the stock above what was set.
+ *
+ * <p>Expired reservations are returned to stock only when {@link #expireReservations()} runs,
+ * so an application using this service must call it periodically, normally through
+ * {@link #scheduleExpiry}. An expired reservation can no longer be committed either way.
+ */
+public class ReservationInventoryService extends ConcurrentInventoryService
+        implements ReservableInventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationInventoryService.class);
+
+    private final Map<String, AtomicLong> stock;
+    private final Map<Long, Reservation> held;
+    private final AtomicLong nextId;
+    private final Clock clock;
+
+    public ReservationInventoryService() {
+        this(Clock.systemUTC());
+    }
+
+    public ReservationInventoryService(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.stock = new ConcurrentHashMap<>();
+        this.held = new ConcurrentHashMap<>();
+        this.nextId = new AtomicLong();
+        this.clock = clock;
+    }
+
+    @Override
+    public Reservation reserve(String sku, int quantity, Duration ttl) {
+        if (sku == null) {
+            throw new IllegalArgumentException("SKU cannot be null");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Reservation TTL must be positive");
+        }
+        take(sku, quantity, quantity);
+        Reservation reservation = new Reservation(nextId.incrementAndGet(), sku, quantity,
+                clock.instant().plus(ttl));
+        held.put(reservation.getId(), reservation);
+        return reservation;
+    }
+
+    @Override
+    public boolean release(Reservation reservation) {
+        if (reservation == null || !held.remove(reservation.getId(), reservation)) {
+            return false;
+        }
+        move(reservation.getSku(), reservation.getQuantity(), -reservation.getQuantity());
+        return true;
+    }
+
+    @Override
+    public boolean commit(Reservation reservation) {
+        if (reservation == null) {
+            return false;
+        }
+        if (!clock.instant().isBefore(reservation.getExpiresAt())) {
+            release(reservation);
+            return false;
+        }
+        if (!held.remove(reservation.getId(), reservation)) {
+            return false;
+        }
+        move(reservation.getSku(), 0, -reservation.getQuantity());
+        return true;
+    }
+
+    /**
+     * Sets the stock on hand for a SKU. Units held by reservations are part of it, so only
+     * the rest becomes available; if more is held than is on hand, nothing is available
+     * until enough reservations are committed or released.
+     *
+     * @param sku the product SKU
+     * @param quantity the quantity on hand, including held units
+     */
+    @Override
+    public void setInventory(String sku, int quantity) {
+        Objects.requireNonNull(sku, "SKU cannot be null");
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Inventory quantity cannot be negative");
+        }
+        AtomicLong counter = counter(sku);
+        long current;
+        do {
+            current = counter.get();
+        } while (!counter.compareAndSet(current, pack(quantity - held(current), held(current))));
+        notifyChanged(sku);
+    }
+
+    @Override
+    public void decreaseInventory(String sku, int quantity) {
+        Objects.requireNonNull(sku, "SKU cannot be null");
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        take(sku, quantity, 0);
+    }
+
+    @Override
+    public void increaseInventory(String sku, int quantity) {
+        Objects.requireNonNull(sku, "SKU cannot be null");
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        AtomicLong counter = counter(sku);
+        long current;
+        do {
+            current = counter.get();
+            if ((long) unreserved(current) + held(current) > Integer.MAX_VALUE - quantity) {
+                throw new IllegalArgumentException("Inventory quantity would overflow");
+            }
+        } while (!counter.compareAndSet(current, pack(unreserved(current) + quantity, held(current))));
+        notifyChanged(sku);
+    }
+
+    @Override
+    public int getAvailable(String sku) {
+        AtomicLong counter = stock.get(sku);
+        return counter == null ? 0 : Math.max(0, unreserved(counter.get()));
+    }
+
+    /**
+     * Clears all inventory data, dropping held reservations along with the stock.
+     */
+    @Override
+    public void clear() {
+        stock.clear();
+        held.clear();
+        super.clear();
+    }
+
+    /**
+     * Returns the stock of every expired reservation to available inventory.
+     *
+     * @return the number of reservations released
+     */
+    public int expireReservations() {
+        Instant now = clock.instant();
+        int expired = 0;
+        for (Reservation reservation : held.values()) {
+            if (!now.isBefore(reservation.getExpiresAt()) && release(reservation)) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Runs {@link #expireReservations()} on the scheduler every {@code interval}.
+     */
+    public ScheduledFuture<?> scheduleExpiry(ScheduledExecutorService scheduler, Duration interval) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null");
+        }
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Expiry interval must be positive");
+        }
+        return scheduler.scheduleWithFixedDelay(this::expireReservationsQuietly, interval.toMillis(),
+                interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void expireReservationsQuietly() {
+        try {
+            expireReservations();
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule; the reservations left behind are retried next time.
+            log.warn("Expiring reservations failed", e);
+        }
+    }
+
+    /**
+     * Returns the number of reservations currently held.
+     */
+    public int getHeldReservationCount() {
+        return held.size();
+    }
+
+    /**
+     * Takes a quantity out of the unreserved stock of a SKU, moving {@code toHeld} of it into
+     * the held quantity.
+     */
+    private void take(String sku, int quantity, int toHeld) {
+        AtomicLong counter = stock.get(sku);
+        if (counter == null) {
+            throw new InsufficientInventoryException(sku, quantity, 0);
+        }
+        long current;
+        do {
+            current = counter.get();
+            if (unreserved(current) < quantity) {
+                throw new InsufficientInventoryException(sku, quantity, Math.max(0, unreserved(current)));
+            }
+        } while (!counter.compareAndSet(current,
+                pack(unreserved(current) - quantity, held(current) + toHeld)));
+        notifyChanged(sku);
+    }
+
+    /**
+     * Adds the given deltas to the unreserved and held quantities of a SKU.
+     */
+    private void move(String sku, int unreservedDelta, int heldDelta) {
+        AtomicLong counter = counter(sku);
+        long current;
+        do {
+            current = counter.get();
+        } while (!counter.compareAndSet(current,
+                pack(unreserved(current) + unreservedDelta, held(current) + heldDelta)));
+        notifyChanged(sku);
+    }
+
+    private AtomicLong counter(String sku) {
+        AtomicLong counter = stock.get(sku);
+        return counter != null ? counter : stock.computeIfAbsent(sku, s -> new AtomicLong());
+    }
+
+    private static long pack(int unreserved, int held) {
+        return ((long) unreserved << 32) | (held & 0xFFFFFFFFL);
+    }
+
+    private static int unreserved(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int held(long packed) {
+        return (int) packed;
+    }
+}
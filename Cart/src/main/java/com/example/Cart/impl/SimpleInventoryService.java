@@ -1,8 +1,12 @@
 package com.example.Cart.impl;
 
+import com.example.Cart.InventoryChangeListener;
 import com.example.Cart.InventoryService;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Simple in-memory implementation of InventoryService.
@@ -11,9 +15,24 @@ import java.util.Map;
 public class SimpleInventoryService implements InventoryService {
 
     private final Map<String, Integer> inventory;
+    private final List<InventoryChangeListener> listeners;
 
     public SimpleInventoryService() {
         this.inventory = new HashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Registers a listener, such as a cache, to be told about every inventory change.
+     *
+     * @param listener the listener to notify
+     */
+    public void addChangeListener(InventoryChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    public void removeChangeListener(InventoryChangeListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -24,10 +43,12 @@ public class SimpleInventoryService implements InventoryService {
      * @param quantity the available quantity
      */
     public void setInventory(String sku, int quantity) {
+        Objects.requireNonNull(sku, "SKU cannot be null");
         if (quantity < 0) {
             throw new IllegalArgumentException("Inventory quantity cannot be negative");
         }
         inventory.put(sku, quantity);
+        listeners.forEach(listener -> listener.onInventoryChanged(sku));
     }
 
     /**
@@ -41,6 +62,7 @@ public class SimpleInventoryService implements InventoryService {
         int current = inventory.getOrDefault(sku, 0);
         int newQuantity = Math.max(0, current - quantity);
         inventory.put(sku, newQuantity);
+        listeners.forEach(listener -> listener.onInventoryChanged(sku));
     }
 
     @Override
@@ -53,5 +75,6 @@ public class SimpleInventoryService implements InventoryService {
      */
     public void clear() {
         inventory.clear();
+        listeners.forEach(InventoryChangeListener::onInventoryCleared);
     }
 }
\ No newline at end of file
@@ -0,0 +1,317 @@
+package com.example.Cart.impl;
+
+import com.example.Cart.CartRepository;
+import com.example.Cart.CartSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind queue in front of another CartRepository.
+ * {@link #save(String, CartSnapshot)} and {@link #delete(String)} only record the latest
+ * change per cart in memory and return at once; repeated changes to the same cart before
+ * the next flush are merged into one write. {@link #flush()} hands the pending carts to
+ * the delegate's {@link CartRepository#saveAll(Map)} and {@link CartRepository#deleteAll}
+ * in batches of at most {@code batchSize}.
+ *
+ * <p>With a scheduler, flushes run every {@code flushInterval}, and early whenever a full
+ * batch is pending. A failed background flush keeps its carts queued for the next attempt.
+ * Loads see pending changes first, so callers always read their own writes.
+ *
+ * <p>When a batch fails, its carts are retried one at a time so that one cart the delegate
+ * cannot store does not hold back the others, and the flush goes on with the later batches.
+ * A cart that fails {@code maxAttempts} flushes in a row is logged and moved to a dead-letter
+ * queue, from which {@link #requeueDeadLetters()} puts it back once the cause is fixed.
+ */
+public class WriteBehindCartRepository implements CartRepository, AutoCloseable {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindCartRepository.class);
+
+    private final CartRepository delegate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final ScheduledExecutorService scheduler;
+    private final ScheduledFuture<?> periodicFlush;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<String, Pending> deadLetters = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+
+    /**
+     * Creates a queue that is only written out by explicit calls to {@link #flush()}.
+     */
+    public WriteBehindCartRepository(CartRepository delegate, int batchSize) {
+        this(delegate, batchSize, DEFAULT_MAX_ATTEMPTS, null, null);
+    }
+
+    public WriteBehindCartRepository(CartRepository delegate, int batchSize, Duration flushInterval,
+                                     ScheduledExecutorService scheduler) {
+        this(delegate, batchSize, DEFAULT_MAX_ATTEMPTS, flushInterval, scheduler);
+    }
+
+    /**
+     * @param delegate the repository to write to
+     * @param batchSize the maximum number of carts per batch
+     * @param maxAttempts how many flushes may fail to write a cart before it is dead-lettered
+     * @param flushInterval how often pending changes are flushed, or null for manual flushes only
+     * @param scheduler runs background flushes; required when flushInterval is set, and
+     *                  not shut down by this repository
+     */
+    public WriteBehindCartRepository(CartRepository delegate, int batchSize, int maxAttempts,
+                                     Duration flushInterval, ScheduledExecutorService scheduler) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate CartRepository cannot be null");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be greater than 0");
+        }
+        if (flushInterval != null && (flushInterval.isNegative() || flushInterval.isZero())) {
+            throw new IllegalArgumentException("Flush interval must be positive");
+        }
+        if (flushInterval != null && scheduler == null) {
+            throw new IllegalArgumentException("Scheduler is required when a flush interval is set");
+        }
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.scheduler = flushInterval == null ? null : scheduler;
+        this.periodicFlush = flushInterval == null ? null : scheduler.scheduleWithFixedDelay(
+                this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void save(String cartId, CartSnapshot snapshot) {
+        if (cartId == null) {
+            throw new IllegalArgumentException("Cart id cannot be null");
+        }
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null");
+        }
+        enqueue(cartId, new Pending(snapshot));
+    }
+
+    @Override
+    public void delete(String cartId) {
+        if (cartId == null) {
+            throw new IllegalArgumentException("Cart id cannot be null");
+        }
+        enqueue(cartId, new Pending(null));
+    }
+
+    @Override
+    public CartSnapshot load(String cartId) {
+        Pending change = pending.get(cartId);
+        if (change == null) {
+            change = deadLetters.get(cartId);
+        }
+        return change != null ? change.snapshot : delegate.load(cartId);
+    }
+
+    private void enqueue(String cartId, Pending change) {
+        // One atomic step, so a flush never sees an older version replacing a newer one.
+        pending.merge(cartId, change, (previous, next) -> {
+            coalesced.increment();
+            return previous.isNewerThan(next) ? previous : next;
+        });
+        deadLetters.remove(cartId);
+        if (scheduler != null && pending.size() >= batchSize && earlyFlushScheduled.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                earlyFlushScheduled.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    /**
+     * Writes every change pending when the call starts, in batches. A cart that cannot be
+     * written stays queued, or is dead-lettered after {@code maxAttempts} failed flushes,
+     * while the rest of the flush goes on.
+     *
+     * @return the number of carts written
+     * @throws RuntimeException from the delegate when not a single cart of the first batch
+     *         could be written, which usually means the delegate is unavailable; the failed
+     *         carts and all later ones stay queued
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            List<Map.Entry<String, Pending>> changes = new ArrayList<>(pending.entrySet().size());
+            for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+                changes.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+            int flushed = 0;
+            for (int from = 0; from < changes.size(); from += batchSize) {
+                List<Map.Entry<String, Pending>> batch = changes.subList(from, Math.min(from + batchSize, changes.size()));
+                try {
+                    writeBatch(batch);
+                    batch.forEach(this::written);
+                    flushed += batch.size();
+                } catch (RuntimeException e) {
+                    int retried = retryOneByOne(batch);
+                    if (retried == 0 && flushed == 0) {
+                        throw e;
+                    }
+                    flushed += retried;
+                }
+            }
+            return flushed;
+        }
+    }
+
+    private int retryOneByOne(List<Map.Entry<String, Pending>> batch) {
+        int flushed = 0;
+        for (Map.Entry<String, Pending> change : batch) {
+            try {
+                writeBatch(List.of(change));
+                written(change);
+                flushed++;
+            } catch (RuntimeException e) {
+                failed(change.getKey(), change.getValue(), e);
+            }
+        }
+        return flushed;
+    }
+
+    private void written(Map.Entry<String, Pending> change) {
+        pending.remove(change.getKey(), change.getValue());
+        written.increment();
+    }
+
+    private void failed(String cartId, Pending change, RuntimeException cause) {
+        failedWrites.increment();
+        if (++change.attempts < maxAttempts) {
+            log.warn("Failed to write cart {} (attempt {} of {}): {}", cartId, change.attempts, maxAttempts,
+                    cause.toString());
+        } else if (pending.remove(cartId, change)) {
+            deadLetters.put(cartId, change);
+            log.error("Giving up on cart {} after {} failed attempts; moved to the dead-letter queue",
+                    cartId, change.attempts, cause);
+        }
+    }
+
+    private void writeBatch(List<Map.Entry<String, Pending>> batch) {
+        Map<String, CartSnapshot> saves = new LinkedHashMap<>();
+        List<String> deletes = new ArrayList<>();
+        for (Map.Entry<String, Pending> change : batch) {
+            if (change.getValue().snapshot == null) {
+                deletes.add(change.getKey());
+            } else {
+                saves.put(change.getKey(), change.getValue().snapshot);
+            }
+        }
+        if (!saves.isEmpty()) {
+            delegate.saveAll(saves);
+        }
+        if (!deletes.isEmpty()) {
+            delegate.deleteAll(deletes);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            log.warn("Write-behind flush failed; {} carts stay queued", pending.size(), e);
+        }
+    }
+
+    /**
+     * Queues every dead-lettered cart again, with a fresh set of attempts, unless the cart
+     * has changed since.
+     *
+     * @return the number of carts queued again
+     */
+    public int requeueDeadLetters() {
+        int requeued = 0;
+        for (Map.Entry<String, Pending> entry : deadLetters.entrySet()) {
+            if (deadLetters.remove(entry.getKey(), entry.getValue())
+                    && pending.putIfAbsent(entry.getKey(), new Pending(entry.getValue().snapshot)) == null) {
+                requeued++;
+            }
+        }
+        return requeued;
+    }
+
+    /**
+     * Stops background flushing and writes everything still pending.
+     */
+    @Override
+    public void close() {
+        if (periodicFlush != null) {
+            periodicFlush.cancel(false);
+        }
+        flush();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Returns how many changes were merged into a change already pending for the same cart.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getFailedFlushCount() {
+        return failedFlushes.sum();
+    }
+
+    /**
+     * Returns how many times writing a single cart failed, counting every attempt.
+     */
+    public long getFailedWriteCount() {
+        return failedWrites.sum();
+    }
+
+    /**
+     * Returns the ids of the carts that were given up on.
+     */
+    public List<String> getDeadLetters() {
+        return List.copyOf(deadLetters.keySet());
+    }
+
+    /**
+     * The latest change to one cart: a snapshot to save, or null to delete it. The attempt
+     * count is only touched under the flush lock.
+     */
+    private static final class Pending {
+        final CartSnapshot snapshot;
+        int attempts;
+
+        Pending(CartSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        boolean isNewerThan(Pending other) {
+            return snapshot != null && other.snapshot != null
+                    && snapshot.getVersion() > other.snapshot.getVersion();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.Cart.web;
+
+import com.example.Cart.InsufficientInventoryException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps domain exceptions to RFC 7807 problem responses.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(InsufficientInventoryException.class)
+    public ProblemDetail insufficientInventory(InsufficientInventoryException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+        problem.setProperty("sku", e.getSku());
+        problem.setProperty("requestedQuantity", e.getRequestedQuantity());
+        problem.setProperty("availableQuantity", e.getAvailableQuantity());
+        return problem;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail badRequest(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.Cart.web;
+
+import com.example.Cart.CartLine;
+import com.example.Cart.CartRegistry;
+import com.example.Cart.CartSnapshot;
+import com.example.Cart.ConcurrentCart;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cart contents and totals. Every change is queued to the cart repository.
+ */
+@RestController
+@RequestMapping("/api/carts/{cartId}")
+public class CartController {
+
+    private final CartRegistry carts;
+
+    public CartController(CartRegistry carts) {
+        this.carts = carts;
+    }
+
+    @GetMapping
+    public ResponseEntity<CartView> getCart(@PathVariable String cartId) {
+        ConcurrentCart cart = carts.find(cartId);
+        return cart == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(CartView.of(cartId, cart.snapshot()));
+    }
+
+    @PostMapping("/items")
+    public CartView addItem(@PathVariable String cartId, @RequestBody AddItemRequest request) {
+        ConcurrentCart cart = carts.getOrCreate(cartId);
+        try {
+            cart.addItem(request.sku(), request.quantity());
+        } catch (RuntimeException e) {
+            // A rejected first item must not leave an empty cart behind.
+            carts.discardIfEmpty(cartId, cart);
+            throw e;
+        }
+        carts.save(cartId, cart);
+        return CartView.of(cartId, cart.snapshot());
+    }
+
+    @DeleteMapping("/items/{sku}")
+    public ResponseEntity<CartView> removeItem(@PathVariable String cartId, @PathVariable String sku) {
+        ConcurrentCart cart = carts.find(cartId);
+        if (cart == null) {
+            return ResponseEntity.notFound().build();
+        }
+        cart.removeItem(sku);
+        carts.save(cartId, cart);
+        return ResponseEntity.ok(CartView.of(cartId, cart.snapshot()));
+    }
+
+    @GetMapping("/total")
+    public ResponseEntity<TotalView> getTotal(@PathVariable String cartId) {
+        ConcurrentCart cart = carts.find(cartId);
+        return cart == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(TotalView.of(cart.snapshot()));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> deleteCart(@PathVariable String cartId) {
+        return carts.remove(cartId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    public record AddItemRequest(String sku, int quantity) {
+    }
+
+    public record TotalView(BigDecimal total, long totalInCents, long totalQuantity) {
+        static TotalView of(CartSnapshot snapshot) {
+            return new TotalView(snapshot.getTotalAsBigDecimal(), snapshot.getTotalInCents(),
+                    snapshot.getTotalQuantity());
+        }
+    }
+
+    public record CartView(String id, long version, List<CartLine> items, TotalView total) {
+        static CartView of(String cartId, CartSnapshot snapshot) {
+            List<CartLine> items = new ArrayList<>(snapshot.size());
+            snapshot.forEach(items::add);
+            return new CartView(cartId, snapshot.getVersion(), items, TotalView.of(snapshot));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.Cart.web;
+
+import com.example.Cart.Catalog;
+import com.example.Cart.Product;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Product lookup and search.
+ */
+@RestController
+@RequestMapping("/api/catalog/products")
+public class CatalogController {
+
+    private static final int MAX_PAGE_SIZE = 1_000;
+
+    private final Catalog catalog;
+
+    public CatalogController(Catalog catalog) {
+        this.catalog = catalog;
+    }
+
+    @GetMapping("/{sku}")
+    public ResponseEntity<Product> getProduct(@PathVariable String sku) {
+        Product product = catalog.findProductBySku(sku);
+        return product == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(product);
+    }
+
+    /**
+     * Searches by name when {@code name} is given, ordered by SKU, otherwise by price range,
+     * cheapest first unless {@code descending} is set. Either way one page of at most
+     * {@code limit} products is returned.
+     */
+    @GetMapping
+    public List<Product> search(@RequestParam(required = false) String name,
+                                @RequestParam(defaultValue = "0") double minPrice,
+                                @RequestParam(defaultValue = "Infinity") double maxPrice,
+                                @RequestParam(defaultValue = "0") int offset,
+                                @RequestParam(defaultValue = "100") int limit,
+                                @RequestParam(defaultValue = "false") boolean descending) {
+        if (limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit cannot be greater than " + MAX_PAGE_SIZE);
+        }
+        if (name != null) {
+            return catalog.findProductsByName(name, offset, limit);
+        }
+        return catalog.findProductsByPriceRange(minPrice, maxPrice, offset, limit, descending);
+    }
+}
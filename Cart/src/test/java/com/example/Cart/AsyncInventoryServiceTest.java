@@ -0,0 +1,162 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.ReservationInventoryService;
+import com.example.Cart.impl.SimpleInventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for asynchronous inventory lookups and Cart.addItemAsync, using an in-process
+ * backend that answers after an injected delay.
+ */
+class AsyncInventoryServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private FakeInventoryBackend backend;
+    private Catalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        backend = new FakeInventoryBackend(Duration.ofMillis(200));
+        catalog = new Catalog();
+        catalog.addProduct(new Product("SKU001", "Laptop", 999.99));
+        catalog.addProduct(new Product("SKU002", "Mouse", 29.99));
+    }
+
+    @Test
+    void testLookupsForSeveralSkusRunInParallel() throws Exception {
+        List<String> skus = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            backend.stock.put("SKU" + i, i);
+            skus.add("SKU" + i);
+        }
+
+        long start = System.nanoTime();
+        Map<String, Integer> available = backend.getAvailableAsync(skus, TIMEOUT).get(10, TimeUnit.SECONDS);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(20, available.size());
+        assertEquals(7, available.get("SKU7"));
+        assertTrue(elapsedMillis < 2_000, "20 lookups of 200ms should overlap, took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void testSlowLookupTimesOut() {
+        backend.slowSkus.put("SKU002", Duration.ofSeconds(10));
+
+        CompletableFuture<Map<String, Integer>> lookup =
+                backend.getAvailableAsync(List.of("SKU001", "SKU002"), Duration.ofMillis(300));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> lookup.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    void testAdapterWrapsSynchronousService() throws Exception {
+        SimpleInventoryService sync = new SimpleInventoryService();
+        sync.setInventory("SKU001", 12);
+
+        AsyncInventoryService async = AsyncInventoryService.adapt(sync);
+
+        assertEquals(12, async.getAvailableAsync("SKU001").get(5, TimeUnit.SECONDS));
+        assertEquals(0, async.getAvailableAsync("UNKNOWN").get(5, TimeUnit.SECONDS));
+        assertSame(backend, AsyncInventoryService.adapt(backend), "Async services are not wrapped again");
+    }
+
+    @Test
+    void testCartAddItemAsync() throws Exception {
+        backend.stock.put("SKU001", 3);
+        Cart cart = new Cart(catalog, backend);
+
+        CompletableFuture<Void> added = cart.addItemAsync("SKU001", 2, TIMEOUT);
+        added.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, cart.getItems().get("SKU001").getQuantity());
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> cart.addItemAsync("SKU001", 2, TIMEOUT).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(InsufficientInventoryException.class, exception.getCause());
+        assertEquals(2, cart.getItems().get("SKU001").getQuantity());
+
+        CompletableFuture<Void> unknown = cart.addItemAsync("UNKNOWN", 1, TIMEOUT);
+        assertInstanceOf(IllegalArgumentException.class,
+                assertThrows(ExecutionException.class, () -> unknown.get(5, TimeUnit.SECONDS)).getCause());
+        assertTrue(cart.addItemAsync("SKU001", 1, null).isCompletedExceptionally());
+    }
+
+    @Test
+    void testReservingCartReportsFailuresThroughTheFuture() {
+        ReservationInventoryService reservable = new ReservationInventoryService();
+        reservable.setInventory("SKU001", 1);
+        Cart cart = new Cart(catalog, reservable);
+
+        CompletableFuture<Void> shortage = cart.addItemAsync("SKU001", 2, TIMEOUT);
+        CompletableFuture<Void> unknown = cart.addItemAsync("UNKNOWN", 1, TIMEOUT);
+
+        assertInstanceOf(InsufficientInventoryException.class,
+                assertThrows(ExecutionException.class, shortage::get).getCause());
+        assertInstanceOf(IllegalArgumentException.class,
+                assertThrows(ExecutionException.class, unknown::get).getCause());
+        assertEquals(1, reservable.getAvailable("SKU001"));
+        assertEquals(0, cart.getItemCount());
+    }
+
+    @Test
+    void testCartAddItemsAsyncIsAllOrNothing() throws Exception {
+        backend.stock.put("SKU001", 5);
+        backend.stock.put("SKU002", 1);
+        Cart cart = new Cart(catalog, backend);
+
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        lines.put("SKU001", 2);
+        lines.put("SKU002", 2);
+        CompletableFuture<Void> added = cart.addItemsAsync(lines, TIMEOUT);
+
+        assertThrows(ExecutionException.class, () -> added.get(5, TimeUnit.SECONDS));
+        assertEquals(0, cart.getItemCount());
+
+        lines.put("SKU002", 1);
+        cart.addItemsAsync(lines, TIMEOUT).get(5, TimeUnit.SECONDS);
+        assertEquals(3, cart.getTotalQuantity());
+    }
+
+    /**
+     * Inventory backend that completes every lookup after a delay, without blocking a thread.
+     * It also implements the synchronous contract so it can be handed to a Cart.
+     */
+    private static final class FakeInventoryBackend implements AsyncInventoryService, InventoryService {
+        final Map<String, Integer> stock = new ConcurrentHashMap<>();
+        final Map<String, Duration> slowSkus = new ConcurrentHashMap<>();
+        private final Duration latency;
+
+        FakeInventoryBackend(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public CompletableFuture<Integer> getAvailableAsync(String sku) {
+            long delay = slowSkus.getOrDefault(sku, latency).toMillis();
+            return CompletableFuture.supplyAsync(() -> stock.getOrDefault(sku, 0),
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public int getAvailable(String sku) {
+            return getAvailableAsync(sku).join();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.CachingInventoryService;
+import com.example.Cart.impl.SimpleInventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the read-through inventory cache.
+ */
+class CachingInventoryServiceTest {
+
+    private InventoryService backend;
+    private TestSupport.MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        backend = mock(InventoryService.class);
+        clock = new TestSupport.MutableClock();
+    }
+
+    @Test
+    void testRepeatedReadsHitTheCache() {
+        when(backend.getAvailable("SKU001")).thenReturn(10);
+        CachingInventoryService cache = new CachingInventoryService(backend, 100, Duration.ofSeconds(30),
+                null, null, clock);
+
+        assertEquals(10, cache.getAvailable("SKU001"));
+        assertEquals(10, cache.getAvailable("SKU001"));
+        assertEquals(10, cache.getAvailable("SKU001"));
+
+        verify(backend, times(1)).getAvailable("SKU001");
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        when(backend.getAvailable("SKU001")).thenReturn(10, 4);
+        CachingInventoryService cache = new CachingInventoryService(backend, 100, Duration.ofSeconds(30),
+                null, null, clock);
+
+        cache.getAvailable("SKU001");
+        clock.advance(Duration.ofSeconds(30));
+
+        assertEquals(4, cache.getAvailable("SKU001"), "Expired entry should be reloaded");
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        CachingInventoryService cache = new CachingInventoryService(backend, 1, Duration.ofSeconds(30),
+                null, null, clock);
+
+        cache.getAvailable("SKU001");
+        cache.getAvailable("SKU002");
+        cache.getAvailable("SKU001");
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+        verify(backend, times(2)).getAvailable("SKU001");
+    }
+
+    @Test
+    void testHotEntryIsRefreshedAhead() {
+        when(backend.getAvailable("SKU001")).thenReturn(10, 7);
+        List<Runnable> refreshes = new ArrayList<>();
+        CachingInventoryService cache = new CachingInventoryService(backend, 100, Duration.ofSeconds(30),
+                Duration.ofSeconds(20), refreshes::add, clock);
+
+        cache.getAvailable("SKU001");
+        clock.advance(Duration.ofSeconds(25));
+
+        assertEquals(10, cache.getAvailable("SKU001"), "Stale entry should still be served");
+        assertEquals(10, cache.getAvailable("SKU001"));
+        assertEquals(1, refreshes.size(), "Only one refresh should be scheduled per entry");
+
+        refreshes.get(0).run();
+
+        assertEquals(7, cache.getAvailable("SKU001"));
+        assertEquals(1, cache.getRefreshCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testRejectedRefreshServesCachedValueAndRetries() {
+        when(backend.getAvailable("SKU001")).thenReturn(10, 7);
+        List<Runnable> refreshes = new ArrayList<>();
+        boolean[] reject = {true};
+        CachingInventoryService cache = new CachingInventoryService(backend, 100, Duration.ofSeconds(30),
+                Duration.ofSeconds(20), task -> {
+                    if (reject[0]) {
+                        throw new RejectedExecutionException("saturated");
+                    }
+                    refreshes.add(task);
+                }, clock);
+
+        cache.getAvailable("SKU001");
+        clock.advance(Duration.ofSeconds(25));
+
+        assertEquals(10, cache.getAvailable("SKU001"));
+        reject[0] = false;
+        assertEquals(10, cache.getAvailable("SKU001"));
+        assertEquals(1, refreshes.size(), "A rejected refresh should be retried on a later hit");
+
+        refreshes.get(0).run();
+
+        assertEquals(7, cache.getAvailable("SKU001"));
+    }
+
+    @Test
+    void testInventoryChangesInvalidateTheCache() {
+        SimpleInventoryService inventory = new SimpleInventoryService();
+        CachingInventoryService cache = new CachingInventoryService(inventory, 100, Duration.ofMinutes(5));
+        inventory.addChangeListener(cache);
+        inventory.setInventory("SKU001", 100);
+
+        assertEquals(100, cache.getAvailable("SKU001"));
+
+        inventory.decreaseInventory("SKU001", 30);
+        assertEquals(70, cache.getAvailable("SKU001"));
+
+        inventory.setInventory("SKU001", 5);
+        assertEquals(5, cache.getAvailable("SKU001"));
+
+        inventory.clear();
+        assertEquals(0, cache.getAvailable("SKU001"));
+    }
+
+    @Test
+    void testBatchLookupLoadsOnlyMissingSkus() {
+        when(backend.getAvailable("SKU001")).thenReturn(10);
+        when(backend.getAvailable(anyCollection())).thenReturn(Map.of("SKU002", 20, "SKU003", 30));
+        CachingInventoryService cache = new CachingInventoryService(backend, 100, Duration.ofSeconds(30),
+                null, null, clock);
+        cache.getAvailable("SKU001");
+
+        Map<String, Integer> available = cache.getAvailable(List.of("SKU001", "SKU002", "SKU003"));
+
+        assertEquals(Map.of("SKU001", 10, "SKU002", 20, "SKU003", 30), available);
+        verify(backend).getAvailable(List.of("SKU002", "SKU003"));
+        assertEquals(30, cache.getAvailable("SKU003"), "Batch results should be cached");
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    void testConstructorValidation() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CachingInventoryService(null, 10, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CachingInventoryService(backend, 0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CachingInventoryService(backend, 10, Duration.ofSeconds(1),
+                        Duration.ofSeconds(2), Runnable::run, clock));
+    }
+}
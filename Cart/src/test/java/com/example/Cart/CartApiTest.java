@@ -0,0 +1,103 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.ConcurrentInventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the catalog and cart HTTP endpoints.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("inmemory")
+class CartApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Catalog catalog;
+
+    @Autowired
+    private ConcurrentInventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        catalog.clear();
+        catalog.addProduct(new Product("SKU001", "Laptop", 999.99));
+        catalog.addProduct(new Product("SKU002", "Mouse", 29.99));
+        inventoryService.setInventory("SKU001", 5);
+        inventoryService.setInventory("SKU002", 100);
+    }
+
+    @Test
+    void testProductLookupAndSearch() throws Exception {
+        mockMvc.perform(get("/api/catalog/products/SKU001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Laptop"))
+                .andExpect(jsonPath("$.priceInCents").value(99999));
+        mockMvc.perform(get("/api/catalog/products/UNKNOWN"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/catalog/products").param("name", "mou"))
+                .andExpect(jsonPath("$[0].sku").value("SKU002"));
+        mockMvc.perform(get("/api/catalog/products").param("maxPrice", "100"))
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/catalog/products").param("name", "o").param("offset", "1").param("limit", "1"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].sku").value("SKU002"));
+        mockMvc.perform(get("/api/catalog/products").param("name", "o").param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testAddRemoveAndTotal() throws Exception {
+        mockMvc.perform(post("/api/carts/api-cart/items").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sku\":\"SKU001\",\"quantity\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].quantity").value(2));
+        mockMvc.perform(post("/api/carts/api-cart/items").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sku\":\"SKU002\",\"quantity\":3}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/carts/api-cart/total"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalInCents").value(2 * 99999 + 3 * 2999))
+                .andExpect(jsonPath("$.totalQuantity").value(5));
+
+        mockMvc.perform(delete("/api/carts/api-cart/items/SKU001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.total.totalInCents").value(3 * 2999));
+    }
+
+    @Test
+    void testErrorsMapToProblemResponses() throws Exception {
+        mockMvc.perform(post("/api/carts/error-cart/items").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sku\":\"SKU001\",\"quantity\":6}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.availableQuantity").value(5));
+        mockMvc.perform(post("/api/carts/error-cart/items").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sku\":\"UNKNOWN\",\"quantity\":1}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/carts/error-cart"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/carts/no-such-cart"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/metrics/cart.rejections").param("tag", "reason:insufficient_inventory"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(greaterThanOrEqualTo(1.0)));
+        mockMvc.perform(get("/actuator/metrics/cart.catalog.size"))
+                .andExpect(jsonPath("$.measurements[0].value").value(2.0));
+    }
+}
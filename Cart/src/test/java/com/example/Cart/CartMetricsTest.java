@@ -0,0 +1,114 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.MicrometerCartMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for cart timings and rejection counters.
+ */
+class CartMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private InventoryService inventoryService;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        inventoryService = mock(InventoryService.class);
+        Catalog catalog = new Catalog();
+        catalog.addProduct(new Product("SKU001", "Laptop", 999.99));
+        cart = new Cart(catalog, inventoryService, Cart.DEFAULT_RESERVATION_TTL,
+                new MicrometerCartMetrics(registry, false));
+    }
+
+    @Test
+    void testSuccessfulChangesAreTimed() {
+        when(inventoryService.getAvailable("SKU001")).thenReturn(10);
+
+        cart.addItem("SKU001", 2);
+        cart.addItem("SKU001", 1);
+        cart.removeItem("SKU001");
+
+        assertEquals(2, registry.get("cart.catalog.lookup").timer().count());
+        assertEquals(2, registry.get("cart.inventory.check").timer().count());
+        assertEquals(2, registry.get("cart.mutation").tag("operation", "add").timer().count());
+        assertEquals(1, registry.get("cart.mutation").tag("operation", "remove").timer().count());
+    }
+
+    @Test
+    void testRejectionsAreCountedByReason() {
+        when(inventoryService.getAvailable("SKU001")).thenReturn(1);
+
+        assertThrows(InsufficientInventoryException.class, () -> cart.addItem("SKU001", 5));
+        assertThrows(IllegalArgumentException.class, () -> cart.addItem("UNKNOWN", 1));
+        assertThrows(IllegalArgumentException.class, () -> cart.addItem("SKU001", 0));
+
+        assertEquals(1, registry.get("cart.rejections").tag("reason", "insufficient_inventory").counter().count());
+        assertEquals(1, registry.get("cart.rejections").tag("reason", "unknown_product").counter().count());
+        assertEquals(1, registry.get("cart.rejections").tag("reason", "invalid_quantity").counter().count());
+        assertEquals(0, registry.get("cart.mutation").tag("operation", "add").timer().count());
+    }
+
+    @Test
+    void testBulkAddsAreTimedAndRejectionsCounted() {
+        when(inventoryService.getAvailable(anyCollection())).thenReturn(Map.of("SKU001", 3));
+
+        cart.addItems(Map.of("SKU001", 2));
+        assertThrows(InsufficientInventoryException.class, () -> cart.addItems(Map.of("SKU001", 2)));
+        assertThrows(IllegalArgumentException.class, () -> cart.addItems(Map.of("UNKNOWN", 1)));
+        assertThrows(IllegalArgumentException.class, () -> cart.addItems(Map.of("SKU001", 0)));
+
+        assertEquals(1, registry.get("cart.mutation").tag("operation", "add").timer().count());
+        assertEquals(3, registry.get("cart.catalog.lookup").timer().count());
+        assertEquals(2, registry.get("cart.inventory.check").timer().count());
+        assertEquals(1, registry.get("cart.rejections").tag("reason", "insufficient_inventory").counter().count());
+        assertEquals(1, registry.get("cart.rejections").tag("reason", "unknown_product").counter().count());
+        assertEquals(1, registry.get("cart.rejections").tag("reason", "invalid_quantity").counter().count());
+    }
+
+    @Test
+    void testRejectionsCanBeTaggedBySku() {
+        MicrometerCartMetrics metrics = new MicrometerCartMetrics(registry, true);
+
+        metrics.rejected("SKU001", CartMetrics.Rejection.INSUFFICIENT_INVENTORY);
+        metrics.rejected("SKU001", CartMetrics.Rejection.INSUFFICIENT_INVENTORY);
+
+        assertEquals(2, registry.get("cart.rejections").tag("sku", "SKU001").counter().count());
+    }
+
+    @Test
+    void testRepricingSweepsAreRecorded() {
+        MicrometerCartMetrics metrics = new MicrometerCartMetrics(registry, false);
+
+        metrics.repriced(new RepricingResult(1, 5, 3, 4, Duration.ofMillis(2)));
+
+        assertEquals(1, registry.get("cart.reprice").timer().count());
+        assertEquals(3, registry.get("cart.reprice.carts").counter().count());
+        assertEquals(4, registry.get("cart.reprice.lines").counter().count());
+    }
+
+    @Test
+    void testBackgroundFailuresAreCountedByTask() {
+        MicrometerCartMetrics metrics = new MicrometerCartMetrics(registry, false);
+
+        metrics.backgroundTaskFailed("reprice");
+        metrics.backgroundTaskFailed("reprice");
+
+        assertEquals(2, registry.get("cart.background.failures").tag("task", "reprice").counter().count());
+        assertEquals(0, registry.get("cart.background.failures").tag("task", "evict").counter().count());
+    }
+
+    @Test
+    void testNoopMetricsDoNotReadTheClock() {
+        assertEquals(0, CartMetrics.NOOP.start());
+    }
+}
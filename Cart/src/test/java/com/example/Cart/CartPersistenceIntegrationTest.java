@@ -0,0 +1,39 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.JdbcCartRepository;
+import com.example.Cart.impl.WriteBehindCartRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the configured cart persistence against the in-memory profile.
+ */
+@SpringBootTest
+@ActiveProfiles("inmemory")
+class CartPersistenceIntegrationTest {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private JdbcCartRepository jdbcCartRepository;
+
+    @Test
+    void testCartsAreWrittenBehindToTheDatasource() {
+        Catalog catalog = new Catalog();
+        catalog.addProduct(new Product("SKU001", "Laptop", 999.99));
+        Cart cart = new Cart(catalog, sku -> 10);
+        cart.addItem("SKU001", 2);
+
+        cartRepository.save("cart-1", cart.snapshot());
+        ((WriteBehindCartRepository) cartRepository).flush();
+
+        CartSnapshot stored = jdbcCartRepository.load("cart-1");
+        assertEquals(2, stored.get("SKU001").getQuantity());
+        assertEquals(cart.getTotalInCents(), stored.getTotalInCents());
+    }
+}
@@ -0,0 +1,353 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.ConcurrentInventoryService;
+import com.example.Cart.impl.ReservationInventoryService;
+import com.example.Cart.impl.WriteBehindCartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for cart lookup, sharding and idle eviction in the cart registry.
+ */
+class CartRegistryTest {
+
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    private TestSupport.MutableClock clock;
+    private Catalog catalog;
+    private ReservationInventoryService inventoryService;
+    private CartRepository repository;
+    private CartRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        clock = new TestSupport.MutableClock();
+        catalog = new Catalog();
+        catalog.addProduct(new Product("SKU001", "Laptop", 999.99));
+        catalog.addProduct(new Product("SKU002", "Mouse", 29.99));
+        inventoryService = new ReservationInventoryService(clock);
+        inventoryService.setInventory("SKU001", 10);
+        inventoryService.setInventory("SKU002", 10);
+        repository = mock(CartRepository.class);
+        registry = new CartRegistry(catalog, inventoryService, repository, CartMetrics.NOOP,
+                16, IDLE_TIMEOUT, clock);
+    }
+
+    @Test
+    void testShardCountIsRoundedUpToPowerOfTwo() {
+        Catalog catalog = new Catalog();
+        assertEquals(1, new CartRegistry(catalog, inventoryService, repository, null, 1, IDLE_TIMEOUT, clock)
+                .getShardCount());
+        assertEquals(64, new CartRegistry(catalog, inventoryService, repository, null, 33, IDLE_TIMEOUT, clock)
+                .getShardCount());
+        assertThrows(IllegalArgumentException.class,
+                () -> new CartRegistry(catalog, inventoryService, repository, null, 0, IDLE_TIMEOUT, clock));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CartRegistry(catalog, inventoryService, repository, null, 16, Duration.ZERO, clock));
+    }
+
+    @Test
+    void testActiveCountFollowsCartsInMemory() {
+        for (int i = 0; i < 100; i++) {
+            registry.getOrCreate("cart-" + i);
+        }
+        registry.getOrCreate("cart-0");
+
+        assertEquals(100, registry.size());
+
+        registry.remove("cart-0");
+
+        assertEquals(99, registry.size());
+        assertFalse(registry.remove("cart-0"));
+        assertEquals(99, registry.size());
+    }
+
+    @Test
+    void testIdleCartsAreMovedToRepositoryAndRestored() {
+        ConcurrentCart cart = registry.getOrCreate("cart-1");
+        cart.addItem("SKU001", 2);
+        registry.getOrCreate("cart-2");
+
+        clock.advance(Duration.ofMinutes(20));
+        registry.find("cart-2");
+        clock.advance(Duration.ofMinutes(15));
+
+        assertEquals(1, registry.evictIdle());
+        assertEquals(1, registry.size());
+        verify(repository).save("cart-1", cart.snapshot());
+        assertEquals(10, inventoryService.getAvailable("SKU001"));
+
+        when(repository.load("cart-1")).thenReturn(cart.snapshot());
+        ConcurrentCart restored = registry.find("cart-1");
+
+        assertNotSame(cart, restored);
+        assertEquals(2, restored.getItems().get("SKU001").getQuantity());
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void testEvictionReleasesReservations() {
+        ConcurrentCart cart = registry.getOrCreate("cart-1");
+        cart.addItem("SKU001", 3);
+        assertEquals(7, inventoryService.getAvailable("SKU001"));
+
+        clock.advance(IDLE_TIMEOUT.plusSeconds(1));
+        registry.evictIdle();
+
+        assertEquals(10, inventoryService.getAvailable("SKU001"));
+        assertEquals(0, inventoryService.getHeldReservationCount());
+    }
+
+    @Test
+    void testStoredCartsAreNotSavedAgainOnEviction() {
+        ConcurrentCart cart = registry.getOrCreate("cart-1");
+        cart.addItem("SKU001", 1);
+        registry.save("cart-1", cart);
+        when(repository.load("cart-2")).thenReturn(CartSnapshot.empty().with(new CartLine("SKU001", 1, 99999)));
+        registry.find("cart-2");
+        registry.getOrCreate("cart-3");
+
+        clock.advance(IDLE_TIMEOUT.plusSeconds(1));
+
+        assertEquals(3, registry.evictIdle());
+        verify(repository, times(1)).save(anyString(), any());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testFailedSaveKeepsCartInMemory() {
+        ConcurrentCart cart = registry.getOrCreate("cart-1");
+        cart.addItem("SKU001", 1);
+        doThrow(new IllegalStateException("repository down")).when(repository).save(anyString(), any());
+
+        clock.advance(IDLE_TIMEOUT.plusSeconds(1));
+
+        assertThrows(IllegalStateException.class, () -> registry.evictIdle());
+        assertSame(cart, registry.find("cart-1"));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void testConcurrentRestoresLoadOutsideTheMapAndKeepOneCart() throws Exception {
+        CartSnapshot stored = CartSnapshot.empty().with(new CartLine("SKU001", 1, 99999));
+        CountDownLatch loading = new CountDownLatch(2);
+        AtomicBoolean overlapped = new AtomicBoolean();
+        when(repository.load("cart-1")).thenAnswer(invocation -> {
+            loading.countDown();
+            overlapped.compareAndSet(false, loading.await(5, TimeUnit.SECONDS));
+            return stored;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ConcurrentCart> first = executor.submit(() -> registry.getOrCreate("cart-1"));
+            Future<ConcurrentCart> second = executor.submit(() -> registry.getOrCreate("cart-1"));
+
+            assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(overlapped.get(), "Both requests should load while neither holds the map");
+        assertEquals(1, registry.size());
+        assertEquals(1, registry.reprice(Set.of("SKU001")).getCartsVisited());
+    }
+
+    @Test
+    void testCartLookedUpDuringEvictionStaysInMemory() {
+        ConcurrentCart cart = registry.getOrCreate("cart-1");
+        cart.addItem("SKU001", 1);
+        ConcurrentCart[] lookedUp = new ConcurrentCart[1];
+        // A request arrives while the sweep is saving the idle cart.
+        doAnswer(invocation -> {
+            lookedUp[0] = registry.getOrCreate("cart-1");
+            return null;
+        }).when(repository).save(eq("cart-1"), any());
+        clock.advance(IDLE_TIMEOUT.plusSeconds(1));
+
+        assertEquals(0, registry.evictIdle());
+        lookedUp[0].addItem("SKU002", 1);
+
+        assertSame(cart, lookedUp[0]);
+        assertSame(cart, registry.getOrCreate("cart-1"), "A second request must not restore another copy");
+        assertEquals(2, cart.snapshot().size());
+        assertEquals(1, registry.size());
+        verify(repository, times(1)).load("cart-1");
+    }
+
+    @Test
+    void testRequestsRacingEvictionShareOneCopyOfTheCart() throws Exception {
+        ConcurrentInventoryService stock = new ConcurrentInventoryService();
+        stock.setInventory("SKU001", 1_000_000);
+        stock.setInventory("SKU002", 1_000_000);
+        WriteBehindCartRepository stored = new WriteBehindCartRepository(mock(CartRepository.class), 1_000_000);
+        CartRegistry racing = new CartRegistry(catalog, stock, stored, CartMetrics.NOOP, 16, IDLE_TIMEOUT, clock);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int i = 0; i < 500; i++) {
+                String cartId = "cart-" + i;
+                racing.getOrCreate(cartId);
+                clock.advance(IDLE_TIMEOUT.plusSeconds(1));
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> requests = new ArrayList<>();
+                for (String sku : List.of("SKU001", "SKU002")) {
+                    requests.add(executor.submit(() -> {
+                        start.await();
+                        ConcurrentCart cart = racing.getOrCreate(cartId);
+                        cart.addItem(sku, 1);
+                        racing.save(cartId, cart);
+                        return null;
+                    }));
+                }
+                requests.add(executor.submit(() -> {
+                    start.await();
+                    return racing.evictIdle();
+                }));
+                start.countDown();
+                for (Future<?> request : requests) {
+                    request.get(10, TimeUnit.SECONDS);
+                }
+
+                assertEquals(2, racing.getOrCreate(cartId).snapshot().size(), "An add was lost to eviction");
+                assertEquals(2, stored.load(cartId).size(), "The stored cart should hold both adds");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailedBackgroundEvictionIsCounted() {
+        List<String> failures = new ArrayList<>();
+        CartMetrics metrics = new CartMetrics() {
+            @Override
+            public void backgroundTaskFailed(String task) {
+                failures.add(task);
+            }
+        };
+        CartRegistry counted = new CartRegistry(catalog, inventoryService, repository, metrics, 16, IDLE_TIMEOUT, clock);
+        counted.getOrCreate("cart-1").addItem("SKU001", 1);
+        doThrow(new IllegalStateException("repository down")).when(repository).save(anyString(), any());
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        counted.scheduleEviction(scheduler, Duration.ofMinutes(1));
+        verify(scheduler).scheduleWithFixedDelay(task.capture(), anyLong(), anyLong(), any());
+
+        clock.advance(IDLE_TIMEOUT.plusSeconds(1));
+        task.getValue().run();
+
+        assertEquals(List.of("evict"), failures);
+        assertEquals(1, counted.size());
+    }
+
+    @Test
+    void testDiscardIfEmptyDropsOnlyUnchangedEmptyCarts() {
+        ConcurrentCart empty = registry.getOrCreate("cart-1");
+        ConcurrentCart filled = registry.getOrCreate("cart-2");
+        filled.addItem("SKU001", 1);
+        registry.save("cart-2", filled);
+
+        assertFalse(registry.discardIfEmpty("cart-2", filled));
+        assertFalse(registry.discardIfEmpty("cart-1", filled));
+        assertTrue(registry.discardIfEmpty("cart-1", empty));
+
+        assertEquals(1, registry.size());
+        verify(repository, never()).delete(anyString());
+    }
+
+    @Test
+    void testRepriceVisitsOnlyCartsHoldingChangedSkus() {
+        registry.getOrCreate("cart-1").addItem("SKU001", 1);
+        registry.getOrCreate("cart-2").addItem("SKU002", 2);
+        ConcurrentCart both = registry.getOrCreate("cart-3");
+        both.addItem("SKU001", 2);
+        both.addItem("SKU002", 1);
+        catalog.applyDelta(CatalogDelta.of(100, List.of(new Product("SKU001", "Laptop", 899.99)), List.of()));
+
+        RepricingResult result = registry.reprice(Set.of("SKU001"));
+
+        assertEquals(2, result.getCartsVisited());
+        assertEquals(2, result.getCartsChanged());
+        assertEquals(2, result.getLinesChanged());
+        assertEquals(89999, registry.find("cart-1").getTotalInCents());
+        assertEquals(2 * 89999 + 2999, both.getTotalInCents());
+        assertEquals(2, both.getItems().get("SKU001").getQuantity());
+        assertEquals(2 * 2999, registry.find("cart-2").getTotalInCents());
+        assertEquals(7, inventoryService.getAvailable("SKU001"));
+
+        RepricingResult again = registry.reprice(Set.of("SKU001"));
+
+        assertEquals(2, again.getCartsVisited());
+        assertEquals(0, again.getCartsChanged());
+        assertEquals(0, registry.reprice(Set.of("SKU-UNKNOWN")).getCartsVisited());
+    }
+
+    @Test
+    void testRestoredCartsAreIndexedAndEvictedCartsAreNot() {
+        when(repository.load("cart-1")).thenReturn(CartSnapshot.empty().with(new CartLine("SKU001", 1, 99999)));
+        ConcurrentCart restored = registry.find("cart-1");
+        ConcurrentCart idle = registry.getOrCreate("cart-2");
+        idle.addItem("SKU001", 1);
+        clock.advance(IDLE_TIMEOUT.plusSeconds(1));
+        registry.find("cart-1");
+        registry.evictIdle();
+        catalog.addProduct(new Product("SKU001", "Laptop", 949.99));
+
+        RepricingResult result = registry.reprice(Set.of("SKU001"));
+
+        assertEquals(1, result.getCartsVisited());
+        assertEquals(94999, restored.getTotalInCents());
+        assertEquals(99999, idle.getTotalInCents());
+    }
+
+    @Test
+    void testRemovedLinesAreVisitedButNotChanged() {
+        ConcurrentCart cart = registry.getOrCreate("cart-1");
+        cart.addItem("SKU001", 1);
+        cart.addItem("SKU002", 1);
+        cart.removeItem("SKU001");
+        catalog.addProduct(new Product("SKU001", "Laptop", 949.99));
+
+        RepricingResult result = registry.reprice(Set.of("SKU001"));
+
+        assertEquals(1, result.getCartsVisited());
+        assertEquals(0, result.getLinesChanged());
+        assertEquals(2999, cart.getTotalInCents());
+    }
+
+    @Test
+    void testRepricingListenerFollowsCatalogChanges() {
+        ConcurrentCart cart = registry.getOrCreate("cart-1");
+        cart.addItem("SKU001", 1);
+        cart.addItem("SKU002", 1);
+        catalog.addChangeListener(registry.repricingListener(Runnable::run));
+
+        catalog.applyDelta(CatalogDelta.of(100, List.of(new Product("SKU002", "Mouse", 19.99)), List.of("SKU001")));
+
+        assertEquals(99999 + 1999, cart.getTotalInCents());
+
+        catalog.loadProducts(List.of(new Product("SKU001", "Laptop", 799.99), new Product("SKU002", "Mouse", 9.99)));
+
+        assertEquals(79999 + 999, cart.getTotalInCents());
+        assertThrows(IllegalArgumentException.class, () -> registry.repricingListener(null));
+        assertThrows(IllegalArgumentException.class, () -> registry.reprice(null));
+    }
+}
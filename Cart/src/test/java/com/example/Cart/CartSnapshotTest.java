@@ -0,0 +1,95 @@
+package com.example.Cart;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for persistent cart snapshots.
+ */
+class CartSnapshotTest {
+
+    @Test
+    void testOlderVersionsAreUnaffectedByChanges() {
+        CartSnapshot v1 = CartSnapshot.empty().with(new CartLine("SKU001", 1, 99999));
+        CartSnapshot v2 = v1.with(new CartLine("SKU002", 2, 2999));
+        CartSnapshot v3 = v2.with(new CartLine("SKU001", 3, 99999)).without("SKU002");
+
+        assertEquals(1, v1.get("SKU001").getQuantity());
+        assertNull(v1.get("SKU002"));
+        assertEquals(2, v2.size());
+        assertEquals(99999 + 2 * 2999, v2.getTotalInCents());
+        assertEquals(1, v3.size());
+        assertEquals(3 * 99999, v3.getTotalInCents());
+        assertEquals(3, v3.getTotalQuantity());
+        assertEquals(0, CartSnapshot.empty().size());
+    }
+
+    @Test
+    void testVersionIncreasesOnEveryChange() {
+        CartSnapshot empty = CartSnapshot.empty();
+        CartSnapshot added = empty.with(new CartLine("SKU001", 1, 100));
+        CartSnapshot replaced = added.with(new CartLine("SKU001", 2, 100));
+        CartSnapshot removed = replaced.without("SKU001");
+
+        assertEquals(0, empty.getVersion());
+        assertEquals(1, added.getVersion());
+        assertEquals(2, replaced.getVersion());
+        assertEquals(3, removed.getVersion());
+        assertSame(removed, removed.without("SKU001"), "Removing a missing SKU is not a change");
+    }
+
+    @Test
+    void testMapViewIsOrderedAndUnmodifiable() {
+        CartSnapshot snapshot = CartSnapshot.empty()
+                .with(new CartLine("C", 1, 1))
+                .with(new CartLine("A", 1, 1))
+                .with(new CartLine("B", 1, 1));
+        Map<String, CartLine> map = snapshot.asMap();
+
+        assertEquals(List.of("A", "B", "C"), new ArrayList<>(map.keySet()));
+        assertEquals(1, map.get("B").getQuantity());
+        assertTrue(map.containsKey("C"));
+        assertThrows(UnsupportedOperationException.class, () -> map.put("D", new CartLine("D", 1, 1)));
+        assertThrows(UnsupportedOperationException.class, () -> map.entrySet().iterator().remove());
+    }
+
+    @Test
+    void testRandomChangesMatchSortedMap() {
+        Random random = new Random(7);
+        TreeMap<String, CartLine> expected = new TreeMap<>();
+        CartSnapshot snapshot = CartSnapshot.empty();
+        List<CartSnapshot> history = new ArrayList<>();
+        List<Map<String, CartLine>> expectedHistory = new ArrayList<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            String sku = "SKU" + random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                expected.remove(sku);
+                snapshot = snapshot.without(sku);
+            } else {
+                CartLine line = new CartLine(sku, 1 + random.nextInt(9), random.nextInt(10_000));
+                expected.put(sku, line);
+                snapshot = snapshot.with(line);
+            }
+            if (step % 500 == 0) {
+                history.add(snapshot);
+                expectedHistory.add(new TreeMap<>(expected));
+            }
+        }
+
+        assertEquals(expected, snapshot.asMap());
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(snapshot.asMap().keySet()));
+        long total = expected.values().stream().mapToLong(CartLine::getSubtotalInCents).sum();
+        assertEquals(total, snapshot.getTotalInCents());
+        for (int i = 0; i < history.size(); i++) {
+            assertEquals(expectedHistory.get(i), history.get(i).asMap(), "Version " + i + " changed");
+        }
+    }
+}
@@ -2,6 +2,13 @@ package com.example.Cart;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -225,4 +232,192 @@ class CartTest {
                 () -> new Cart(catalog, null)
         );
     }
-}
\ No newline at end of file
+
+    // ========== Bulk add ==========
+
+    @Test
+    void testAddItemsChecksInventoryInOneCall() {
+        when(inventoryService.getAvailable(anyCollection())).thenReturn(Map.of("SKU001", 5, "SKU002", 10));
+
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        lines.put("SKU001", 2);
+        lines.put("SKU002", 3);
+        cart.addItems(lines);
+
+        assertEquals(2, cart.getItemCount());
+        assertEquals(2089.95, cart.getTotal(), 0.01);
+        verify(inventoryService, times(1)).getAvailable(anyCollection());
+        verify(inventoryService, never()).getAvailable(anyString());
+    }
+
+    @Test
+    void testAddItemsIsAllOrNothing() {
+        when(inventoryService.getAvailable("SKU001")).thenReturn(10);
+        cart.addItem("SKU001", 4);
+        when(inventoryService.getAvailable(anyCollection())).thenReturn(Map.of("SKU001", 10, "SKU002", 1));
+
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        lines.put("SKU002", 5);
+        lines.put("SKU001", 8);
+        InsufficientInventoryException exception = assertThrows(
+                InsufficientInventoryException.class,
+                () -> cart.addItems(lines)
+        );
+
+        assertEquals("SKU002", exception.getSku(), "First failing line should be reported");
+        assertEquals(1, cart.getItemCount());
+        assertEquals(4, cart.getItems().get("SKU001").getQuantity());
+        assertFalse(cart.hasItem("SKU002"));
+    }
+
+    @Test
+    void testAddItemsWithUnknownSkuAddsNothing() {
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        lines.put("SKU001", 1);
+        lines.put("INVALID_SKU", 1);
+
+        assertThrows(IllegalArgumentException.class, () -> cart.addItems(lines));
+
+        assertEquals(0, cart.getItemCount());
+        verifyNoInteractions(inventoryService);
+    }
+
+    @Test
+    void testTotalIsExactInCents() {
+        catalog.addProduct(new Product("SKU003", "Sticker", 0.10));
+        catalog.addProduct(new Product("SKU004", "Pin", 0.20));
+        when(inventoryService.getAvailable(anyString())).thenReturn(100);
+
+        cart.addItem("SKU003", 3);
+        cart.addItem("SKU004", 1);
+
+        assertEquals(50, cart.getTotalInCents());
+        assertEquals(0.5, cart.getTotal(), 0.0);
+        assertEquals(new BigDecimal("0.50"), cart.getTotalAsBigDecimal());
+        assertEquals(30, cart.getItems().get("SKU003").getSubtotalInCents());
+    }
+
+    @Test
+    void testTotalMatchesBigDecimalCalculation() {
+        when(inventoryService.getAvailable(anyString())).thenReturn(1_000);
+        BigDecimal expected = BigDecimal.ZERO;
+        double[] prices = {0.01, 0.07, 1.15, 19.99, 333.33, 4.35};
+        for (int i = 0; i < prices.length; i++) {
+            String sku = "PRICE" + i;
+            catalog.addProduct(new Product(sku, "Item " + i, prices[i]));
+            cart.addItem(sku, 7 + i);
+            expected = expected.add(BigDecimal.valueOf(prices[i]).multiply(BigDecimal.valueOf(7 + i)));
+        }
+
+        assertEquals(0, expected.compareTo(cart.getTotalAsBigDecimal()));
+        assertEquals(expected.doubleValue(), cart.getTotal(), 0.0);
+    }
+
+    @Test
+    void testRunningTotalsFollowDirectItemChanges() {
+        when(inventoryService.getAvailable(anyString())).thenReturn(100);
+        cart.addItem("SKU001", 1);
+        cart.addItem("SKU002", 2);
+        CartItem mouseItem = cart.getItems().get("SKU002");
+
+        mouseItem.setQuantity(5);
+        mouseItem.setPrice(10.00);
+
+        assertEquals(99999 + 5 * 1000, cart.getTotalInCents());
+        assertEquals(6, cart.getTotalQuantity());
+
+        cart.removeItem("SKU002");
+        mouseItem.setQuantity(50);
+
+        assertEquals(99999, cart.getTotalInCents(), "Removed items no longer count");
+        assertEquals(1, cart.getTotalQuantity());
+    }
+
+    @Test
+    void testRunningTotalsAlwaysMatchRecomputation() {
+        when(inventoryService.getAvailable(anyString())).thenReturn(Integer.MAX_VALUE);
+        for (int i = 0; i < 10; i++) {
+            catalog.addProduct(new Product("RND" + i, "Item " + i, 0.01 + i * 3.37));
+        }
+        Random random = new Random(42);
+
+        for (int step = 0; step < 2_000; step++) {
+            String sku = "RND" + random.nextInt(10);
+            CartItem item = cart.getItems().get(sku);
+            switch (random.nextInt(4)) {
+                case 0 -> cart.addItem(sku, 1 + random.nextInt(5));
+                case 1 -> {
+                    if (item != null) cart.removeItem(sku);
+                }
+                case 2 -> {
+                    if (item != null) item.setQuantity(1 + random.nextInt(20));
+                }
+                default -> {
+                    if (item != null) item.setPriceInCents(random.nextInt(100_000));
+                }
+            }
+
+            long expectedTotal = 0;
+            long expectedQuantity = 0;
+            for (CartItem line : cart.getItems().values()) {
+                expectedTotal += line.getSubtotalInCents();
+                expectedQuantity += line.getQuantity();
+            }
+            assertEquals(expectedTotal, cart.getTotalInCents(), "Total diverged at step " + step);
+            assertEquals(expectedQuantity, cart.getTotalQuantity(), "Quantity diverged at step " + step);
+        }
+    }
+
+    @Test
+    void testOverflowingChangeLeavesCartUnchanged() {
+        catalog.addProduct(new Product("BIG", "Yacht", 90_000_000_000_000.00));
+        when(inventoryService.getAvailable(anyString())).thenReturn(Integer.MAX_VALUE);
+        cart.addItem("BIG", 1);
+        CartItem item = cart.getItems().get("BIG");
+
+        assertThrows(ArithmeticException.class, () -> item.setQuantity(2_000_000));
+
+        assertEquals(1, item.getQuantity());
+        assertEquals(item.getSubtotalInCents(), cart.getTotalInCents());
+        assertEquals(1, cart.getTotalQuantity());
+    }
+
+    @Test
+    void testSnapshotIsImmutableAndVersioned() {
+        when(inventoryService.getAvailable(anyString())).thenReturn(100);
+        cart.addItem("SKU001", 1);
+        CartSnapshot before = cart.snapshot();
+
+        cart.addItem("SKU002", 2);
+        cart.getItems().get("SKU001").setQuantity(4);
+        CartSnapshot after = cart.snapshot();
+
+        assertEquals(1, before.size());
+        assertEquals(1, before.get("SKU001").getQuantity());
+        assertEquals(4, after.get("SKU001").getQuantity());
+        assertEquals(cart.getTotalInCents(), after.getTotalInCents());
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(after.getVersion(), cart.getVersion());
+
+        cart.removeItem("SKU002");
+        assertFalse(cart.snapshot().contains("SKU002"));
+        assertTrue(after.contains("SKU002"));
+    }
+
+    @Test
+    void testRepriceUpdatesItemsAndTotals() {
+        when(inventoryService.getAvailable(anyString())).thenReturn(100);
+        cart.addItem("SKU001", 2);
+        cart.addItem("SKU002", 1);
+        catalog.addProduct(new Product("SKU001", "Laptop", 899.99));
+        catalog.addProduct(new Product("SKU002", "Mouse", 19.99));
+
+        assertEquals(1, cart.reprice(Set.of("SKU001")));
+
+        assertEquals(89999, cart.getItems().get("SKU001").getPriceInCents());
+        assertEquals(2999, cart.getItems().get("SKU002").getPriceInCents());
+        assertEquals(2 * 89999 + 2999, cart.getTotalInCents());
+        assertEquals(cart.getTotalInCents(), cart.snapshot().getTotalInCents());
+        assertEquals(0, cart.reprice(Set.of("SKU001")));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.Cart;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests for a thread-safe catalog shared by readers while a feed writes to it.
+ */
+@DisplayName("Catalog Concurrency Tests")
+public class CatalogConcurrencyTest {
+
+    private static final int BATCHES = 200;
+    private static final int BATCH_SIZE = 20;
+
+    @Test
+    @DisplayName("Readers should only ever see whole batches while a writer runs")
+    public void testReadersNeverSeePartialBatches() throws Exception {
+        Catalog catalog = Catalog.threadSafe();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        int readers = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+        ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            Future<?> writer = executor.submit(() -> {
+                start.await();
+                for (int batch = 0; batch < BATCHES; batch++) {
+                    catalog.addProducts(batch(batch));
+                    if (batch > 0) {
+                        catalog.removeProduct("B" + (batch - 1) + "-0");
+                    }
+                }
+                writing.set(false);
+                return null;
+            });
+
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                results.add(executor.submit(() -> readUntilDone(catalog, writing, start)));
+            }
+            start.countDown();
+
+            writer.get(30, TimeUnit.SECONDS);
+            long totalReads = 0;
+            for (Future<Long> result : results) {
+                totalReads += result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertTrue(totalReads > 0, "Readers should make progress while the writer runs");
+            assertEquals(BATCHES * BATCH_SIZE - (BATCHES - 1), catalog.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Failed batch should not be published")
+    public void testFailedBatchIsNotPublished() {
+        Catalog catalog = Catalog.threadSafe();
+        List<Product> products = new ArrayList<>(batch(0));
+        products.add(null);
+
+        assertThrows(IllegalArgumentException.class, () -> catalog.addProducts(products));
+
+        assertTrue(catalog.isEmpty(), "No product from the failed batch should be visible");
+    }
+
+    private static long readUntilDone(Catalog catalog, AtomicBoolean writing, CountDownLatch start)
+            throws InterruptedException {
+        start.await();
+        long reads = 0;
+        while (writing.get()) {
+            for (int batch = 0; batch < BATCHES; batch++) {
+                Product first = catalog.findProductBySku("B" + batch + "-1");
+                if (first == null) {
+                    break;
+                }
+                // The last product of a batch is visible whenever its first one is.
+                assertTrue(catalog.containsProduct("B" + batch + "-" + (BATCH_SIZE - 1)));
+                reads += 2;
+            }
+            Map<String, Long> perBatch = catalog.getAllProducts().stream()
+                    .collect(Collectors.groupingBy(p -> p.getSku().substring(0, p.getSku().indexOf('-')),
+                            Collectors.counting()));
+            for (long count : perBatch.values()) {
+                // A batch is either complete or complete minus its removed first product.
+                assertTrue(count == BATCH_SIZE || count == BATCH_SIZE - 1, "Torn batch of size " + count);
+            }
+            reads++;
+        }
+        return reads;
+    }
+
+    private static List<Product> batch(int batch) {
+        List<Product> products = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            products.add(new Product("B" + batch + "-" + i, "Product " + batch + "-" + i, i));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,409 @@
+package com.example.Cart;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.Cart.TestSupport.skus;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Versioned catalog delta and change listener tests
+ */
+@DisplayName("Catalog Delta Tests")
+public class CatalogDeltaTest {
+
+    private static final String[] WORDS = {"Laptop", "Mouse", "Keyboard", "Monitor", "Cable", "USB", "Pro"};
+
+    private Catalog catalog;
+    private RecordingListener listener;
+
+    @BeforeEach
+    public void setUp() {
+        catalog = Catalog.threadSafe();
+        catalog.addProducts(List.of(
+                new Product("SKU-001", "Laptop", 999.99),
+                new Product("SKU-002", "Mouse", 29.99),
+                new Product("SKU-003", "Keyboard", 79.99)));
+        listener = new RecordingListener();
+        catalog.addChangeListener(listener);
+    }
+
+    @Test
+    @DisplayName("Should apply upserts and deletes and move to the delta's version")
+    public void testApplyDelta() {
+        // Act
+        CatalogChange change = catalog.applyDelta(CatalogDelta.of(10,
+                List.of(new Product("SKU-001", "Laptop", 899.99), new Product("SKU-004", "Monitor", 199.99)),
+                List.of(" SKU-002 ")));
+
+        // Assert
+        assertEquals(10, catalog.getVersion());
+        assertEquals(10, change.getVersion());
+        assertEquals(Set.of("SKU-001", "SKU-004"), change.getUpsertedSkus());
+        assertEquals(Set.of("SKU-002"), change.getDeletedSkus());
+        assertEquals(3, catalog.size());
+        assertEquals(89999, catalog.findProductBySku("SKU-001").getPriceInCents());
+        assertNull(catalog.findProductBySku("SKU-002"));
+        assertEquals(List.of(change), listener.changes);
+    }
+
+    @Test
+    @DisplayName("Should report only the SKUs whose product actually changed")
+    public void testSkipsUnchangedProducts() {
+        // Act
+        CatalogChange change = catalog.applyDelta(CatalogDelta.of(5,
+                List.of(new Product("SKU-001", "Laptop", 999.99), new Product("SKU-002", "Wireless Mouse", 29.99)),
+                List.of("SKU-MISSING")));
+        catalog.addProduct(new Product("SKU-003", "Keyboard", 79.99));
+        boolean removed = catalog.removeProduct("SKU-MISSING");
+
+        // Assert
+        assertEquals(Set.of("SKU-002"), change.getUpsertedSkus());
+        assertTrue(change.getDeletedSkus().isEmpty());
+        assertFalse(removed);
+        assertEquals(5, catalog.getVersion());
+        assertEquals(1, listener.changes.size());
+    }
+
+    @Test
+    @DisplayName("Should move to an empty delta's version without notifying listeners")
+    public void testEmptyDelta() {
+        CatalogChange change = catalog.applyDelta(CatalogDelta.of(7, List.of(), List.of()));
+
+        assertTrue(change.isEmpty());
+        assertEquals(7, catalog.getVersion());
+        assertTrue(listener.changes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject deltas that are not newer than the catalog")
+    public void testRejectsOldDelta() {
+        // Arrange
+        catalog.applyDelta(CatalogDelta.of(10, List.of(new Product("SKU-004", "Monitor", 199.99)), List.of()));
+        CatalogDelta stale = CatalogDelta.of(10, List.of(), List.of("SKU-001"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> catalog.applyDelta(stale));
+        assertThrows(IllegalArgumentException.class, () -> catalog.applyDelta(CatalogDelta.of(9, List.of(), List.of())));
+        assertEquals(10, catalog.getVersion());
+        assertTrue(catalog.containsProduct("SKU-001"));
+        assertEquals(1, listener.changes.size());
+    }
+
+    @Test
+    @DisplayName("Should reject deltas that name a SKU twice")
+    public void testRejectsDuplicateSku() {
+        Product laptop = new Product("SKU-001", "Laptop", 999.99);
+
+        assertThrows(IllegalArgumentException.class, () -> CatalogDelta.of(1, List.of(laptop, laptop), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> CatalogDelta.of(1, List.of(laptop), List.of(" SKU-001")));
+        assertThrows(IllegalArgumentException.class, () -> CatalogDelta.of(0, List.of(), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> catalog.applyDelta(null));
+    }
+
+    @Test
+    @DisplayName("Should leave the feed version to deltas and report replacements")
+    public void testOrdinaryWritesKeepFeedVersion() {
+        // Arrange
+        catalog.applyDelta(CatalogDelta.of(5, List.of(new Product("SKU-004", "Monitor", 199.99)), List.of()));
+        long changes = catalog.getChangeCount();
+
+        // Act
+        catalog.addProduct(new Product("SKU-005", "Cable", 4.99));
+        catalog.removeProduct("SKU-001");
+        CatalogChange next = catalog.applyDelta(CatalogDelta.of(6, List.of(), List.of("SKU-002")));
+        catalog.loadProducts(List.of(new Product("SKU-009", "Cable", 9.99)));
+        catalog.clear();
+
+        // Assert
+        assertEquals(6, next.getVersion());
+        assertEquals(6, catalog.getVersion());
+        assertEquals(changes + 5, catalog.getChangeCount());
+        assertEquals(List.of(Set.of("SKU-004"), Set.of("SKU-005"), Set.of(), Set.of()), listener.changes.stream()
+                .map(CatalogChange::getUpsertedSkus).toList());
+        assertEquals(List.of(5L, 5L, 5L, 6L), listener.changes.stream().map(CatalogChange::getVersion).toList());
+        assertEquals(Set.of("SKU-001"), listener.changes.get(2).getDeletedSkus());
+        assertEquals(List.of(6L, 6L), listener.replacements);
+    }
+
+    @Test
+    @DisplayName("Should notify listeners outside the write lock, in write order")
+    public void testListenersDoNotHoldUpWriters() throws Exception {
+        // Arrange
+        CountDownLatch inListener = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> order = new CopyOnWriteArrayList<>();
+        catalog.addChangeListener(new CatalogChangeListener() {
+            @Override
+            public void onCatalogChanged(CatalogChange change) {
+                order.add(change.getVersion());
+                if (change.getVersion() == 1) {
+                    inListener.countDown();
+                    awaitQuietly(release);
+                }
+            }
+
+            @Override
+            public void onCatalogReplaced(long version) {
+            }
+        });
+        Thread slow = new Thread(() -> catalog.applyDelta(
+                CatalogDelta.of(1, List.of(new Product("SKU-004", "Monitor", 199.99)), List.of())));
+        slow.start();
+        assertTrue(inListener.await(5, TimeUnit.SECONDS));
+
+        // Act: these writes would block on the write lock if the listener still held it
+        catalog.applyDelta(CatalogDelta.of(2, List.of(new Product("SKU-005", "Cable", 4.99)), List.of()));
+        catalog.addProduct(new Product("SKU-006", "USB", 2.99));
+        assertTrue(catalog.containsProduct("SKU-006"));
+        release.countDown();
+        slow.join(5_000);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 2L), order);
+        assertEquals(3, listener.changes.size());
+    }
+
+    @Test
+    @DisplayName("Should stop notifying a removed listener")
+    public void testRemoveListener() {
+        catalog.removeChangeListener(listener);
+        catalog.addProduct(new Product("SKU-004", "Monitor", 199.99));
+
+        assertTrue(listener.changes.isEmpty());
+        assertThrows(NullPointerException.class, () -> catalog.addChangeListener(null));
+    }
+
+    @Test
+    @DisplayName("Should answer queries like a freshly built catalog after many deltas")
+    public void testQueriesMatchRebuiltCatalog() {
+        for (Catalog.Storage storage : Catalog.Storage.values()) {
+            // Arrange
+            Catalog deltas = Catalog.create(storage, true);
+            Catalog reference = new Catalog();
+            Random random = new Random(11);
+            List<Product> initial = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                initial.add(randomProduct(random, i));
+            }
+            deltas.addProducts(initial);
+            reference.addProducts(initial);
+
+            // Act: enough distinct SKUs change to fold the overlay into the base at least once
+            long version = deltas.getVersion();
+            for (int batch = 0; batch < 60; batch++) {
+                List<Product> upserts = new ArrayList<>();
+                List<String> deletes = new ArrayList<>();
+                Set<String> seen = new HashSet<>();
+                for (int i = 0; i < 100; i++) {
+                    int id = random.nextInt(20_000);
+                    if (!seen.add("SKU-" + id)) {
+                        continue;
+                    }
+                    if (random.nextInt(5) == 0) {
+                        deletes.add("SKU-" + id);
+                        reference.removeProduct("SKU-" + id);
+                    } else {
+                        Product product = randomProduct(random, id);
+                        upserts.add(product);
+                        reference.addProduct(product);
+                    }
+                }
+                version += 1 + random.nextInt(3);
+                deltas.applyDelta(CatalogDelta.of(version, upserts, deletes));
+
+                // Assert
+                if (batch % 10 == 9) {
+                    assertSameQueries(reference, deltas);
+                }
+            }
+            assertEquals(version, deltas.getVersion());
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply deltas to a mapped snapshot without touching the file")
+    public void testDeltaOnMappedSnapshot(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("catalog.snapshot");
+        Catalog reference = new Catalog();
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            reference.addProduct(randomProduct(random, i));
+        }
+        reference.writeSnapshot(file, 100);
+        Catalog mapped = Catalog.openSnapshot(file, 100);
+        List<Product> upserts = List.of(randomProduct(random, 7), randomProduct(random, 900));
+
+        // Act
+        assertEquals(100, mapped.getVersion());
+        mapped.applyDelta(CatalogDelta.of(101, upserts, List.of("SKU-8")));
+        upserts.forEach(reference::addProduct);
+        reference.removeProduct("SKU-8");
+
+        // Assert
+        assertEquals(101, mapped.getVersion());
+        assertSameQueries(reference, mapped);
+        assertEquals(500, Catalog.openSnapshot(file, 100).size());
+    }
+
+    @Test
+    @DisplayName("Should keep the overlay shallow and fold large change sets into the base")
+    public void testOverlayLayering() {
+        // Arrange
+        CatalogState base = new IndexedCatalogState(0);
+        for (int i = 0; i < 1000; i++) {
+            base.put(Product.ofCents("SKU-" + i, "Laptop " + i, 100));
+        }
+        OverlayCatalogState state = new OverlayCatalogState(base);
+
+        // Act & Assert: one write per product, as addProduct does
+        int compactions = 0;
+        for (int i = 0; i < 10_000; i++) {
+            OverlayCatalogState next = state.copy();
+            if (next.getDepth() == 1 && next.getChangeCount() == 0) {
+                compactions++;
+            }
+            next.put(Product.ofCents("SKU-" + (1000 + i), "Mouse " + i, 200));
+            state = next;
+            assertTrue(state.getDepth() <= 14, "depth " + state.getDepth() + " after " + i + " writes");
+        }
+        assertTrue(compactions > 0);
+        assertEquals(11_000, state.size());
+        assertEquals(11_000, state.products().size());
+
+        state = state.copy();
+        assertTrue(state.remove("SKU-0"));
+        assertFalse(state.remove("SKU-0"));
+        assertEquals(10_999, state.size());
+        assertNull(state.get("SKU-0"));
+        assertEquals("Mouse 9999", state.get("SKU-10999").getName());
+        assertEquals(List.of("SKU-9998", "SKU-9999"), state.findByPriceRange(200, 200, 9998, 10, false)
+                .stream().map(Product::getSku).sorted().toList());
+        assertEquals(1000, base.size());
+    }
+
+    @Test
+    @DisplayName("Should page price queries through unfolded overlay layers at every offset")
+    public void testOverlayPricePagesAtEveryOffset(@TempDir Path tempDir) throws IOException {
+        Random random = new Random(5);
+        List<Product> initial = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            initial.add(randomProduct(random, i));
+        }
+        Catalog snapshot = new Catalog();
+        snapshot.addProducts(initial);
+        snapshot.writeSnapshot(tempDir.resolve("catalog.snapshot"), 1);
+
+        List<Catalog> catalogs = new ArrayList<>();
+        for (Catalog.Storage storage : Catalog.Storage.values()) {
+            Catalog catalog = Catalog.create(storage, true);
+            catalog.addProducts(initial);
+            catalogs.add(catalog);
+        }
+        catalogs.add(Catalog.openSnapshot(tempDir.resolve("catalog.snapshot"), 1));
+        Catalog reference = new Catalog();
+        reference.addProducts(initial);
+
+        // Act: few enough changes that every catalog keeps them in overlay layers
+        long version = 1;
+        for (int batch = 0; batch < 12; batch++) {
+            List<Product> upserts = new ArrayList<>();
+            List<String> deletes = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < 15; i++) {
+                int id = random.nextInt(500);
+                if (!seen.add("SKU-" + id)) {
+                    continue;
+                }
+                if (random.nextInt(4) == 0) {
+                    deletes.add("SKU-" + id);
+                    reference.removeProduct("SKU-" + id);
+                } else {
+                    Product product = randomProduct(random, id);
+                    upserts.add(product);
+                    reference.addProduct(product);
+                }
+            }
+            version++;
+            for (Catalog catalog : catalogs) {
+                catalog.applyDelta(CatalogDelta.of(version, upserts, deletes));
+            }
+
+            // Assert
+            for (Catalog catalog : catalogs) {
+                for (boolean descending : new boolean[]{false, true}) {
+                    for (double[] range : new double[][]{{0, Double.MAX_VALUE}, {50, 120}}) {
+                        List<Product> all = reference.findProductsByPriceRange(range[0], range[1], 0, Integer.MAX_VALUE, descending);
+                        for (int offset = 0; offset <= all.size(); offset += 7) {
+                            assertEquals(all.subList(offset, Math.min(all.size(), offset + 10)),
+                                    catalog.findProductsByPriceRange(range[0], range[1], offset, 10, descending),
+                                    "offset " + offset + (descending ? " descending" : ""));
+                        }
+                    }
+                }
+                assertEquals(skus(reference.findProductsByName("pro")), skus(catalog.findProductsByName("pro")));
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Product randomProduct(Random random, int id) {
+        String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+        return Product.ofCents("SKU-" + id, name, random.nextInt(300) * 100L + 99);
+    }
+
+    private static void assertSameQueries(Catalog expected, Catalog actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(Set.copyOf(expected.getAllProducts()), Set.copyOf(actual.getAllProducts()));
+        for (Product product : expected.getAllProducts()) {
+            Product found = actual.findProductBySku(product.getSku());
+            assertEquals(product.getName(), found.getName());
+            assertEquals(product.getPriceInCents(), found.getPriceInCents());
+        }
+        for (String term : new String[]{"laptop", "mouse 1", "usb pro", "99", "zzz"}) {
+            assertEquals(skus(expected.findProductsByName(term)), skus(actual.findProductsByName(term)), term);
+        }
+        for (boolean descending : new boolean[]{false, true}) {
+            assertEquals(expected.findProductsByPriceRange(10, 200, 0, Integer.MAX_VALUE, descending),
+                    actual.findProductsByPriceRange(10, 200, 0, Integer.MAX_VALUE, descending));
+            assertEquals(expected.findProductsByPriceRange(0, Double.MAX_VALUE, 40, 25, descending),
+                    actual.findProductsByPriceRange(0, Double.MAX_VALUE, 40, 25, descending));
+        }
+    }
+
+    private static class RecordingListener implements CatalogChangeListener {
+        private final List<CatalogChange> changes = new ArrayList<>();
+        private final List<Long> replacements = new ArrayList<>();
+
+        @Override
+        public void onCatalogChanged(CatalogChange change) {
+            changes.add(change);
+        }
+
+        @Override
+        public void onCatalogReplaced(long version) {
+            replacements.add(version);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.Cart;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Catalog importer tests for CSV and NDJSON feeds
+ */
+@DisplayName("Catalog Importer Tests")
+public class CatalogImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Catalog catalog;
+
+    @BeforeEach
+    public void setUp() {
+        catalog = new Catalog();
+    }
+
+    @Test
+    @DisplayName("Should import CSV rows with header, quoted fields and CRLF line endings")
+    public void testImportCsv() throws IOException {
+        // Arrange
+        Path file = write("feed.csv", "sku,name,price\r\n"
+                + "SKU-001,Laptop,999.99\r\n"
+                + "SKU-002,\"Mouse, wireless\",29.99\r\n"
+                + "SKU-003,\"12\"\" Ruler\",1.5");
+
+        // Act
+        CatalogImporter.Result result = new CatalogImporter(catalog).importFile(file, CatalogImporter.Format.CSV);
+
+        // Assert
+        assertEquals(3, result.getAccepted());
+        assertEquals(0, result.getRejected());
+        assertEquals("Mouse, wireless", catalog.findProductBySku("SKU-002").getName());
+        assertEquals("12\" Ruler", catalog.findProductBySku("SKU-003").getName());
+        assertEquals(999.99, catalog.findProductBySku("SKU-001").getPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON rows and ignore unknown members")
+    public void testImportNdjson() throws IOException {
+        // Arrange
+        Path file = write("feed.ndjson",
+                "{\"sku\":\"SKU-001\",\"name\":\"Caf\\u00e9 Mug\",\"price\":12.5,\"tags\":\"kitchen\"}\n"
+                        + "{ \"price\": 3, \"name\": \"Pen \\\"Blue\\\"\", \"sku\": \"SKU-002\", \"active\": true }\n");
+
+        // Act
+        CatalogImporter.Result result = new CatalogImporter(catalog).importFile(file, CatalogImporter.Format.NDJSON);
+
+        // Assert
+        assertEquals(2, result.getAccepted());
+        assertEquals("Café Mug", catalog.findProductBySku("SKU-001").getName());
+        assertEquals("Pen \"Blue\"", catalog.findProductBySku("SKU-002").getName());
+        assertEquals(3.0, catalog.findProductBySku("SKU-002").getPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should report rejected rows without stopping the import")
+    public void testRejectedRowsAreReported() throws IOException {
+        // Arrange
+        Path file = write("feed.csv", "SKU-001,Laptop,999.99\n"
+                + "SKU-002,Mouse,-1\n"
+                + "SKU-003,,5\n"
+                + "SKU-004,Cable\n"
+                + "SKU-005,Stand,abc\n"
+                + "SKU-006,Keyboard,79.99\n");
+
+        // Act
+        CatalogImporter.Result result = new CatalogImporter(catalog).importFile(file, CatalogImporter.Format.CSV);
+
+        // Assert
+        assertEquals(2, result.getAccepted());
+        assertEquals(4, result.getRejected());
+        assertEquals(List.of(2L, 3L, 4L, 5L), result.getRejectedRows().stream()
+                .map(CatalogImporter.RejectedRow::getLineNumber).toList());
+        assertTrue(result.getRejectedRows().get(0).getReason().contains("price"));
+        assertTrue(catalog.containsProduct("SKU-006"));
+    }
+
+    @Test
+    @DisplayName("Should handle rows spanning mapped windows and report progress per batch")
+    public void testRowsSpanningWindowsAndProgress() throws IOException {
+        // Arrange
+        StringBuilder feed = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            feed.append("SKU-").append(i).append(",Product number ").append(i).append(',').append(i).append(".25\n");
+        }
+        Path file = write("feed.csv", feed.toString());
+        List<Long> acceptedAtProgress = new ArrayList<>();
+
+        // Act
+        CatalogImporter.Result result = new CatalogImporter(catalog, 30, 64)
+                .importFile(file, CatalogImporter.Format.CSV,
+                        (bytesRead, totalBytes, accepted, rejected) -> acceptedAtProgress.add(accepted));
+
+        // Assert
+        assertEquals(100, result.getAccepted());
+        assertEquals(100, catalog.size());
+        assertEquals(57.25, catalog.findProductBySku("SKU-57").getPrice(), 0.001);
+        assertEquals(List.of(30L, 60L, 90L, 100L), acceptedAtProgress);
+    }
+
+    @Test
+    @DisplayName("Should reject a row longer than a mapped window and continue")
+    public void testOverlongRowIsRejected() throws IOException {
+        // Arrange
+        Path file = write("feed.csv", "SKU-001,Laptop,1.00\n"
+                + "SKU-002," + "x".repeat(200) + ",2.00\n"
+                + "SKU-003,Mouse,3.00\n");
+
+        // Act
+        CatalogImporter.Result result = new CatalogImporter(catalog, 10, 64)
+                .importFile(file, CatalogImporter.Format.CSV);
+
+        // Assert
+        assertEquals(2, result.getAccepted());
+        assertEquals(1, result.getRejected());
+        assertEquals(2, result.getRejectedRows().get(0).getLineNumber());
+        assertTrue(catalog.containsProduct("SKU-003"));
+    }
+
+    @Test
+    @DisplayName("Should reject a row whose price overflows and continue")
+    public void testOverflowingPriceIsRejected() throws IOException {
+        // Arrange
+        Path file = write("feed.csv", "A,Alpha,1.00\n"
+                + "B,Beta,1e30\n"
+                + "C,Gamma,3.00\n");
+
+        // Act
+        CatalogImporter.Result result = new CatalogImporter(catalog).importFile(file, CatalogImporter.Format.CSV);
+
+        // Assert
+        assertEquals(2, result.getAccepted());
+        assertEquals(1, result.getRejected());
+        assertEquals(2, result.getRejectedRows().get(0).getLineNumber());
+        assertEquals(2, catalog.size());
+        assertFalse(catalog.containsProduct("B"));
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(fileName), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.Cart;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.example.Cart.TestSupport.skus;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Catalog snapshot file tests, checked against the indexed storage
+ */
+@DisplayName("Catalog Snapshot Tests")
+public class CatalogSnapshotTest {
+
+    private static final String[] WORDS = {"Laptop", "Mouse", "Keyboard", "Monitor", "Cable", "Crème", "USB", "Pro"};
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+    private Catalog indexed;
+
+    @BeforeEach
+    public void setUp() {
+        file = tempDir.resolve("catalog.snapshot");
+        indexed = new Catalog();
+        Random random = new Random(7);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            products.add(Product.ofCents("SKU-" + i, name, random.nextInt(500) * 100L + 99));
+        }
+        products.add(new Product("SKU-é", "Crème Brûlée", 4.5));
+        indexed.addProducts(products);
+    }
+
+    @Test
+    @DisplayName("Should answer every query like the catalog it was written from")
+    public void testMatchesSourceCatalog() throws IOException {
+        // Act
+        indexed.writeSnapshot(file, 42);
+        Catalog mapped = Catalog.openSnapshot(file, 42);
+
+        // Assert
+        assertEquals(indexed.size(), mapped.size());
+        assertTrue(mapped.isThreadSafe());
+        assertEquals(Catalog.Storage.COLUMNAR, mapped.getStorage());
+        for (Product product : indexed.getAllProducts()) {
+            assertEquals(product, mapped.findProductBySku(product.getSku()));
+            assertEquals(product.getName(), mapped.findProductBySku(" " + product.getSku() + " ").getName());
+        }
+        assertNull(mapped.findProductBySku("SKU-MISSING"));
+        assertFalse(mapped.containsProduct("SKU-MISSING"));
+        assertEquals(Set.copyOf(indexed.getAllProducts()), Set.copyOf(mapped.getAllProducts()));
+
+        for (String term : new String[]{"l", "pr", "crè", "laptop", "mouse 1", "brûlée", "usb pro", "zzz", "ouse 19"}) {
+            assertEquals(skus(indexed.findProductsByName(term)), skus(mapped.findProductsByName(term)), term);
+        }
+
+        for (boolean descending : new boolean[]{false, true}) {
+            assertEquals(indexed.findProductsByPriceRange(10, 200, 0, Integer.MAX_VALUE, descending),
+                    mapped.findProductsByPriceRange(10, 200, 0, Integer.MAX_VALUE, descending));
+            assertEquals(indexed.findProductsByPriceRange(0, Double.MAX_VALUE, 25, 50, descending),
+                    mapped.findProductsByPriceRange(0, Double.MAX_VALUE, 25, 50, descending));
+            assertEquals(indexed.findProductsByPriceRange(4.5, 4.5, 0, 10, descending),
+                    mapped.findProductsByPriceRange(4.5, 4.5, 0, 10, descending));
+        }
+        assertTrue(mapped.findProductsByPriceRange(10_000, 20_000).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep writes to a mapped catalog off the file")
+    public void testWritesDoNotChangeFile() throws IOException {
+        // Arrange
+        indexed.writeSnapshot(file, 1);
+        byte[] written = Files.readAllBytes(file);
+        Catalog mapped = Catalog.openSnapshot(file, 1);
+
+        // Act
+        mapped.addProduct(new Product("SKU-NEW", "New Laptop", 10.0));
+        mapped.removeProduct("SKU-0");
+
+        // Assert
+        assertEquals(indexed.size(), mapped.size());
+        assertNotNull(mapped.findProductBySku("SKU-NEW"));
+        assertNull(mapped.findProductBySku("SKU-0"));
+        assertArrayEquals(written, Files.readAllBytes(file));
+        assertEquals(indexed.size(), Catalog.openSnapshot(file, 1).size());
+    }
+
+    @Test
+    @DisplayName("Should keep serving a mapped catalog when the file is replaced")
+    public void testReplacingFileKeepsOpenCatalog() throws IOException {
+        // Arrange
+        indexed.writeSnapshot(file, 1);
+        Catalog mapped = Catalog.openSnapshot(file, 1);
+
+        // Act
+        new Catalog().writeSnapshot(file, 2);
+
+        // Assert
+        assertEquals(indexed.size(), mapped.size());
+        assertEquals("Crème Brûlée", mapped.findProductBySku("SKU-é").getName());
+        assertEquals(0, Catalog.openSnapshot(file, 2).size());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a snapshot built from another source version")
+    public void testRejectsStaleSnapshot() throws IOException {
+        indexed.writeSnapshot(file, 41);
+
+        CatalogSnapshotException e = assertThrows(CatalogSnapshotException.class,
+                () -> Catalog.openSnapshot(file, 42));
+        assertEquals(CatalogSnapshotException.Reason.STALE, e.getReason());
+    }
+
+    @Test
+    @DisplayName("Should reject truncated and extended snapshots")
+    public void testRejectsTruncatedSnapshot() throws IOException {
+        indexed.writeSnapshot(file, 1);
+        long length = Files.size(file);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(length - 1);
+        }
+        assertEquals(CatalogSnapshotException.Reason.TRUNCATED,
+                assertThrows(CatalogSnapshotException.class, () -> Catalog.openSnapshot(file, 1)).getReason());
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(10);
+        }
+        assertEquals(CatalogSnapshotException.Reason.TRUNCATED,
+                assertThrows(CatalogSnapshotException.class, () -> Catalog.openSnapshot(file, 1)).getReason());
+
+        indexed.writeSnapshot(file, 1);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(length + 8);
+        }
+        assertEquals(CatalogSnapshotException.Reason.TRUNCATED,
+                assertThrows(CatalogSnapshotException.class, () -> Catalog.openSnapshot(file, 1)).getReason());
+    }
+
+    @Test
+    @DisplayName("Should reject snapshots whose bytes do not match their checksums")
+    public void testRejectsCorruptSnapshot() throws IOException {
+        indexed.writeSnapshot(file, 1);
+        long length = Files.size(file);
+
+        flipByte(length - 3);
+        assertEquals(CatalogSnapshotException.Reason.CORRUPT,
+                assertThrows(CatalogSnapshotException.class, () -> Catalog.openSnapshot(file, 1)).getReason());
+
+        indexed.writeSnapshot(file, 1);
+        flipByte(17);
+        assertEquals(CatalogSnapshotException.Reason.CORRUPT,
+                assertThrows(CatalogSnapshotException.class, () -> Catalog.openSnapshot(file, 1)).getReason());
+
+        Files.writeString(file, "product,name,price\n".repeat(10));
+        assertEquals(CatalogSnapshotException.Reason.CORRUPT,
+                assertThrows(CatalogSnapshotException.class, () -> Catalog.openSnapshot(file, 1)).getReason());
+    }
+
+    @Test
+    @DisplayName("Should round-trip an empty catalog")
+    public void testEmptyCatalog() throws IOException {
+        new Catalog().writeSnapshot(file, 0);
+        Catalog mapped = Catalog.openSnapshot(file, 0);
+
+        assertTrue(mapped.isEmpty());
+        assertNull(mapped.findProductBySku("SKU-1"));
+        assertTrue(mapped.findProductsByName("a").isEmpty());
+        assertTrue(mapped.findProductsByPriceRange(0, 100).isEmpty());
+    }
+
+    private void flipByte(long position) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0xFF);
+        }
+    }
+}
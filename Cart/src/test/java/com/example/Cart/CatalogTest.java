@@ -3,6 +3,14 @@ package com.example.Cart;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.example.Cart.TestSupport.skus;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -135,4 +143,254 @@ public class CatalogTest {
         // Assert
         assertNull(notFound, "Should return null for empty SKU");
     }
+
+    @Test
+    @DisplayName("Should return products within price range ordered by price")
+    public void testFindProductsByPriceRange() {
+        // Arrange
+        catalog.addProduct(new Product("SKU-001", "Laptop", 999.99));
+        catalog.addProduct(new Product("SKU-002", "Mouse", 29.99));
+        catalog.addProduct(new Product("SKU-003", "Keyboard", 79.99));
+        catalog.addProduct(new Product("SKU-004", "Cable", 9.99));
+
+        // Act
+        List<Product> results = catalog.findProductsByPriceRange(29.99, 79.99);
+
+        // Assert
+        assertEquals(2, results.size(), "Bounds should be inclusive");
+        assertEquals("SKU-002", results.get(0).getSku());
+        assertEquals("SKU-003", results.get(1).getSku());
+    }
+
+    @Test
+    @DisplayName("Should page through price range results in either order")
+    public void testFindProductsByPriceRangeWithPaging() {
+        // Arrange
+        catalog.addProduct(new Product("SKU-001", "Laptop", 999.99));
+        catalog.addProduct(new Product("SKU-002", "Mouse", 29.99));
+        catalog.addProduct(new Product("SKU-003", "Keyboard", 79.99));
+        catalog.addProduct(new Product("SKU-004", "Headset", 79.99));
+
+        // Act
+        List<Product> secondPage = catalog.findProductsByPriceRange(0, 1000, 2, 2, false);
+        List<Product> mostExpensive = catalog.findProductsByPriceRange(0, 1000, 0, 2, true);
+
+        // Assert
+        assertEquals(List.of("SKU-004", "SKU-001"), secondPage.stream().map(Product::getSku).toList());
+        assertEquals(List.of("SKU-001", "SKU-004"), mostExpensive.stream().map(Product::getSku).toList());
+    }
+
+    @Test
+    @DisplayName("Should keep price range results in step with updates and removals")
+    public void testFindProductsByPriceRangeAfterUpdateAndRemove() {
+        // Arrange
+        catalog.addProduct(new Product("SKU-001", "Laptop", 999.99));
+        catalog.addProduct(new Product("SKU-002", "Mouse", 29.99));
+
+        // Act
+        catalog.addProduct(new Product("SKU-001", "Laptop", 19.99));
+        catalog.removeProduct("SKU-002");
+
+        // Assert
+        List<Product> results = catalog.findProductsByPriceRange(0, 100);
+        assertEquals(1, results.size());
+        assertEquals("SKU-001", results.get(0).getSku());
+        assertTrue(catalog.findProductsByPriceRange(500, 1000).isEmpty(), "Old price should no longer match");
+
+        catalog.clear();
+        assertTrue(catalog.findProductsByPriceRange(0, 1000).isEmpty(), "Cleared catalog should have no matches");
+    }
+
+    @Test
+    @DisplayName("Should throw exception for invalid price range arguments")
+    public void testFindProductsByPriceRangeValidation() {
+        assertThrows(IllegalArgumentException.class, () -> catalog.findProductsByPriceRange(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> catalog.findProductsByPriceRange(10, 1));
+        assertThrows(IllegalArgumentException.class, () -> catalog.findProductsByPriceRange(0, 10, -1, 5, false));
+        assertThrows(IllegalArgumentException.class, () -> catalog.findProductsByPriceRange(0, 10, 0, 0, false));
+    }
+
+    @Test
+    @DisplayName("Should find products by case-insensitive name substring")
+    public void testFindProductsByName() {
+        // Arrange
+        catalog.addProduct(new Product("SKU-001", "Gaming Laptop", 1499.99));
+        catalog.addProduct(new Product("SKU-002", "Laptop Stand", 39.99));
+        catalog.addProduct(new Product("SKU-003", "Mouse", 29.99));
+
+        // Act & Assert
+        assertEquals(Set.of("SKU-001", "SKU-002"), skus(catalog.findProductsByName("  LAPTOP ")));
+        assertEquals(Set.of("SKU-001"), skus(catalog.findProductsByName("ing lap")));
+        assertEquals(Set.of("SKU-003"), skus(catalog.findProductsByName("u")));
+        assertTrue(catalog.findProductsByName("keyboard").isEmpty());
+        assertTrue(catalog.findProductsByName("   ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should page name search results in SKU order")
+    public void testFindProductsByNamePaged() {
+        // Arrange
+        for (int i = 9; i >= 0; i--) {
+            catalog.addProduct(new Product("SKU-00" + i, "Laptop " + i, 100));
+        }
+        catalog.addProduct(new Product("SKU-100", "Mouse", 10));
+
+        // Act & Assert
+        assertEquals(List.of("SKU-003", "SKU-004", "SKU-005"), catalog.findProductsByName("laptop", 3, 3)
+                .stream().map(Product::getSku).toList());
+        assertEquals(1, catalog.findProductsByName("LAPTOP", 9, 100).size());
+        assertTrue(catalog.findProductsByName("laptop", 10, 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> catalog.findProductsByName("laptop", -1, 5));
+        assertThrows(IllegalArgumentException.class, () -> catalog.findProductsByName("laptop", 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should page name search over an unordered catalog in SKU order")
+    public void testFindProductsByNamePagesMatchSortedOrder() {
+        // Arrange
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int id = (i * 37) % 200;
+            catalog.addProduct(new Product(String.format("SKU-%03d", id), "Item " + id, 10));
+            expected.add(String.format("SKU-%03d", i));
+        }
+
+        // Act & Assert
+        for (int offset = 0; offset <= 200; offset += 13) {
+            assertEquals(expected.subList(offset, Math.min(offset + 20, 200)),
+                    catalog.findProductsByName("item", offset, 20).stream().map(Product::getSku).toList());
+        }
+        assertEquals(expected, catalog.findProductsByName("item", 0, Integer.MAX_VALUE).stream()
+                .map(Product::getSku).toList());
+        assertEquals(expected.subList(199, 200), catalog.findProductsByName("item", 199, Integer.MAX_VALUE)
+                .stream().map(Product::getSku).toList());
+    }
+
+    @Test
+    @DisplayName("Should keep name search in step with updates and removals")
+    public void testFindProductsByNameAfterUpdateAndRemove() {
+        // Arrange
+        catalog.addProduct(new Product("SKU-001", "Laptop", 999.99));
+        catalog.addProduct(new Product("SKU-002", "Mouse", 29.99));
+
+        // Act
+        catalog.addProduct(new Product("SKU-001", "Notebook", 999.99));
+        catalog.removeProduct("SKU-002");
+
+        // Assert
+        assertTrue(catalog.findProductsByName("laptop").isEmpty(), "Old name should no longer match");
+        assertTrue(catalog.findProductsByName("mouse").isEmpty(), "Removed product should not match");
+        assertEquals(Set.of("SKU-001"), skus(catalog.findProductsByName("note")));
+    }
+
+    @Test
+    @DisplayName("Should return the same name matches as a full scan")
+    public void testFindProductsByNameMatchesFullScan() {
+        // Arrange
+        Random random = new Random(42);
+        String alphabet = "abcde XYZ";
+        for (int i = 0; i < 500; i++) {
+            StringBuilder name = new StringBuilder("p");
+            for (int j = random.nextInt(12); j >= 0; j--) {
+                name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            catalog.addProduct(new Product("SKU-" + i, name.toString(), i));
+        }
+
+        // Act & Assert
+        for (String query : List.of("a", "Ab", "abc", "e x", "cdey", "pabc", "zzzz", "y z")) {
+            String term = query.trim().toLowerCase();
+            Set<String> expected = catalog.getAllProducts().stream()
+                    .filter(p -> p.getName().toLowerCase().contains(term))
+                    .map(Product::getSku)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, skus(catalog.findProductsByName(query)), "Mismatch for query: " + query);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse name index rows for price changes and rebuild after many renames")
+    public void testNameIndexRowsAfterRepricingAndRenaming() {
+        // Arrange
+        NameIndex index = new NameIndex();
+        for (int i = 0; i < 100; i++) {
+            index.add(Product.ofCents("SKU-" + i, "Lamp " + i, 100));
+        }
+
+        // Act
+        for (int round = 1; round <= 50; round++) {
+            for (int i = 0; i < 100; i++) {
+                index.add(Product.ofCents("SKU-" + i, "Lamp " + i, 100 + round));
+            }
+        }
+        int clearedAfterRepricing = index.getClearedRowCount();
+        for (int round = 1; round <= 50; round++) {
+            for (int i = 0; i < 100; i++) {
+                index.add(Product.ofCents("SKU-" + i, (round % 2 == 0 ? "Lamp " : "Desk ") + i, 100));
+            }
+        }
+        index.remove(Product.ofCents("SKU-7", "Lamp 7", 100));
+
+        // Assert
+        assertEquals(0, clearedAfterRepricing, "Price changes should keep their rows");
+        assertTrue(index.getClearedRowCount() <= 1024 + 100, "Cleared rows should be rebuilt away");
+        List<Product> lamps = index.search("lamp");
+        assertEquals(99, lamps.size());
+        assertTrue(lamps.stream().allMatch(p -> p.getPriceInCents() == 100));
+        assertTrue(index.search("desk").isEmpty());
+        assertEquals(Set.of("SKU-70", "SKU-71", "SKU-72", "SKU-73", "SKU-74", "SKU-75", "SKU-76",
+                "SKU-77", "SKU-78", "SKU-79"), skus(index.search("p 7")));
+    }
+
+    @Test
+    @DisplayName("Should look up, check and remove products by canonical SKU key")
+    public void testLookupBySkuKey() {
+        // Arrange
+        catalog.addProduct(new Product("SKU-001", "Laptop", 999.99));
+        SkuKey key = SkuKey.of("  SKU-001 ");
+
+        // Act & Assert
+        assertEquals("SKU-001", key.value(), "Key should be trimmed once");
+        assertEquals("Laptop", catalog.findProduct(key).getName());
+        assertTrue(catalog.contains(key));
+        assertTrue(catalog.remove(key));
+        assertNull(catalog.findProduct(key));
+        assertFalse(catalog.contains(key));
+        assertThrows(IllegalArgumentException.class, () -> SkuKey.of("   "));
+    }
+
+    @Test
+    @DisplayName("Should replace catalog contents with bulk loaded products")
+    public void testLoadProductsReplacesCatalog() {
+        // Arrange
+        catalog.addProduct(new Product("OLD-001", "Old Laptop", 499.99));
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(new String[]{"SKU-" + i, "Item " + i, String.valueOf(i)});
+        }
+
+        // Act
+        catalog.loadProducts(rows, row -> new Product(row[0], row[1], Double.parseDouble(row[2])));
+
+        // Assert
+        assertEquals(1000, catalog.size());
+        assertFalse(catalog.containsProduct("OLD-001"), "Previous products should be replaced");
+        assertEquals("Item 42", catalog.findProductBySku("SKU-42").getName());
+        assertTrue(skus(catalog.findProductsByName("item 42")).contains("SKU-42"));
+        assertEquals(11, catalog.findProductsByPriceRange(10, 20).size());
+    }
+
+    @Test
+    @DisplayName("Should keep current catalog when a bulk loaded row is invalid")
+    public void testLoadProductsWithInvalidRowKeepsCatalog() {
+        // Arrange
+        catalog.addProduct(new Product("SKU-001", "Laptop", 999.99));
+        List<String> names = List.of("Mouse", "", "Keyboard");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> catalog.loadProducts(names, name -> new Product("SKU-" + name, name, 1.0)));
+        assertEquals(1, catalog.size());
+        assertNotNull(catalog.findProductBySku("SKU-001"));
+    }
 }
\ No newline at end of file
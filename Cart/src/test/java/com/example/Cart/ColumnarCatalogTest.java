@@ -0,0 +1,125 @@
+package com.example.Cart;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.example.Cart.TestSupport.skus;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Columnar catalog storage tests, checked against the indexed storage
+ */
+@DisplayName("Columnar Catalog Tests")
+public class ColumnarCatalogTest {
+
+    private Catalog columnar;
+    private Catalog indexed;
+
+    @BeforeEach
+    public void setUp() {
+        columnar = Catalog.create(Catalog.Storage.COLUMNAR, false);
+        indexed = new Catalog();
+    }
+
+    @Test
+    @DisplayName("Should store and return products by SKU")
+    public void testAddAndFindProduct() {
+        // Act
+        columnar.addProduct(new Product("SKU-001", "Laptop", 999.99));
+        columnar.addProduct(new Product("SKU-é", "Crème Brûlée", 4.5));
+        columnar.addProduct(new Product("SKU-001", "Gaming Laptop", 1499.99));
+
+        // Assert
+        assertEquals(2, columnar.size());
+        Product laptop = columnar.findProductBySku(" SKU-001 ");
+        assertEquals("Gaming Laptop", laptop.getName());
+        assertEquals(1499.99, laptop.getPrice(), 0.001);
+        assertEquals("Crème Brûlée", columnar.findProductBySku("SKU-é").getName());
+        assertNull(columnar.findProductBySku("SKU-002"));
+        assertEquals(Set.of("SKU-é"), skus(columnar.findProductsByName("BRÛL")));
+    }
+
+    @Test
+    @DisplayName("Should answer every query like the indexed storage after random changes")
+    public void testMatchesIndexedStorage() {
+        // Arrange
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            String sku = "SKU-" + random.nextInt(800);
+            if (random.nextInt(4) == 0) {
+                assertEquals(indexed.removeProduct(sku), columnar.removeProduct(sku));
+            } else {
+                Product product = new Product(sku, "Item " + (char) ('A' + random.nextInt(26)) + random.nextInt(50),
+                        random.nextInt(10_000) / 100.0);
+                indexed.addProduct(product);
+                columnar.addProduct(product);
+            }
+        }
+
+        // Assert
+        assertEquals(indexed.size(), columnar.size());
+        for (int i = 0; i < 800; i++) {
+            String sku = "SKU-" + i;
+            Product expected = indexed.findProductBySku(sku);
+            Product actual = columnar.findProductBySku(sku);
+            assertEquals(expected == null, actual == null, sku);
+            if (expected != null) {
+                assertEquals(expected.getName(), actual.getName());
+                assertEquals(expected.getPriceAsBigDecimal(), actual.getPriceAsBigDecimal());
+            }
+        }
+        for (String term : List.of("item", "m k", "12", "Z4", "x")) {
+            assertEquals(skus(indexed.findProductsByName(term)),
+                    skus(columnar.findProductsByName(term)), term);
+        }
+        assertEquals(indexed.findProductsByPriceRange(10, 60), columnar.findProductsByPriceRange(10, 60));
+        assertEquals(indexed.findProductsByPriceRange(0, 100, 25, 40, true),
+                columnar.findProductsByPriceRange(0, 100, 25, 40, true));
+    }
+
+    @Test
+    @DisplayName("Should copy columnar state for thread-safe writes")
+    public void testThreadSafeColumnarCatalog() {
+        // Arrange
+        Catalog catalog = Catalog.create(Catalog.Storage.COLUMNAR, true);
+
+        // Act
+        catalog.addProducts(List.of(new Product("SKU-001", "Laptop", 999.99), new Product("SKU-002", "Mouse", 29.99)));
+        catalog.removeProduct("SKU-001");
+
+        // Assert
+        assertTrue(catalog.isThreadSafe());
+        assertEquals(Catalog.Storage.COLUMNAR, catalog.getStorage());
+        assertEquals(Set.of("SKU-002"), skus(catalog.getAllProducts()));
+    }
+
+    @Test
+    @DisplayName("Should keep the text column small under repeated price and name updates")
+    public void testRepeatedUpdatesReuseText() {
+        // Arrange
+        ColumnarCatalogState state = new ColumnarCatalogState();
+        state.put(Product.ofCents("SKU-001", "Laptop with a fairly long name", 100));
+        int initialText = state.getTextLength();
+
+        // Act & Assert: price changes keep the stored name
+        for (int i = 0; i < 100_000; i++) {
+            state.put(Product.ofCents("SKU-001", "Laptop with a fairly long name", 100 + i));
+        }
+        assertEquals(initialText, state.getTextLength());
+        assertEquals(100_099, state.get("SKU-001").getPriceInCents());
+
+        // Act & Assert: renames leave dead text behind until it is compacted
+        for (int i = 0; i < 100_000; i++) {
+            state.put(Product.ofCents("SKU-001", "Laptop " + i, 100));
+        }
+        assertTrue(state.getTextLength() < 20_000, "text length " + state.getTextLength());
+        assertEquals("Laptop 99999", state.get("SKU-001").getName());
+        assertEquals(Set.of("SKU-001"), skus(state.findByName("laptop 99999")));
+        assertEquals(1, state.size());
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.ConcurrentInventoryService;
+import com.example.Cart.impl.ReservationInventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the lock-free cart shared by several clients.
+ */
+class ConcurrentCartTest {
+
+    private static final int THREADS = 8;
+
+    private Catalog catalog;
+    private ConcurrentInventoryService inventoryService;
+    private ConcurrentCart cart;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new Catalog();
+        catalog.addProduct(new Product("SKU001", "Laptop", 999.99));
+        catalog.addProduct(new Product("SKU002", "Mouse", 29.99));
+        inventoryService = new ConcurrentInventoryService();
+        cart = new ConcurrentCart(catalog, inventoryService);
+    }
+
+    @Test
+    void testAddMergeAndRemove() {
+        inventoryService.setInventory("SKU001", 10);
+        inventoryService.setInventory("SKU002", 10);
+
+        cart.addItem("SKU001", 1);
+        cart.addItem("SKU002", 2);
+        cart.addItem("SKU002", 3);
+
+        assertEquals(2, cart.getItemCount());
+        assertEquals(5, cart.getItems().get("SKU002").getQuantity());
+        assertEquals(99999 + 5 * 2999, cart.getTotalInCents());
+        assertEquals(6, cart.getTotalQuantity());
+
+        cart.removeItem("SKU001");
+
+        assertFalse(cart.hasItem("SKU001"));
+        assertEquals(5 * 2999, cart.getTotalInCents());
+        assertThrows(IllegalArgumentException.class, () -> cart.removeItem("SKU001"));
+    }
+
+    @Test
+    void testRepriceKeepsQuantitiesAndReservations() {
+        ReservationInventoryService reservations = new ReservationInventoryService();
+        reservations.setInventory("SKU001", 10);
+        reservations.setInventory("SKU002", 10);
+        ConcurrentCart reserving = new ConcurrentCart(catalog, reservations);
+        reserving.addItem("SKU001", 3);
+        reserving.addItem("SKU002", 1);
+        long version = reserving.getVersion();
+        catalog.addProduct(new Product("SKU001", "Laptop", 899.99));
+        catalog.removeProduct("SKU002");
+
+        assertEquals(1, reserving.reprice(Set.of("SKU001", "SKU002")));
+
+        assertEquals(3 * 89999 + 2999, reserving.getTotalInCents());
+        assertEquals(3, reserving.getItems().get("SKU001").getQuantity());
+        assertTrue(reserving.getVersion() > version);
+        assertEquals(7, reservations.getAvailable("SKU001"));
+        reserving.releaseReservations();
+        assertEquals(10, reservations.getAvailable("SKU001"));
+    }
+
+    @Test
+    void testInventoryCheckCoversQuantityAlreadyInCart() {
+        inventoryService.setInventory("SKU001", 3);
+        cart.addItem("SKU001", 2);
+
+        InsufficientInventoryException exception = assertThrows(InsufficientInventoryException.class,
+                () -> cart.addItem("SKU001", 2));
+
+        assertEquals(4, exception.getRequestedQuantity());
+        assertEquals(2, cart.getItems().get("SKU001").getQuantity());
+    }
+
+    @Test
+    void testGetItemsReturnsStableSnapshot() {
+        inventoryService.setInventory("SKU001", 10);
+        cart.addItem("SKU001", 1);
+
+        Map<String, CartLine> snapshot = cart.getItems();
+        cart.addItem("SKU001", 1);
+        inventoryService.setInventory("SKU002", 10);
+        cart.addItem("SKU002", 1);
+
+        assertEquals(1, snapshot.size());
+        assertEquals(1, snapshot.get("SKU001").getQuantity());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove("SKU001"));
+        assertSame(cart.getItems(), cart.getItems(), "Reads should not copy");
+    }
+
+    @Test
+    void testConcurrentAddsNeverExceedInventory() throws Exception {
+        inventoryService.setInventory("SKU001", 100);
+        inventoryService.setInventory("SKU002", 10_000);
+
+        int granted = runConcurrently(() -> {
+            int units = 0;
+            for (int i = 0; i < 50; i++) {
+                try {
+                    cart.addItem("SKU001", 1);
+                    units++;
+                } catch (InsufficientInventoryException e) {
+                    // cart already holds all available units
+                }
+                cart.addItem("SKU002", 1);
+            }
+            return units;
+        });
+
+        assertEquals(100, granted);
+        assertEquals(100, cart.getItems().get("SKU001").getQuantity());
+        assertEquals(THREADS * 50, cart.getItems().get("SKU002").getQuantity());
+        assertEquals(100 * 99999L + THREADS * 50 * 2999L, cart.getTotalInCents());
+    }
+
+    @Test
+    void testConcurrentReservationsAreAllTrackedAndReleased() throws Exception {
+        ReservationInventoryService reservations = new ReservationInventoryService();
+        reservations.setInventory("SKU001", 1_000);
+        ConcurrentCart reservingCart = new ConcurrentCart(catalog, reservations);
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 25; i++) {
+                reservingCart.addItem("SKU001", 1);
+            }
+            return 0;
+        });
+
+        assertEquals(THREADS * 25, reservingCart.getItems().get("SKU001").getQuantity());
+        assertEquals(1_000 - THREADS * 25, reservations.getAvailable("SKU001"));
+
+        reservingCart.removeItem("SKU001");
+
+        assertEquals(1_000, reservations.getAvailable("SKU001"));
+        assertEquals(0, reservations.getHeldReservationCount());
+    }
+
+    private static int runConcurrently(Callable<Integer> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(30, TimeUnit.SECONDS);
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
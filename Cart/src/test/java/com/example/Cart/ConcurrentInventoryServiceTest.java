@@ -0,0 +1,100 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.ConcurrentInventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the lock-free in-memory inventory.
+ */
+class ConcurrentInventoryServiceTest {
+
+    private ConcurrentInventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new ConcurrentInventoryService();
+    }
+
+    @Test
+    void testSetDecreaseAndIncrease() {
+        inventoryService.setInventory("SKU001", 100);
+
+        inventoryService.decreaseInventory("SKU001", 30);
+        inventoryService.increaseInventory("SKU001", 5);
+
+        assertEquals(75, inventoryService.getAvailable("SKU001"));
+        assertEquals(0, inventoryService.getAvailable("UNKNOWN_SKU"));
+    }
+
+    @Test
+    void testDecreaseBeyondAvailableFailsWithoutChangingInventory() {
+        inventoryService.setInventory("SKU001", 30);
+
+        InsufficientInventoryException exception = assertThrows(InsufficientInventoryException.class,
+                () -> inventoryService.decreaseInventory("SKU001", 50));
+
+        assertEquals(50, exception.getRequestedQuantity());
+        assertEquals(30, exception.getAvailableQuantity());
+        assertEquals(30, inventoryService.getAvailable("SKU001"), "Inventory should not be clamped");
+        assertThrows(InsufficientInventoryException.class,
+                () -> inventoryService.decreaseInventory("UNKNOWN_SKU", 1));
+    }
+
+    @Test
+    void testValidation() {
+        assertThrows(NullPointerException.class, () -> inventoryService.setInventory(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.setInventory("SKU001", -1));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.decreaseInventory("SKU001", 0));
+        inventoryService.setInventory("SKU001", Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.increaseInventory("SKU001", 1));
+    }
+
+    @Test
+    void testConcurrentDecreasesNeverLoseUpdates() throws Exception {
+        inventoryService.setInventory("HOT", 50_000);
+        int threads = 8;
+        int decreasesPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int succeeded = 0;
+                    for (int i = 0; i < decreasesPerThread; i++) {
+                        try {
+                            inventoryService.decreaseInventory("HOT", 1);
+                            succeeded++;
+                        } catch (InsufficientInventoryException e) {
+                            // sold out
+                        }
+                    }
+                    return succeeded;
+                }));
+            }
+            start.countDown();
+
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertEquals(50_000, total);
+            assertEquals(0, inventoryService.getAvailable("HOT"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.JdbcCartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for JDBC cart storage against an in-memory H2 database.
+ */
+class JdbcCartRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcCartRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new JdbcCartRepository(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void testSaveAndLoadRoundTrip() {
+        CartSnapshot snapshot = CartSnapshot.empty()
+                .with(new CartLine("SKU001", 2, 99999))
+                .with(new CartLine("SKU002", 1, 2999));
+
+        repository.save("cart-1", snapshot);
+        CartSnapshot loaded = repository.load("cart-1");
+
+        assertEquals(snapshot.asMap(), loaded.asMap());
+        assertEquals(snapshot.getVersion(), loaded.getVersion());
+        assertEquals(2 * 99999 + 2999, loaded.getTotalInCents());
+        assertNull(repository.load("missing"));
+    }
+
+    @Test
+    void testSaveRejectsSkuWiderThanColumn() {
+        String widest = "S".repeat(JdbcCartRepository.MAX_SKU_LENGTH);
+        repository.save("cart-1", CartSnapshot.empty().with(new CartLine(widest, 1, 100)));
+        CartSnapshot tooWide = CartSnapshot.empty().with(new CartLine(widest + "S", 1, 100));
+
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(Map.of("cart-2", tooWide)));
+        assertEquals(widest, List.copyOf(repository.load("cart-1").asMap().keySet()).get(0));
+        assertNull(repository.load("cart-2"));
+    }
+
+    @Test
+    void testSaveReplacesPreviousLines() {
+        CartSnapshot first = CartSnapshot.empty()
+                .with(new CartLine("SKU001", 2, 99999))
+                .with(new CartLine("SKU002", 1, 2999));
+        repository.save("cart-1", first);
+
+        repository.save("cart-1", first.without("SKU001"));
+
+        CartSnapshot loaded = repository.load("cart-1");
+        assertEquals(List.of("SKU002"), List.copyOf(loaded.asMap().keySet()));
+        assertEquals(3, loaded.getVersion());
+    }
+
+    @Test
+    void testSaveAllAndDeleteAllInBatches() {
+        Map<String, CartSnapshot> carts = new LinkedHashMap<>();
+        for (int i = 0; i < 50; i++) {
+            carts.put("cart-" + i, CartSnapshot.empty().with(new CartLine("SKU" + i, i + 1, 100)));
+        }
+        carts.put("empty-cart", CartSnapshot.empty());
+
+        repository.saveAll(carts);
+
+        assertEquals(51, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart", Integer.class));
+        assertEquals(50, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_line", Integer.class));
+        assertTrue(repository.load("empty-cart").isEmpty());
+
+        repository.deleteAll(List.of("cart-0", "cart-1", "empty-cart"));
+
+        assertNull(repository.load("cart-0"));
+        assertNull(repository.load("empty-cart"));
+        assertEquals(48, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_line", Integer.class));
+    }
+}
@@ -106,4 +106,14 @@ public class ProductTest {
         // Assert - Products with same SKU should have matching SKU values
         assertEquals(product1.getSku(), product2.getSku(), "SKUs should match");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when price overflows")
+    public void testCreateProductWithOverflowingPriceThrowsException() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> new Product("SKU-001", "Laptop", 1e30)
+        );
+        assertTrue(exception.getMessage().contains("too large"));
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.ReservationInventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for inventory reservations and their use by Cart.
+ */
+class ReservationInventoryServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private TestSupport.MutableClock clock;
+    private ReservationInventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new TestSupport.MutableClock();
+        inventoryService = new ReservationInventoryService(clock);
+    }
+
+    // ========== Reservation Tests ==========
+
+    @Test
+    void testReserveTakesQuantityOutOfAvailableInventory() {
+        inventoryService.setInventory("SKU001", 10);
+
+        Reservation reservation = inventoryService.reserve("SKU001", 4, TTL);
+
+        assertEquals(4, reservation.getQuantity());
+        assertEquals(6, inventoryService.getAvailable("SKU001"));
+    }
+
+    @Test
+    void testReserveMoreThanAvailableThrows() {
+        inventoryService.setInventory("SKU001", 3);
+
+        InsufficientInventoryException exception = assertThrows(InsufficientInventoryException.class,
+                () -> inventoryService.reserve("SKU001", 5, TTL));
+
+        assertEquals(3, exception.getAvailableQuantity());
+        assertEquals(3, inventoryService.getAvailable("SKU001"), "Failed reservation should not change stock");
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.reserve("UNKNOWN", 1, TTL));
+    }
+
+    @Test
+    void testReleaseReturnsStockOnlyOnce() {
+        inventoryService.setInventory("SKU001", 10);
+        Reservation reservation = inventoryService.reserve("SKU001", 4, TTL);
+
+        assertTrue(inventoryService.release(reservation));
+        assertFalse(inventoryService.release(reservation));
+
+        assertEquals(10, inventoryService.getAvailable("SKU001"));
+    }
+
+    @Test
+    void testCommitKeepsStockOut() {
+        inventoryService.setInventory("SKU001", 10);
+        Reservation reservation = inventoryService.reserve("SKU001", 4, TTL);
+
+        assertTrue(inventoryService.commit(reservation));
+        assertFalse(inventoryService.release(reservation), "Committed reservation cannot be released");
+
+        assertEquals(6, inventoryService.getAvailable("SKU001"));
+        assertEquals(0, inventoryService.getHeldReservationCount());
+    }
+
+    @Test
+    void testExpiredReservationsAreReturnedAndCannotBeCommitted() {
+        inventoryService.setInventory("SKU001", 10);
+        Reservation expiring = inventoryService.reserve("SKU001", 4, Duration.ofMinutes(1));
+        Reservation lasting = inventoryService.reserve("SKU001", 2, TTL);
+
+        clock.advance(Duration.ofMinutes(2));
+
+        assertEquals(1, inventoryService.expireReservations());
+        assertEquals(8, inventoryService.getAvailable("SKU001"));
+        assertFalse(inventoryService.commit(expiring));
+        assertTrue(inventoryService.commit(lasting));
+    }
+
+    @Test
+    void testScheduledExpiryReturnsExpiredStock() {
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        inventoryService.scheduleExpiry(scheduler, Duration.ofSeconds(30));
+        verify(scheduler).scheduleWithFixedDelay(task.capture(), eq(30_000L), eq(30_000L), any());
+        inventoryService.setInventory("SKU001", 10);
+        inventoryService.reserve("SKU001", 4, Duration.ofMinutes(1));
+
+        clock.advance(Duration.ofMinutes(2));
+        task.getValue().run();
+
+        assertEquals(10, inventoryService.getAvailable("SKU001"));
+        assertEquals(0, inventoryService.getHeldReservationCount());
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.scheduleExpiry(scheduler, Duration.ZERO));
+    }
+
+    @Test
+    void testSetInventoryCountsHeldUnitsAsOnHand() {
+        inventoryService.setInventory("SKU001", 10);
+        Reservation reservation = inventoryService.reserve("SKU001", 4, TTL);
+
+        inventoryService.setInventory("SKU001", 10);
+        assertEquals(6, inventoryService.getAvailable("SKU001"), "Held units should stay out of available stock");
+
+        assertTrue(inventoryService.release(reservation));
+        assertEquals(10, inventoryService.getAvailable("SKU001"), "Release should not push stock above what was set");
+    }
+
+    @Test
+    void testSetInventoryBelowHeldQuantity() {
+        inventoryService.setInventory("SKU001", 10);
+        Reservation first = inventoryService.reserve("SKU001", 4, TTL);
+        Reservation second = inventoryService.reserve("SKU001", 3, TTL);
+
+        inventoryService.setInventory("SKU001", 5);
+
+        assertEquals(0, inventoryService.getAvailable("SKU001"));
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.reserve("SKU001", 1, TTL));
+        assertTrue(inventoryService.commit(first));
+        assertEquals(0, inventoryService.getAvailable("SKU001"));
+        assertTrue(inventoryService.release(second));
+        assertEquals(1, inventoryService.getAvailable("SKU001"));
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        inventoryService.setInventory("HOT", 100);
+        inventoryService.setInventory("COLD", 1_000);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < 100; i++) {
+                        try {
+                            inventoryService.reserve("HOT", 1, TTL);
+                            granted++;
+                        } catch (InsufficientInventoryException e) {
+                            // sold out
+                        }
+                        inventoryService.reserve("COLD", 1, TTL);
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+
+            int totalGranted = 0;
+            for (Future<Integer> result : results) {
+                totalGranted += result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertEquals(100, totalGranted, "Exactly the available units should be granted");
+            assertEquals(0, inventoryService.getAvailable("HOT"));
+            assertEquals(200, inventoryService.getAvailable("COLD"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testListenersSeeEveryChangeAlreadyMade() {
+        inventoryService.setInventory("SKU001", 10);
+        List<Integer> seen = new ArrayList<>();
+        inventoryService.addChangeListener(new InventoryChangeListener() {
+            @Override
+            public void onInventoryChanged(String sku) {
+                seen.add(inventoryService.getAvailable(sku));
+            }
+
+            @Override
+            public void onInventoryCleared() {
+            }
+        });
+
+        Reservation first = inventoryService.reserve("SKU001", 4, TTL);
+        Reservation second = inventoryService.reserve("SKU001", 3, TTL);
+        inventoryService.release(first);
+        inventoryService.commit(second);
+        inventoryService.decreaseInventory("SKU001", 2);
+        inventoryService.increaseInventory("SKU001", 5);
+
+        assertEquals(List.of(6, 3, 7, 7, 5, 10), seen);
+    }
+
+    @Test
+    void testConcurrentReserveReleaseAndCommitNeverLoseUnits() throws Exception {
+        inventoryService.setInventory("HOT", 1_000);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int committed = 0;
+                    for (int i = 0; i < 2_000; i++) {
+                        try {
+                            Reservation reservation = inventoryService.reserve("HOT", 1 + i % 3, TTL);
+                            if (i % 10 != 9) {
+                                inventoryService.release(reservation);
+                            } else if (inventoryService.commit(reservation)) {
+                                committed += reservation.getQuantity();
+                            }
+                        } catch (InsufficientInventoryException e) {
+                            // sold out
+                        }
+                    }
+                    return committed;
+                }));
+            }
+            start.countDown();
+
+            int totalCommitted = 0;
+            for (Future<Integer> result : results) {
+                totalCommitted += result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertEquals(0, inventoryService.getHeldReservationCount());
+            assertEquals(1_000 - totalCommitted, inventoryService.getAvailable("HOT"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ========== Cart Integration Tests ==========
+
+    @Test
+    void testCartReservesAndReleasesInventory() {
+        Cart cart = new Cart(catalog(), inventoryService, TTL);
+        inventoryService.setInventory("SKU001", 10);
+
+        cart.addItem("SKU001", 3);
+        cart.addItem("SKU001", 2);
+        assertEquals(5, inventoryService.getAvailable("SKU001"));
+
+        cart.removeItem("SKU001");
+        assertEquals(10, inventoryService.getAvailable("SKU001"));
+    }
+
+    @Test
+    void testTwoCartsCannotBothTakeTheLastUnits() {
+        Catalog catalog = catalog();
+        Cart first = new Cart(catalog, inventoryService, TTL);
+        Cart second = new Cart(catalog, inventoryService, TTL);
+        inventoryService.setInventory("SKU001", 5);
+
+        first.addItem("SKU001", 4);
+        second.addItem("SKU001", 1);
+        InsufficientInventoryException exception = assertThrows(InsufficientInventoryException.class,
+                () -> second.addItem("SKU001", 1));
+
+        assertEquals(2, exception.getRequestedQuantity());
+        assertEquals(1, exception.getAvailableQuantity());
+        assertEquals(1, second.getItems().get("SKU001").getQuantity());
+    }
+
+    @Test
+    void testCartAddItemsReleasesPartialReservationsOnFailure() {
+        Cart cart = new Cart(catalog(), inventoryService, TTL);
+        inventoryService.setInventory("SKU001", 10);
+        inventoryService.setInventory("SKU002", 1);
+
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        lines.put("SKU001", 4);
+        lines.put("SKU002", 2);
+        assertThrows(InsufficientInventoryException.class, () -> cart.addItems(lines));
+
+        assertEquals(0, cart.getItemCount());
+        assertEquals(10, inventoryService.getAvailable("SKU001"));
+        assertEquals(0, inventoryService.getHeldReservationCount());
+    }
+
+    @Test
+    void testCartCommitReservationsAtCheckout() {
+        Cart cart = new Cart(catalog(), inventoryService, TTL);
+        inventoryService.setInventory("SKU001", 10);
+        cart.addItem("SKU001", 3);
+
+        assertTrue(cart.commitReservations());
+
+        assertEquals(7, inventoryService.getAvailable("SKU001"));
+        assertEquals(0, inventoryService.getHeldReservationCount());
+    }
+
+    private static Catalog catalog() {
+        Catalog catalog = new Catalog();
+        catalog.addProduct(new Product("SKU001", "Laptop", 999.99));
+        catalog.addProduct(new Product("SKU002", "Mouse", 29.99));
+        return catalog;
+    }
+}
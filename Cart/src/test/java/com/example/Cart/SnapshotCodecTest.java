@@ -0,0 +1,180 @@
+package com.example.Cart;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the binary cart and product encoding.
+ */
+class SnapshotCodecTest {
+
+    private SnapshotCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new SnapshotCodec(SkuDictionary.of(List.of("SKU003", "SKU001", "SKU002")));
+    }
+
+    @Test
+    void testCartRoundTrip() {
+        CartSnapshot snapshot = CartSnapshot.empty()
+                .with(new CartLine("SKU002", 3, 2999))
+                .with(new CartLine("SKU001", 1, 99999))
+                .with(new CartLine("NOT-IN-DICTIONARY", 200, Long.MAX_VALUE / 1000));
+
+        CartSnapshot decoded = roundTrip(snapshot);
+
+        assertEquals(snapshot.asMap(), decoded.asMap());
+        assertEquals(snapshot.getVersion(), decoded.getVersion());
+        assertEquals(snapshot.getTotalInCents(), decoded.getTotalInCents());
+        assertEquals(snapshot.getTotalQuantity(), decoded.getTotalQuantity());
+        assertEquals(snapshot.size(), decoded.size());
+    }
+
+    @Test
+    void testDecodedCartCanBeChanged() {
+        CartSnapshot snapshot = CartSnapshot.empty();
+        for (int i = 0; i < 50; i++) {
+            snapshot = snapshot.with(new CartLine(String.format("SKU-%03d", i), i + 1, 100));
+        }
+
+        CartSnapshot decoded = roundTrip(snapshot).without("SKU-010").with(new CartLine("SKU-999", 1, 5));
+
+        assertEquals(50, decoded.size());
+        assertFalse(decoded.contains("SKU-010"));
+        assertEquals(snapshot.getTotalInCents() - 11 * 100 + 5, decoded.getTotalInCents());
+    }
+
+    @Test
+    void testEmptyCartRoundTrip() {
+        CartSnapshot decoded = roundTrip(CartSnapshot.of(List.of(), 42));
+
+        assertTrue(decoded.isEmpty());
+        assertEquals(42, decoded.getVersion());
+    }
+
+    @Test
+    void testDictionarySkusTakeOneByte() {
+        CartSnapshot inDictionary = CartSnapshot.empty().with(new CartLine("SKU001", 1, 100));
+        CartSnapshot outside = CartSnapshot.empty().with(new CartLine("SKU004", 1, 100));
+
+        // header (11) + version (1) + count (1) + SKU code (1) + quantity (1) + price (1)
+        assertEquals(16, codec.encodedSize(inDictionary));
+        assertEquals(16 + 7, codec.encodedSize(outside));
+    }
+
+    @Test
+    void testProductRoundTrip() {
+        List<Product> products = List.of(
+                new Product("SKU001", "Laptop", 999.99),
+                Product.ofCents("SKU-NEW", "Café crème – 250 g", 450));
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(products));
+
+        codec.encode(products, buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        List<Product> decoded = codec.decodeProducts(buffer);
+
+        assertEquals(products, decoded);
+        assertEquals("Café crème – 250 g", decoded.get(1).getName());
+        assertEquals(450, decoded.get(1).getPriceInCents());
+    }
+
+    @Test
+    void testDecodeFromDirectBuffer() {
+        CartSnapshot snapshot = CartSnapshot.empty().with(new CartLine("INLINE", 2, 150));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(codec.encodedSize(snapshot));
+
+        codec.encode(snapshot, buffer);
+        buffer.flip();
+
+        assertEquals(snapshot.asMap(), codec.decodeCart(buffer).asMap());
+    }
+
+    @Test
+    void testRejectsDifferentDictionary() {
+        ByteBuffer buffer = encode(CartSnapshot.empty().with(new CartLine("SKU001", 1, 100)));
+        SnapshotCodec other = new SnapshotCodec(SkuDictionary.of(List.of("SKU001", "SKU002")));
+
+        assertThrows(IllegalArgumentException.class, () -> other.decodeCart(buffer));
+    }
+
+    @Test
+    void testDictionaryDoesNotDependOnOrder() {
+        SkuDictionary reordered = SkuDictionary.of(List.of("SKU002", "SKU001", "SKU003", "SKU001"));
+
+        assertEquals(codec.getDictionary().fingerprint(), reordered.fingerprint());
+        assertEquals(codec.getDictionary().codeOf("SKU002"), reordered.codeOf("SKU002"));
+        assertEquals(-1, reordered.codeOf("SKU004"));
+    }
+
+    @Test
+    void testRejectsMalformedInput() {
+        ByteBuffer cart = encode(CartSnapshot.empty().with(new CartLine("SKU001", 1, 100)));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeProducts(cart.duplicate()));
+
+        ByteBuffer newerVersion = cart.duplicate();
+        newerVersion.put(1, (byte) (SnapshotCodec.FORMAT_VERSION + 1));
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeCart(newerVersion));
+
+        ByteBuffer olderVersion = cart.duplicate();
+        olderVersion.put(1, (byte) (SnapshotCodec.FORMAT_VERSION - 1));
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeCart(olderVersion));
+
+        ByteBuffer badMagic = cart.duplicate();
+        badMagic.put(0, (byte) 0);
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeCart(badMagic));
+
+        ByteBuffer hugeCount = cart.duplicate();
+        hugeCount.put(12, (byte) 0x7F);
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeCart(hugeCount));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeCart(ByteBuffer.allocate(2)));
+    }
+
+    @Test
+    void testRejectsTruncatedInput() {
+        ByteBuffer cart = encode(CartSnapshot.empty().with(new CartLine("SKU001", 1, 100))
+                .with(new CartLine("OTHER-SKU", 2, 250)));
+        List<Product> list = List.of(Product.ofCents("SKU001", "Laptop", 99999), Product.ofCents("X", "Cable", 5));
+        ByteBuffer products = ByteBuffer.allocate(codec.encodedSize(list));
+        codec.encode(list, products);
+        products.flip();
+
+        for (int length = 0; length < cart.limit(); length++) {
+            ByteBuffer truncated = cart.duplicate().limit(length);
+            assertThrows(IllegalArgumentException.class, () -> codec.decodeCart(truncated), "length " + length);
+        }
+        for (int length = 0; length < products.limit(); length++) {
+            ByteBuffer truncated = products.duplicate().limit(length);
+            assertThrows(IllegalArgumentException.class, () -> codec.decodeProducts(truncated), "length " + length);
+        }
+    }
+
+    @Test
+    void testFingerprintSeparatesSkuBoundaries() {
+        assertNotEquals(SkuDictionary.of(List.of("AB", "C")).fingerprint(),
+                SkuDictionary.of(List.of("A", "BC")).fingerprint());
+        assertNotEquals(SkuDictionary.empty().fingerprint(), codec.getDictionary().fingerprint());
+    }
+
+    private ByteBuffer encode(CartSnapshot snapshot) {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(snapshot));
+        codec.encode(snapshot, buffer);
+        assertFalse(buffer.hasRemaining());
+        return buffer.flip();
+    }
+
+    private CartSnapshot roundTrip(CartSnapshot snapshot) {
+        ByteBuffer buffer = encode(snapshot);
+        CartSnapshot decoded = codec.decodeCart(buffer);
+        assertFalse(buffer.hasRemaining());
+        return decoded;
+    }
+}
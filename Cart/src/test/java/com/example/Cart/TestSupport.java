@@ -0,0 +1,52 @@
+package com.example.Cart;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers shared by the catalog, inventory and cart registry tests.
+ */
+final class TestSupport {
+
+    private TestSupport() {
+    }
+
+    /**
+     * Returns the SKUs of the given products, ignoring their order.
+     */
+    static Set<String> skus(List<Product> products) {
+        return products.stream().map(Product::getSku).collect(Collectors.toSet());
+    }
+
+    /**
+     * A UTC clock that stands still until a test advances it.
+     */
+    static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.Cart;
+
+import com.example.Cart.impl.WriteBehindCartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the write-behind cart queue.
+ */
+class WriteBehindCartRepositoryTest {
+
+    private CartRepository delegate;
+    private WriteBehindCartRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(CartRepository.class);
+        repository = new WriteBehindCartRepository(delegate, 2);
+    }
+
+    @Test
+    void testRepeatedSavesAreCoalescedIntoOneWrite() {
+        CartSnapshot v1 = CartSnapshot.empty().with(new CartLine("SKU001", 1, 100));
+        CartSnapshot v2 = v1.with(new CartLine("SKU001", 2, 100));
+        CartSnapshot v3 = v2.with(new CartLine("SKU002", 1, 50));
+
+        repository.save("cart-1", v1);
+        repository.save("cart-1", v2);
+        repository.save("cart-1", v3);
+        verifyNoInteractions(delegate);
+
+        assertEquals(1, repository.flush());
+
+        verify(delegate, times(1)).saveAll(Map.of("cart-1", v3));
+        assertEquals(2, repository.getCoalescedCount());
+        assertEquals(0, repository.getPendingCount());
+    }
+
+    @Test
+    void testOlderVersionDoesNotReplaceNewerPendingVersion() {
+        CartSnapshot v1 = CartSnapshot.empty().with(new CartLine("SKU001", 1, 100));
+        CartSnapshot v2 = v1.with(new CartLine("SKU001", 2, 100));
+
+        repository.save("cart-1", v2);
+        repository.save("cart-1", v1);
+
+        assertSame(v2, repository.load("cart-1"));
+    }
+
+    @Test
+    void testLoadsSeePendingChanges() {
+        CartSnapshot snapshot = CartSnapshot.empty().with(new CartLine("SKU001", 1, 100));
+        repository.save("cart-1", snapshot);
+        repository.delete("cart-2");
+
+        assertSame(snapshot, repository.load("cart-1"));
+        assertNull(repository.load("cart-2"));
+        verify(delegate, never()).load(anyString());
+
+        repository.load("cart-3");
+        verify(delegate).load("cart-3");
+    }
+
+    @Test
+    void testFlushWritesInBatchesAndSeparatesDeletes() {
+        for (int i = 0; i < 5; i++) {
+            repository.save("cart-" + i, CartSnapshot.empty());
+        }
+        repository.delete("gone");
+
+        assertEquals(6, repository.flush());
+
+        verify(delegate, times(3)).saveAll(argThat(batch -> batch.size() <= 2));
+        verify(delegate).deleteAll(List.of("gone"));
+        assertEquals(6, repository.getWrittenCount());
+    }
+
+    @Test
+    void testFailedFlushKeepsChangesQueued() {
+        doThrow(new IllegalStateException("database down")).doThrow(new IllegalStateException("database down"))
+                .doNothing().when(delegate).saveAll(anyMap());
+        repository.save("cart-1", CartSnapshot.empty());
+
+        assertThrows(IllegalStateException.class, () -> repository.flush());
+        assertEquals(1, repository.getPendingCount());
+
+        assertEquals(1, repository.flush());
+        assertEquals(0, repository.getPendingCount());
+    }
+
+    @Test
+    void testFailingCartIsRetriedAloneAndDeadLettered() {
+        CartSnapshot bad = CartSnapshot.empty().with(new CartLine("SKU-BAD", 1, 100));
+        doAnswer(invocation -> {
+            Map<String, CartSnapshot> batch = invocation.getArgument(0);
+            if (batch.containsValue(bad)) {
+                throw new IllegalStateException("value too long");
+            }
+            return null;
+        }).when(delegate).saveAll(anyMap());
+        WriteBehindCartRepository retrying = new WriteBehindCartRepository(delegate, 2, 2, null, null);
+        retrying.save("bad", bad);
+        retrying.save("cart-1", CartSnapshot.empty());
+        retrying.save("cart-2", CartSnapshot.empty());
+
+        assertEquals(2, retrying.flush());
+        assertEquals(1, retrying.getPendingCount());
+        assertTrue(retrying.getDeadLetters().isEmpty());
+
+        retrying.save("cart-3", CartSnapshot.empty());
+        assertEquals(1, retrying.flush());
+
+        assertEquals(0, retrying.getPendingCount());
+        assertEquals(List.of("bad"), retrying.getDeadLetters());
+        assertEquals(2, retrying.getFailedWriteCount());
+        assertSame(bad, retrying.load("bad"), "A dead-lettered cart should still be readable");
+        assertEquals(1, retrying.requeueDeadLetters());
+        assertEquals(1, retrying.getPendingCount());
+        assertTrue(retrying.getDeadLetters().isEmpty());
+    }
+
+    @Test
+    void testNewSaveReplacesDeadLetter() {
+        doThrow(new IllegalStateException("value too long")).when(delegate).saveAll(anyMap());
+        WriteBehindCartRepository retrying = new WriteBehindCartRepository(delegate, 2, 1, null, null);
+        retrying.save("bad", CartSnapshot.empty());
+        assertThrows(IllegalStateException.class, retrying::flush);
+        assertEquals(List.of("bad"), retrying.getDeadLetters());
+
+        CartSnapshot fixed = CartSnapshot.empty().with(new CartLine("SKU001", 1, 100));
+        retrying.save("bad", fixed);
+
+        assertTrue(retrying.getDeadLetters().isEmpty());
+        assertSame(fixed, retrying.load("bad"));
+        assertEquals(0, retrying.requeueDeadLetters());
+    }
+
+    @Test
+    void testBackgroundFlushAndClose() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            WriteBehindCartRepository background = new WriteBehindCartRepository(delegate, 100,
+                    Duration.ofMillis(20), scheduler);
+            background.save("cart-1", CartSnapshot.empty());
+
+            verify(delegate, timeout(5_000)).saveAll(anyMap());
+
+            background.save("cart-2", CartSnapshot.empty());
+            background.close();
+            assertEquals(0, background.getPendingCount());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
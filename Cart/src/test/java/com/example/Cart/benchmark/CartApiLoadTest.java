@@ -0,0 +1,175 @@
+package com.example.Cart.benchmark;
+
+import com.example.Cart.CartApplication;
+import com.example.Cart.Catalog;
+import com.example.Cart.InventoryService;
+import com.example.Cart.Product;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local load test for the HTTP API. Starts the application on a random port with the
+ * in-memory profile and an inventory service that sleeps on every call, then drives
+ * add-item and total requests from many concurrent clients, first with request handling
+ * on platform threads and then on virtual threads, and prints requests per second and
+ * latency percentiles for each.
+ *
+ * <p>Run with {@code java -cp target/classes:target/test-classes:<test classpath>
+ * com.example.Cart.benchmark.CartApiLoadTest [clients] [seconds] [inventoryLatencyMillis]}.
+ */
+public class CartApiLoadTest {
+
+    private static final int PRODUCTS = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 50;
+        System.setProperty("loadtest.inventory-latency", Long.toString(latencyMillis));
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                    CartApplication.class, SlowInventoryConfiguration.class)
+                    .profiles("inmemory")
+                    .properties("server.port=0",
+                            "spring.threads.virtual.enabled=" + virtualThreads,
+                            "spring.main.allow-bean-definition-overriding=true",
+                            "logging.level.root=WARN")
+                    .run()) {
+                Catalog catalog = context.getBean(Catalog.class);
+                List<Product> products = new ArrayList<>(PRODUCTS);
+                for (int i = 0; i < PRODUCTS; i++) {
+                    products.add(new Product("SKU" + i, "Product " + i, 1 + i % 500));
+                }
+                catalog.addProducts(products);
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                Result result = drive(port, clients, Duration.ofSeconds(seconds));
+                System.out.printf("%-9s clients=%d inventoryLatency=%dms: %.0f req/s, p50=%.1fms, p99=%.1fms, errors=%d%n",
+                        virtualThreads ? "virtual" : "platform", clients, latencyMillis,
+                        result.requestsPerSecond, result.p50Millis, result.p99Millis, result.errors);
+            }
+        }
+    }
+
+    private static Result drive(int port, int clients, Duration duration) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String base = "http://localhost:" + port + "/api/carts/";
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(3).toNanos();
+        long end = warmupEnd + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<long[]>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                String cart = base + "load-" + c;
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[1 << 12];
+                    int count = 0;
+                    long errors = 0;
+                    while (System.nanoTime() < end) {
+                        boolean add = ThreadLocalRandom.current().nextInt(4) != 0;
+                        HttpRequest request = add
+                                ? HttpRequest.newBuilder(URI.create(cart + "/items"))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString("{\"sku\":\"SKU"
+                                                + ThreadLocalRandom.current().nextInt(PRODUCTS) + "\",\"quantity\":1}"))
+                                        .build()
+                                : HttpRequest.newBuilder(URI.create(cart + "/total")).GET().build();
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        long elapsed = System.nanoTime() - start;
+                        if (start < warmupEnd) {
+                            continue;
+                        }
+                        if (status >= 500 || status < 0) {
+                            errors++;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = elapsed;
+                    }
+                    long[] result = Arrays.copyOf(latencies, count + 1);
+                    result[count] = errors;
+                    return result;
+                }));
+            }
+
+            long total = 0;
+            long errors = 0;
+            List<long[]> perClient = new ArrayList<>(clients);
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get();
+                errors += latencies[latencies.length - 1];
+                long[] samples = Arrays.copyOf(latencies, latencies.length - 1);
+                perClient.add(samples);
+                total += samples.length;
+            }
+            long[] all = new long[(int) total];
+            int offset = 0;
+            for (long[] samples : perClient) {
+                System.arraycopy(samples, 0, all, offset, samples.length);
+                offset += samples.length;
+            }
+            Arrays.sort(all);
+            return new Result(total / (double) duration.toSeconds(),
+                    percentile(all, 0.50), percentile(all, 0.99), errors);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1_000_000.0;
+    }
+
+    private record Result(double requestsPerSecond, double p50Millis, double p99Millis, long errors) {
+    }
+
+    /**
+     * Replaces the inventory service with one that always has stock but answers slowly,
+     * like a remote inventory system. Not annotated with {@code @Configuration}, so that
+     * component scanning in other tests does not pick it up; it is registered as a source.
+     */
+    static class SlowInventoryConfiguration {
+
+        @Bean
+        @Primary
+        public InventoryService slowInventoryService() {
+            long latencyMillis = Long.getLong("loadtest.inventory-latency", 50);
+            return sku -> {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Integer.MAX_VALUE;
+            };
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.Cart.benchmark;
+
+import com.example.Cart.Cart;
+import com.example.Cart.CartItem;
+import com.example.Cart.CartMetrics;
+import com.example.Cart.Catalog;
+import com.example.Cart.Product;
+import com.example.Cart.impl.MicrometerCartMetrics;
+import com.example.Cart.impl.SimpleInventoryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart hot paths for carts of different sizes. A Cart is single-threaded, so each
+ * benchmark thread works on its own cart over a shared catalog. The {@code metrics}
+ * parameter measures the cost of leaving Micrometer instrumentation on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+
+    @Param({"1", "10", "100", "1000"})
+    private int cartLines;
+
+    @Param({"off", "micrometer"})
+    private String metrics;
+
+    private Cart cart;
+    private String[] skus;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Catalog catalog = new Catalog();
+        SimpleInventoryService inventory = new SimpleInventoryService();
+        skus = new String[CATALOG_SIZE];
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            skus[i] = "SKU-" + i;
+            catalog.addProduct(new Product(skus[i], "Product " + i, i % 500 + 0.99));
+            inventory.setInventory(skus[i], Integer.MAX_VALUE);
+        }
+        CartMetrics cartMetrics = "micrometer".equals(metrics)
+                ? new MicrometerCartMetrics(new SimpleMeterRegistry(), false)
+                : CartMetrics.NOOP;
+        cart = new Cart(catalog, inventory, Cart.DEFAULT_RESERVATION_TTL, cartMetrics);
+        for (int i = 0; i < cartLines; i++) {
+            cart.addItem(skus[i], 1);
+        }
+        next = cartLines;
+    }
+
+    /**
+     * Adds one unit to an existing line; the quantity is reset before it can overflow.
+     */
+    @Benchmark
+    public void addItemToExistingLine() {
+        String sku = skus[next++ % cartLines];
+        CartItem item = cart.getItems().get(sku);
+        if (item.getQuantity() > 1_000_000) {
+            item.setQuantity(1);
+        }
+        cart.addItem(sku, 1);
+    }
+
+    /**
+     * Adds a new line and removes it again, keeping the cart at its configured size.
+     */
+    @Benchmark
+    public void addAndRemoveNewLine() {
+        String sku = skus[cartLines + (next++ % (CATALOG_SIZE - cartLines))];
+        cart.addItem(sku, 1);
+        cart.removeItem(sku);
+    }
+
+    @Benchmark
+    public double getTotal() {
+        return cart.getTotal();
+    }
+
+    @Benchmark
+    public long getTotalInCents() {
+        return cart.getTotalInCents();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CartBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
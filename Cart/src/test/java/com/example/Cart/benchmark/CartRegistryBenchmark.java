@@ -0,0 +1,117 @@
+package com.example.Cart.benchmark;
+
+import com.example.Cart.Catalog;
+import com.example.Cart.CartMetrics;
+import com.example.Cart.CartRegistry;
+import com.example.Cart.CartRepository;
+import com.example.Cart.CartSnapshot;
+import com.example.Cart.ConcurrentCart;
+import com.example.Cart.Product;
+import com.example.Cart.impl.ConcurrentInventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of cart lookups and cart changes through the {@link CartRegistry} as the
+ * number of live carts grows, with one shard and with the default shard count. The
+ * repository is a no-op, so only the registry and the carts are measured. Thread counts
+ * are swept from {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class CartRegistryBenchmark {
+
+    private static final String SKU = "SKU-1";
+
+    @Param({"10000", "1000000"})
+    private int carts;
+
+    @Param({"1", "64"})
+    private int shards;
+
+    private CartRegistry registry;
+    private String[] cartIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Catalog catalog = Catalog.threadSafe();
+        catalog.addProduct(new Product(SKU, "Product", 9.99));
+        ConcurrentInventoryService inventory = new ConcurrentInventoryService();
+        inventory.setInventory(SKU, Integer.MAX_VALUE);
+        registry = new CartRegistry(catalog, inventory, new NoopRepository(), CartMetrics.NOOP,
+                shards, CartRegistry.DEFAULT_IDLE_TIMEOUT, Clock.systemUTC());
+        cartIds = new String[carts];
+        for (int i = 0; i < carts; i++) {
+            cartIds[i] = "cart-" + i;
+            registry.getOrCreate(cartIds[i]);
+        }
+    }
+
+    private String randomCartId() {
+        return cartIds[ThreadLocalRandom.current().nextInt(carts)];
+    }
+
+    @Benchmark
+    public ConcurrentCart lookup() {
+        return registry.find(randomCartId());
+    }
+
+    @Benchmark
+    public long addAndRemove() {
+        ConcurrentCart cart = registry.getOrCreate(randomCartId());
+        cart.addItem(SKU, 1);
+        cart.removeItem(SKU);
+        return cart.getVersion();
+    }
+
+    @Benchmark
+    public int activeCount() {
+        return registry.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            new Runner(new OptionsBuilder()
+                    .include(CartRegistryBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+
+    private static final class NoopRepository implements CartRepository {
+
+        @Override
+        public void save(String cartId, CartSnapshot snapshot) {
+        }
+
+        @Override
+        public CartSnapshot load(String cartId) {
+            return null;
+        }
+
+        @Override
+        public void delete(String cartId) {
+        }
+    }
+}
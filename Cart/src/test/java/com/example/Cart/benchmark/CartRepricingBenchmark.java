@@ -0,0 +1,138 @@
+package com.example.Cart.benchmark;
+
+import com.example.Cart.CartMetrics;
+import com.example.Cart.CartRegistry;
+import com.example.Cart.CartRepository;
+import com.example.Cart.CartSnapshot;
+import com.example.Cart.Catalog;
+import com.example.Cart.CatalogDelta;
+import com.example.Cart.ConcurrentCart;
+import com.example.Cart.Product;
+import com.example.Cart.RepricingResult;
+import com.example.Cart.impl.ConcurrentInventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repricing the live carts after a catalog price change: {@link CartRegistry#reprice(Set)},
+ * which visits only the carts indexed under the changed SKUs, against repricing every cart.
+ * Each cart holds {@code linesPerCart} random SKUs out of {@code catalogSize}; each
+ * invocation changes the price of {@code changedSkus} SKUs and reprices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class CartRepricingBenchmark {
+
+    private static final int LINES_PER_CART = 5;
+
+    @Param({"100000"})
+    private int carts;
+
+    @Param({"10000"})
+    private int catalogSize;
+
+    @Param({"10", "1000"})
+    private int changedSkus;
+
+    private Catalog catalog;
+    private CartRegistry registry;
+    private ConcurrentCart[] allCarts;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = Catalog.threadSafe();
+        ConcurrentInventoryService inventory = new ConcurrentInventoryService();
+        List<Product> products = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            products.add(Product.ofCents("SKU-" + i, "Product " + i, 999));
+            inventory.setInventory("SKU-" + i, Integer.MAX_VALUE);
+        }
+        catalog.loadProducts(products);
+        registry = new CartRegistry(catalog, inventory, new NoopRepository(), CartMetrics.NOOP,
+                CartRegistry.DEFAULT_SHARDS, CartRegistry.DEFAULT_IDLE_TIMEOUT, Clock.systemUTC());
+        random = new Random(42);
+        allCarts = new ConcurrentCart[carts];
+        for (int i = 0; i < carts; i++) {
+            allCarts[i] = registry.getOrCreate("cart-" + i);
+            for (int line = 0; line < LINES_PER_CART; line++) {
+                allCarts[i].addItem("SKU-" + random.nextInt(catalogSize), 1);
+            }
+        }
+    }
+
+    private Set<String> changePrices() {
+        Set<String> skus = new HashSet<>();
+        List<Product> upserts = new ArrayList<>(changedSkus);
+        while (skus.size() < changedSkus) {
+            String sku = "SKU-" + random.nextInt(catalogSize);
+            if (skus.add(sku)) {
+                upserts.add(Product.ofCents(sku, "Product", 100 + random.nextInt(10_000)));
+            }
+        }
+        catalog.applyDelta(CatalogDelta.of(catalog.getVersion() + 1, upserts, List.of()));
+        return skus;
+    }
+
+    @Benchmark
+    public RepricingResult repriceIndexed() {
+        return registry.reprice(changePrices());
+    }
+
+    @Benchmark
+    public int repriceAllCarts() {
+        Set<String> skus = changePrices();
+        int lines = 0;
+        for (ConcurrentCart cart : allCarts) {
+            lines += cart.reprice(skus);
+        }
+        return lines;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CartRepricingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static final class NoopRepository implements CartRepository {
+
+        @Override
+        public void save(String cartId, CartSnapshot snapshot) {
+        }
+
+        @Override
+        public CartSnapshot load(String cartId) {
+            return null;
+        }
+
+        @Override
+        public void delete(String cartId) {
+        }
+    }
+}
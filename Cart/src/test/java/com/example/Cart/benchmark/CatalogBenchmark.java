@@ -0,0 +1,93 @@
+package com.example.Cart.benchmark;
+
+import com.example.Cart.Catalog;
+import com.example.Cart.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog read paths across catalog sizes and storage modes: SKU lookup, name search and
+ * a page of a price range. The catalog is thread-safe, so the same benchmarks can be run
+ * with any thread count ({@code -t}).
+ *
+ * <p>The defaults stop at one million products. Ten million fit only in columnar storage
+ * on a typical heap: {@code -p catalogSize=10000000 -p storage=COLUMNAR}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class CatalogBenchmark {
+
+    private static final String[] NAME_QUERIES = {"phone", "lap", "cable 12", "pro max", "zzz"};
+    private static final String[] WORDS = {"Phone", "Laptop", "Cable", "Charger", "Case", "Pro", "Max", "Mini"};
+
+    @Param({"1000", "100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"INDEXED", "COLUMNAR"})
+    private Catalog.Storage storage;
+
+    private Catalog catalog;
+    private String[] skus;
+
+    @Setup
+    public void setUp() {
+        catalog = Catalog.create(storage, true);
+        skus = new String[catalogSize];
+        List<Product> products = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            skus[i] = "SKU-" + i;
+            String name = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + (i % 100);
+            products.add(new Product(skus[i], name, (i % 100_000) / 100.0 + 0.99));
+        }
+        catalog.loadProducts(products);
+    }
+
+    @Benchmark
+    public Product findProductBySku() {
+        return catalog.findProductBySku(skus[ThreadLocalRandom.current().nextInt(catalogSize)]);
+    }
+
+    @Benchmark
+    public Product findProductBySkuMiss() {
+        return catalog.findProductBySku("MISSING-" + (ThreadLocalRandom.current().nextInt(catalogSize) & 7));
+    }
+
+    @Benchmark
+    public List<Product> findProductsByName() {
+        return catalog.findProductsByName(NAME_QUERIES[ThreadLocalRandom.current().nextInt(NAME_QUERIES.length)]);
+    }
+
+    @Benchmark
+    public List<Product> findProductsByPriceRangePage() {
+        double min = ThreadLocalRandom.current().nextInt(900);
+        return catalog.findProductsByPriceRange(min, min + 50, 0, 20, false);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CatalogBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
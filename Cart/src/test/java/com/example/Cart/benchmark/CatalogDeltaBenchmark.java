@@ -0,0 +1,105 @@
+package com.example.Cart.benchmark;
+
+import com.example.Cart.Catalog;
+import com.example.Cart.CatalogChange;
+import com.example.Cart.CatalogDelta;
+import com.example.Cart.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applying one feed batch to a large thread-safe catalog, compared with reloading the whole
+ * catalog as the nightly feed used to. Each delta reprices {@code deltaSize - deltaSize / 10}
+ * random SKUs and deletes the rest, so successive deltas build up changes and the average
+ * includes the fold of those changes into a full copy that one delta in about
+ * {@code catalogSize / 32 / deltaSize} pays for.
+ *
+ * <p>The default catalog size fits the default heap; the five million product case needs
+ * columnar storage: {@code -p catalogSize=5000000 -p storage=COLUMNAR}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class CatalogDeltaBenchmark {
+
+    private static final String[] WORDS = {"Phone", "Laptop", "Cable", "Charger", "Case", "Pro", "Max", "Mini"};
+
+    @Param({"1000000"})
+    private int catalogSize;
+
+    @Param({"10000"})
+    private int deltaSize;
+
+    @Param({"INDEXED", "COLUMNAR"})
+    private Catalog.Storage storage;
+
+    private Catalog catalog;
+    private List<Product> products;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = Catalog.create(storage, true);
+        products = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            products.add(product(i, (i % 100_000) + 99L));
+        }
+        catalog.loadProducts(products);
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public CatalogChange applyDelta() {
+        int deletes = deltaSize / 10;
+        List<Product> upserts = new ArrayList<>(deltaSize - deletes);
+        List<String> removed = new ArrayList<>(deletes);
+        int first = random.nextInt(catalogSize - deltaSize);
+        for (int i = 0; i < deltaSize; i++) {
+            int id = first + i;
+            if (i < deletes) {
+                removed.add("SKU-" + id);
+            } else {
+                upserts.add(product(id, random.nextInt(100_000) + 99L));
+            }
+        }
+        return catalog.applyDelta(CatalogDelta.of(catalog.getVersion() + 1, upserts, removed));
+    }
+
+    @Benchmark
+    public int reloadCatalog() {
+        catalog.loadProducts(products);
+        return catalog.size();
+    }
+
+    private static Product product(int id, long priceInCents) {
+        String name = WORDS[id % WORDS.length] + " " + WORDS[(id / WORDS.length) % WORDS.length] + " " + (id % 100);
+        return Product.ofCents("SKU-" + id, name, priceInCents);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CatalogDeltaBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
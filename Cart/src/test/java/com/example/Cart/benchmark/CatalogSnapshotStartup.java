@@ -0,0 +1,68 @@
+package com.example.Cart.benchmark;
+
+import com.example.Cart.Catalog;
+import com.example.Cart.Product;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the two ways a restarted node can get its catalog back: rebuilding it from
+ * source rows, and opening a snapshot file. Prints the time until the first
+ * {@code findProductBySku} answers and the cost of a warm lookup for each.
+ *
+ * <p>Run with {@code java -Xmx4g -cp target/classes:target/test-classes:<test classpath>
+ * com.example.Cart.benchmark.CatalogSnapshotStartup [products]}. Drop the page cache
+ * between runs to see a cold start from disk.
+ */
+public class CatalogSnapshotStartup {
+
+    private static final int LOOKUPS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        int products = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Product> rows = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            rows.add(Product.ofCents("SKU-" + i, "Product " + i + " colour " + (i % 17), 100 + i % 10_000));
+        }
+        Path file = Files.createTempFile("catalog", ".snapshot");
+        try {
+            long start = System.nanoTime();
+            Catalog rebuilt = Catalog.threadSafe();
+            rebuilt.loadProducts(rows);
+            rebuilt.findProductBySku("SKU-0");
+            report("rebuild (indexed)", start, rebuilt);
+
+            start = System.nanoTime();
+            rebuilt.writeSnapshot(file, 1);
+            System.out.printf("%-20s %8d ms, %d MB%n", "write snapshot", (System.nanoTime() - start) / 1_000_000,
+                    Files.size(file) >> 20);
+            rebuilt = null;
+
+            start = System.nanoTime();
+            Catalog mapped = Catalog.openSnapshot(file, 1);
+            mapped.findProductBySku("SKU-0");
+            report("open snapshot", start, mapped);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void report(String label, long start, Catalog catalog) {
+        long ready = System.nanoTime() - start;
+        int size = catalog.size();
+        long found = 0;
+        long lookupStart = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (catalog.findProductBySku("SKU-" + ThreadLocalRandom.current().nextInt(size)) != null) {
+                found++;
+            }
+        }
+        long perLookup = (System.nanoTime() - lookupStart) / LOOKUPS;
+        System.out.printf("%-20s %8d ms until first lookup, %d ns per lookup (%d found)%n",
+                label, ready / 1_000_000, perLookup, found);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.Cart.benchmark;
+
+import com.example.Cart.InsufficientInventoryException;
+import com.example.Cart.impl.ConcurrentInventoryService;
+import com.example.Cart.impl.SimpleInventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of inventory reads and decrements on one hot SKU and on many cold SKUs.
+ * The lock-free {@link ConcurrentInventoryService} is compared with
+ * {@link SimpleInventoryService} behind a single lock, which is what callers had to do to
+ * share it between threads. Thread counts are swept from {@link #main(String[])}.
+ * The unlocked {@code simpleRead*} benchmarks are only safe because no SKU is added after
+ * setup, so the map is never restructured while it is read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+
+    private static final int COLD_SKUS = 100_000;
+    private static final int STOCK = Integer.MAX_VALUE / 2;
+
+    private ConcurrentInventoryService concurrent;
+    private SimpleInventoryService simple;
+    private String[] coldSkus;
+
+    @Setup
+    public void setUp() {
+        concurrent = new ConcurrentInventoryService();
+        simple = new SimpleInventoryService();
+        coldSkus = new String[COLD_SKUS];
+        for (int i = 0; i < COLD_SKUS; i++) {
+            coldSkus[i] = "COLD-" + i;
+            concurrent.setInventory(coldSkus[i], STOCK);
+            simple.setInventory(coldSkus[i], STOCK);
+        }
+        concurrent.setInventory("HOT", STOCK);
+        simple.setInventory("HOT", STOCK);
+    }
+
+    private String coldSku() {
+        return coldSkus[ThreadLocalRandom.current().nextInt(COLD_SKUS)];
+    }
+
+    @Benchmark
+    public int concurrentReadHot() {
+        return concurrent.getAvailable("HOT");
+    }
+
+    @Benchmark
+    public int concurrentReadCold() {
+        return concurrent.getAvailable(coldSku());
+    }
+
+    @Benchmark
+    public void concurrentDecrementHot() {
+        decrement(concurrent, "HOT");
+    }
+
+    @Benchmark
+    public void concurrentDecrementCold() {
+        decrement(concurrent, coldSku());
+    }
+
+    @Benchmark
+    public int simpleReadHot() {
+        return simple.getAvailable("HOT");
+    }
+
+    @Benchmark
+    public int simpleReadCold() {
+        return simple.getAvailable(coldSku());
+    }
+
+    @Benchmark
+    public void lockedSimpleDecrementHot() {
+        synchronized (simple) {
+            simple.decreaseInventory("HOT", 1);
+        }
+    }
+
+    @Benchmark
+    public void lockedSimpleDecrementCold() {
+        String sku = coldSku();
+        synchronized (simple) {
+            simple.decreaseInventory(sku, 1);
+        }
+    }
+
+    private static void decrement(ConcurrentInventoryService inventory, String sku) {
+        try {
+            inventory.decreaseInventory(sku, 1);
+        } catch (InsufficientInventoryException e) {
+            inventory.setInventory(sku, STOCK);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            new Runner(new OptionsBuilder()
+                    .include(InventoryBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
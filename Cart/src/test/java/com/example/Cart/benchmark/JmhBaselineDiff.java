@@ -0,0 +1,99 @@
+package com.example.Cart.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files, e.g. a saved baseline and the latest run of
+ * {@code mvn -Pbenchmark verify}. For every benchmark, parameter set and thread count
+ * present in both, prints the primary score, its change, and the change in allocated
+ * bytes per operation when the GC profiler was used.
+ *
+ * <p>Usage: {@code JmhBaselineDiff baseline.json current.json [thresholdPercent]}. Exits
+ * with status 1 if any score got worse by more than the threshold (default 10%).
+ */
+public class JmhBaselineDiff {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhBaselineDiff baseline.json current.json [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s %12s%n", "benchmark", "baseline", "current", "change", "alloc B/op");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", score(after), "new");
+                continue;
+            }
+            double change = percentChange(score(before), score(after));
+            // Throughput improves upwards; time-per-operation modes improve downwards.
+            double worse = "thrpt".equals(after.path("mode").asText()) ? -change : change;
+            boolean regressed = worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %12s%s%n", entry.getKey(), score(before), score(after),
+                    change, allocation(before, after), regressed ? "  REGRESSION" : "");
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-90s %14.3f %14s %9s%n", key, score(baseline.get(key)), "-", "missing");
+            }
+        }
+        System.out.printf("%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            results.put(key(result), result);
+        }
+        return results;
+    }
+
+    private static String key(JsonNode result) {
+        StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                .replace("com.example.Cart.benchmark.", ""));
+        Map<String, String> params = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonNode> field : result.path("params").properties()) {
+            params.put(field.getKey(), field.getValue().asText());
+        }
+        if (!params.isEmpty()) {
+            key.append(params);
+        }
+        return key.append(" t=").append(result.path("threads").asInt()).toString();
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static String allocation(JsonNode before, JsonNode after) {
+        JsonNode a = before.path("secondaryMetrics").path(ALLOCATION).path("score");
+        JsonNode b = after.path("secondaryMetrics").path(ALLOCATION).path("score");
+        if (a.isMissingNode() || b.isMissingNode()) {
+            return "-";
+        }
+        return String.format("%.0f->%.0f", a.asDouble(), b.asDouble());
+    }
+
+    private static double percentChange(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100.0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.Cart.benchmark;
+
+import com.example.Cart.Catalog;
+import com.example.Cart.Product;
+import com.example.Cart.SkuKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares SKU lookups through raw strings and through pre-built {@link SkuKey}s.
+ * Run with the GC profiler to see the allocation rate per lookup:
+ * {@code gc.alloc.rate.norm} should be 0 B/op for every path except padded strings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkuLookupBenchmark {
+
+    @Param({"1000", "100000"})
+    private int catalogSize;
+
+    private Catalog catalog;
+    private String[] canonicalSkus;
+    private String[] paddedSkus;
+    private SkuKey[] keys;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        catalog = new Catalog();
+        canonicalSkus = new String[catalogSize];
+        paddedSkus = new String[catalogSize];
+        keys = new SkuKey[catalogSize];
+        for (int i = 0; i < catalogSize; i++) {
+            String sku = "SKU-" + i;
+            catalog.addProduct(new Product(sku, "Product " + i, i % 500 + 0.99));
+            canonicalSkus[i] = sku;
+            paddedSkus[i] = " " + sku + " ";
+            keys[i] = SkuKey.of(sku);
+        }
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == catalogSize ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public Product findByCanonicalString() {
+        return catalog.findProductBySku(canonicalSkus[nextIndex()]);
+    }
+
+    @Benchmark
+    public Product findByPaddedString() {
+        return catalog.findProductBySku(paddedSkus[nextIndex()]);
+    }
+
+    @Benchmark
+    public Product findByKey() {
+        return catalog.findProduct(keys[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean containsByKey() {
+        return catalog.contains(keys[nextIndex()]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SkuLookupBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
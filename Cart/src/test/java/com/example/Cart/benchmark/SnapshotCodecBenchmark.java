@@ -0,0 +1,135 @@
+package com.example.Cart.benchmark;
+
+import com.example.Cart.CartLine;
+import com.example.Cart.CartSnapshot;
+import com.example.Cart.SkuDictionary;
+import com.example.Cart.SnapshotCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a cart with {@link SnapshotCodec} against Jackson JSON of the
+ * same lines. {@link #main(String[])} prints the encoded sizes and runs the benchmarks
+ * with the GC profiler, so allocation per operation is reported alongside time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotCodecBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+
+    @Param({"1", "10", "100"})
+    private int cartLines;
+
+    private SnapshotCodec codec;
+    private ObjectMapper mapper;
+    private CartSnapshot snapshot;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+    private byte[] json;
+
+    public record LineJson(String sku, int quantity, long priceInCents) {
+    }
+
+    public record CartJson(long version, List<LineJson> lines) {
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> skus = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            skus.add(String.format("SKU-%06d", i));
+        }
+        codec = new SnapshotCodec(SkuDictionary.of(skus));
+        mapper = new ObjectMapper();
+        snapshot = cart(cartLines);
+        buffer = ByteBuffer.allocate(codec.encodedSize(snapshot));
+        encoded = ByteBuffer.allocate(codec.encodedSize(snapshot));
+        codec.encode(snapshot, encoded);
+        encoded.flip();
+        json = mapper.writeValueAsBytes(toJson(snapshot));
+    }
+
+    static CartSnapshot cart(int lines) {
+        CartSnapshot snapshot = CartSnapshot.empty();
+        for (int i = 0; i < lines; i++) {
+            snapshot = snapshot.with(new CartLine(String.format("SKU-%06d", i * 97 % CATALOG_SIZE),
+                    1 + i % 5, 199 + 100L * i));
+        }
+        return snapshot;
+    }
+
+    private static CartJson toJson(CartSnapshot snapshot) {
+        List<LineJson> lines = new ArrayList<>(snapshot.size());
+        snapshot.forEach(line -> lines.add(new LineJson(line.getSku(), line.getQuantity(), line.getPriceInCents())));
+        return new CartJson(snapshot.getVersion(), lines);
+    }
+
+    private static CartSnapshot fromJson(CartJson json) {
+        List<CartLine> lines = new ArrayList<>(json.lines().size());
+        for (LineJson line : json.lines()) {
+            lines.add(new CartLine(line.sku(), line.quantity(), line.priceInCents()));
+        }
+        return CartSnapshot.of(lines, json.version());
+    }
+
+    @Benchmark
+    public ByteBuffer binaryEncode() {
+        buffer.clear();
+        codec.encode(snapshot, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public CartSnapshot binaryDecode() {
+        encoded.rewind();
+        return codec.decodeCart(encoded);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws IOException {
+        return mapper.writeValueAsBytes(toJson(snapshot));
+    }
+
+    @Benchmark
+    public CartSnapshot jsonDecode() throws IOException {
+        return fromJson(mapper.readValue(json, CartJson.class));
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        SnapshotCodecBenchmark sizes = new SnapshotCodecBenchmark();
+        System.out.printf("%10s %12s %12s%n", "cartLines", "binary (B)", "json (B)");
+        for (int lines : new int[]{1, 10, 100}) {
+            sizes.cartLines = lines;
+            sizes.setUp();
+            System.out.printf("%10d %12d %12d%n", lines, sizes.encoded.remaining(), sizes.json.length);
+        }
+        new Runner(new OptionsBuilder()
+                .include(SnapshotCodecBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}